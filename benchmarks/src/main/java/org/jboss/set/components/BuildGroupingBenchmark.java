@@ -0,0 +1,78 @@
+package org.jboss.set.components;
+
+import org.jboss.set.components.pnc.PncResolution;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.wildfly.channel.ArtifactCoordinate;
+import org.wildfly.channel.Stream;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the aggregation phase of the verification - grouping the resolved streams by component, build and version -
+ * without any PNC lookups.
+ * <p>
+ * Run with {@code -prof gc} to see the allocation rate.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class BuildGroupingBenchmark {
+
+    @Param({"100", "1000", "10000", "50000"})
+    int streams;
+
+    @Param({"10"})
+    int meanBuildSize;
+
+    @Param({"500"})
+    int components;
+
+    private final List<PncResolution> resolutions = new ArrayList<>();
+    private ComponentAccumulator accumulator;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        final SyntheticPncManager pncManager = new SyntheticPncManager(streams, meanBuildSize, components, 0);
+        for (Stream stream : pncManager.manifest().getStreams()) {
+            final ArtifactCoordinate coordinate = new ArtifactCoordinate(stream.getGroupId(), stream.getArtifactId(), null, null, stream.getVersion());
+            resolutions.add(pncManager.resolve(coordinate));
+        }
+        accumulator = record();
+    }
+
+    @Benchmark
+    public ComponentAccumulator recordResolutions() {
+        return record();
+    }
+
+    @Benchmark
+    public VerificationResult checkComponents() {
+        final VerificationResult result = new VerificationResult();
+        accumulator.check(result);
+        return result;
+    }
+
+    private ComponentAccumulator record() {
+        final ComponentAccumulator accumulator = new ComponentAccumulator();
+        for (PncResolution resolution : resolutions) {
+            accumulator.record(resolution.getBuild().getId(), resolution.getComponent(), resolution.getCoordinate());
+        }
+        return accumulator;
+    }
+}
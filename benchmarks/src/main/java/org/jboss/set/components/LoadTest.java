@@ -0,0 +1,90 @@
+package org.jboss.set.components;
+
+import org.jboss.set.components.cli.VerifyComponentsCommand;
+import org.wildfly.channel.ChannelManifestMapper;
+import picocli.CommandLine;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the whole {@code verify-components} command against a {@link StubPncServer} and reports the end-to-end
+ * throughput together with the requests seen by the server.
+ * <p>
+ * The arguments after {@code --} are passed to the command, e.g. {@code -- --concurrency 40 --batch-size 20}.
+ */
+@CommandLine.Command(name = "load-test", mixinStandardHelpOptions = true,
+        description = "Verifies a generated manifest against a local stub of the PNC REST API.")
+public class LoadTest implements Callable<Integer> {
+
+    @CommandLine.Option(names = {"--streams"}, defaultValue = "10000", description = "Number of streams in the manifest (default: ${DEFAULT-VALUE})")
+    int streams;
+
+    @CommandLine.Option(names = {"--mean-build-size"}, defaultValue = "10", description = "Average number of artifacts in a build (default: ${DEFAULT-VALUE})")
+    int meanBuildSize;
+
+    @CommandLine.Option(names = {"--components"}, defaultValue = "500", description = "Number of distinct components (default: ${DEFAULT-VALUE})")
+    int components;
+
+    @CommandLine.Option(names = {"--latency-ms"}, defaultValue = "20", description = "Latency of every response (default: ${DEFAULT-VALUE})")
+    long latencyMillis;
+
+    @CommandLine.Option(names = {"--slow-rate"}, defaultValue = "0", description = "Fraction of the responses delayed by --slow-latency-ms (default: ${DEFAULT-VALUE})")
+    double slowRate;
+
+    @CommandLine.Option(names = {"--slow-latency-ms"}, defaultValue = "1000", description = "Additional latency of the slow responses (default: ${DEFAULT-VALUE})")
+    long slowLatencyMillis;
+
+    @CommandLine.Option(names = {"--error-rate"}, defaultValue = "0", description = "Fraction of the requests failing with 503 (default: ${DEFAULT-VALUE})")
+    double errorRate;
+
+    @CommandLine.Option(names = {"--verbose"}, description = "Shows the output of the verification")
+    boolean verbose;
+
+    @CommandLine.Parameters(description = "Arguments of the verify-components command")
+    List<String> commandArgs = new ArrayList<>();
+
+    @Override
+    public Integer call() throws Exception {
+        final SyntheticPncManager data = new SyntheticPncManager(streams, meanBuildSize, components, 0);
+        final Path manifestFile = Files.createTempFile("load-test-manifest", ".yaml");
+        try (StubPncServer server = new StubPncServer(data, latencyMillis, slowRate, slowLatencyMillis, errorRate)) {
+            Files.writeString(manifestFile, ChannelManifestMapper.toYaml(data.manifest()));
+
+            final List<String> args = new ArrayList<>(List.of(
+                    "--pnc-url", server.getUrl().toExternalForm(),
+                    "--manifest-url", manifestFile.toUri().toURL().toExternalForm()));
+            args.addAll(commandArgs);
+
+            final PrintStream stdout = System.out;
+            final int exitCode;
+            final long start = System.nanoTime();
+            try {
+                if (!verbose) {
+                    System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+                }
+                exitCode = new CommandLine(new VerifyComponentsCommand()).execute(args.toArray(new String[0]));
+            } finally {
+                System.setOut(stdout);
+            }
+            final long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+            System.out.printf("Verified %d streams from %d builds in %d ms (%.1f streams/s), exit code %d%n",
+                    streams, data.getBuildCount(), elapsedMillis, streams * 1000.0 / Math.max(1, elapsedMillis), exitCode);
+            System.out.println(server.summary());
+            return exitCode;
+        } finally {
+            Files.deleteIfExists(manifestFile);
+        }
+    }
+
+    public static void main(String[] args) {
+        System.exit(new CommandLine(new LoadTest()).execute(args));
+    }
+}
@@ -0,0 +1,274 @@
+package org.jboss.set.components;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.jboss.set.components.pnc.PncArtifact;
+import org.jboss.set.components.pnc.PncBuild;
+import org.wildfly.channel.ArtifactCoordinate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Embeddable HTTP server implementing the subset of the PNC REST API used by {@code PncManagerImpl}. The responses are
+ * generated from a {@link SyntheticPncManager} data set.
+ * <p>
+ * Every response is delayed by {@code latencyMillis}, a {@code slowRate} fraction of the responses by an additional
+ * {@code slowLatencyMillis}, and an {@code errorRate} fraction of the requests fails with {@code 503 Service Unavailable}.
+ */
+public class StubPncServer implements AutoCloseable {
+
+    static final String BASE_PATH = "/pnc-rest/v2";
+    private static final Pattern IDENTIFIER_QUERY = Pattern.compile("identifier=like=\"([^\"]+)\"");
+    private static final int DEFAULT_PAGE_SIZE = 100;
+
+    private final SyntheticPncManager data;
+    private final long latencyMillis;
+    private final double slowRate;
+    private final long slowLatencyMillis;
+    private final double errorRate;
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private final Map<String, LongAdder> requestsByEndpoint = new ConcurrentHashMap<>();
+    private final LongAdder errors = new LongAdder();
+    private final Set<InetSocketAddress> connections = ConcurrentHashMap.newKeySet();
+    private final ConcurrentLinkedQueue<Long> responseTimes = new ConcurrentLinkedQueue<>();
+
+    public StubPncServer(SyntheticPncManager data, long latencyMillis, double slowRate, long slowLatencyMillis, double errorRate) throws IOException {
+        this.data = data;
+        this.latencyMillis = latencyMillis;
+        this.slowRate = slowRate;
+        this.slowLatencyMillis = slowLatencyMillis;
+        this.errorRate = errorRate;
+
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        this.server.createContext(BASE_PATH + "/", this::handle);
+        this.server.setExecutor(executor);
+        this.server.start();
+    }
+
+    public URL getUrl() throws IOException {
+        final InetSocketAddress address = server.getAddress();
+        return new URL("http", address.getHostString(), address.getPort(), "/");
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        final long start = System.nanoTime();
+        connections.add(exchange.getRemoteAddress());
+        try {
+            final String path = exchange.getRequestURI().getPath().substring(BASE_PATH.length());
+            final String[] segments = path.split("/");
+            requestsByEndpoint.computeIfAbsent(endpoint(segments), k -> new LongAdder()).increment();
+
+            delay();
+            if (errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate) {
+                errors.increment();
+                send(exchange, 503, Map.of("errorMessage", "Injected failure"));
+                return;
+            }
+
+            final Object response = respond(segments, queryParameters(exchange.getRequestURI()));
+            if (response == null) {
+                send(exchange, 404, Map.of("errorMessage", "Not found: " + path));
+            } else {
+                send(exchange, 200, response);
+            }
+        } catch (RuntimeException e) {
+            send(exchange, 500, Map.of("errorMessage", String.valueOf(e.getMessage())));
+        } finally {
+            exchange.close();
+            responseTimes.add(System.nanoTime() - start);
+        }
+    }
+
+    private Object respond(String[] segments, Map<String, String> parameters) {
+        if (segments.length == 2 && "artifacts".equals(segments[1])) {
+            // RSQL query built by PncManagerImpl#resolveAll
+            final List<Object> artifacts = new ArrayList<>();
+            final Matcher matcher = IDENTIFIER_QUERY.matcher(parameters.getOrDefault("q", ""));
+            while (matcher.find()) {
+                final PncArtifact artifact = data.getArtifact(parsePattern(matcher.group(1), "%"));
+                if (artifact != null) {
+                    artifacts.add(toArtifact(artifact));
+                }
+            }
+            return page(artifacts, parameters);
+        }
+        if (segments.length == 3 && "artifacts".equals(segments[1]) && "filter".equals(segments[2])) {
+            final PncArtifact artifact = data.getArtifact(parsePattern(parameters.getOrDefault("identifier", ""), "*"));
+            return page(artifact == null ? List.of() : List.of(toArtifactInfo(artifact)), parameters);
+        }
+        if (segments.length == 3 && "artifacts".equals(segments[1])) {
+            final PncArtifact artifact = data.findArtifact(new PncArtifact.Id(segments[2]));
+            return artifact == null ? null : toArtifact(artifact);
+        }
+        if (segments.length == 3 && "builds".equals(segments[1])) {
+            final PncBuild build = data.findBuild(new PncBuild.Id(segments[2]));
+            return build == null ? null : toBuild(build);
+        }
+        if (segments.length == 5 && "builds".equals(segments[1]) && "artifacts".equals(segments[3]) && "built".equals(segments[4])) {
+            final PncBuild build = data.findBuild(new PncBuild.Id(segments[2]));
+            if (build == null) {
+                return null;
+            }
+            final List<Object> artifacts = new ArrayList<>();
+            for (PncArtifact artifact : data.getArtifactsInBuild(build.getId())) {
+                artifacts.add(toArtifact(artifact));
+            }
+            return page(artifacts, parameters);
+        }
+        return null;
+    }
+
+    private static String endpoint(String[] segments) {
+        final String[] normalized = segments.clone();
+        if (normalized.length > 2 && !"filter".equals(normalized[2])) {
+            normalized[2] = "{id}";
+        }
+        return String.join("/", normalized);
+    }
+
+    private Map<String, Object> toArtifact(PncArtifact artifact) {
+        final Map<String, Object> json = toArtifactInfo(artifact);
+        final PncBuild build = data.getBuildIdContainingArtifact(artifact.getId());
+        json.put("originUrl", artifact.isImported() ? "https://repo.example.com/" + json.get("identifier") : null);
+        json.put("build", build == null ? null : Map.of("id", build.getId().getId()));
+        return json;
+    }
+
+    private static Map<String, Object> toArtifactInfo(PncArtifact artifact) {
+        final ArtifactCoordinate coordinate = artifact.getCoordinate();
+        final Map<String, Object> json = new LinkedHashMap<>();
+        json.put("id", artifact.getId().getId());
+        json.put("identifier", coordinate.getGroupId() + ":" + coordinate.getArtifactId() + ":" + coordinate.getExtension() + ":" + coordinate.getVersion() +
+                (coordinate.getClassifier() == null ? "" : ":" + coordinate.getClassifier()));
+        return json;
+    }
+
+    private static Map<String, Object> toBuild(PncBuild build) {
+        final Map<String, Object> json = new LinkedHashMap<>();
+        json.put("id", build.getId().getId());
+        json.put("attributes", Map.of("BREW_BUILD_NAME", build.getBrewComponent().getName()));
+        return json;
+    }
+
+    private static Map<String, Object> page(List<Object> content, Map<String, String> parameters) {
+        final int pageIndex = Integer.parseInt(parameters.getOrDefault("pageIndex", "0"));
+        final int pageSize = Integer.parseInt(parameters.getOrDefault("pageSize", "" + DEFAULT_PAGE_SIZE));
+        final int from = Math.min(pageIndex * pageSize, content.size());
+        final int to = Math.min(from + pageSize, content.size());
+
+        final Map<String, Object> json = new LinkedHashMap<>();
+        json.put("pageIndex", pageIndex);
+        json.put("pageSize", pageSize);
+        json.put("totalPages", (content.size() + pageSize - 1) / pageSize);
+        json.put("totalHits", content.size());
+        json.put("content", content.subList(from, to));
+        return json;
+    }
+
+    /**
+     * Parses {@code groupId:artifactId:<wildcard>:version} patterns.
+     */
+    private static ArtifactCoordinate parsePattern(String pattern, String wildcard) {
+        final String[] parts = pattern.split(":");
+        if (parts.length != 4 || !wildcard.equals(parts[2])) {
+            throw new IllegalArgumentException("Unsupported identifier pattern " + pattern);
+        }
+        return new ArtifactCoordinate(parts[0], parts[1], null, null, parts[3]);
+    }
+
+    private static Map<String, String> queryParameters(URI uri) {
+        if (uri.getRawQuery() == null) {
+            return Collections.emptyMap();
+        }
+        final Map<String, String> parameters = new HashMap<>();
+        for (String parameter : uri.getRawQuery().split("&")) {
+            final int separator = parameter.indexOf('=');
+            if (separator > 0) {
+                parameters.put(URLDecoder.decode(parameter.substring(0, separator), StandardCharsets.UTF_8),
+                        URLDecoder.decode(parameter.substring(separator + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return parameters;
+    }
+
+    private void delay() {
+        long delay = latencyMillis;
+        if (slowRate > 0 && ThreadLocalRandom.current().nextDouble() < slowRate) {
+            delay += slowLatencyMillis;
+        }
+        if (delay > 0) {
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void send(HttpExchange exchange, int status, Object body) throws IOException {
+        final byte[] bytes = mapper.writeValueAsBytes(body);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    public long getRequests() {
+        return requestsByEndpoint.values().stream().mapToLong(LongAdder::sum).sum();
+    }
+
+    public String summary() {
+        final StringBuilder sb = new StringBuilder();
+        sb.append(String.format("Stub PNC: %d requests, %d injected errors, %d client connections%n", getRequests(), errors.sum(), connections.size()));
+        requestsByEndpoint.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .forEach(e -> sb.append(String.format("  %-30s %d%n", e.getKey(), e.getValue().sum())));
+
+        final long[] times = responseTimes.stream().mapToLong(Long::longValue).sorted().toArray();
+        if (times.length > 0) {
+            sb.append(String.format("  response time p50 %d ms, p90 %d ms, p99 %d ms, max %d ms",
+                    percentile(times, 0.5), percentile(times, 0.9), percentile(times, 0.99), TimeUnit.NANOSECONDS.toMillis(times[times.length - 1])));
+        }
+        return sb.toString();
+    }
+
+    private static long percentile(long[] sorted, double percentile) {
+        final int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return TimeUnit.NANOSECONDS.toMillis(sorted[Math.max(0, index)]);
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,129 @@
+package org.jboss.set.components;
+
+import org.jboss.set.components.pnc.PncArtifact;
+import org.jboss.set.components.pnc.PncBuild;
+import org.jboss.set.components.pnc.PncComponent;
+import org.jboss.set.components.pnc.PncManager;
+import org.wildfly.channel.ArtifactCoordinate;
+import org.wildfly.channel.ChannelManifest;
+import org.wildfly.channel.ChannelManifestMapper;
+import org.wildfly.channel.Stream;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * In-memory {@link PncManager} serving a generated set of builds, with a fixed latency added to every call.
+ * <p>
+ * The build sizes follow an exponential distribution around {@code meanBuildSize}, so that most of the builds are small,
+ * but some of them provide hundreds of artifacts. The builds are assigned to {@code componentCount} components round-robin,
+ * if there are more builds than components, the manifest contains violations.
+ * The data is generated from a fixed seed, the same parameters always produce the same manifest.
+ */
+public class SyntheticPncManager implements PncManager {
+
+    private static final long SEED = 42L;
+
+    private final long latencyNanos;
+    private final List<Stream> streams = new ArrayList<>();
+    private final Map<String, PncArtifact> artifactsByGav = new HashMap<>();
+    private final Map<PncArtifact.Id, PncArtifact> artifactsById = new HashMap<>();
+    private final Map<PncBuild.Id, PncBuild> builds = new HashMap<>();
+    private final Map<PncArtifact.Id, PncBuild> buildsByArtifact = new HashMap<>();
+    private final Map<PncBuild.Id, List<PncArtifact>> artifactsByBuild = new HashMap<>();
+    private final LongAdder calls = new LongAdder();
+
+    /**
+     * @param streamCount - number of streams in the generated manifest
+     * @param meanBuildSize - average number of artifacts produced by a build
+     * @param componentCount - number of distinct components the builds belong to
+     * @param latencyMicros - time spent in every call
+     */
+    public SyntheticPncManager(int streamCount, int meanBuildSize, int componentCount, long latencyMicros) {
+        if (streamCount < 1 || meanBuildSize < 1 || componentCount < 1) {
+            throw new IllegalArgumentException("Stream count, build size and component count have to be positive numbers");
+        }
+        this.latencyNanos = TimeUnit.MICROSECONDS.toNanos(latencyMicros);
+
+        final Random random = new Random(SEED);
+        int artifactCounter = 0;
+        for (int buildIndex = 0; streams.size() < streamCount; buildIndex++) {
+            final int componentIndex = buildIndex % componentCount;
+            final PncBuild build = new PncBuild(new PncBuild.Id("build-" + buildIndex), new PncComponent("component-" + componentIndex), true);
+            final int buildSize = 1 + (int) (-Math.log(1 - random.nextDouble()) * (meanBuildSize - 1));
+            final String groupId = "org.synthetic.component" + componentIndex;
+            final String version = "1." + buildIndex + ".0";
+
+            final List<PncArtifact> builtArtifacts = new ArrayList<>(buildSize);
+            for (int i = 0; i < buildSize; i++) {
+                final String artifactId = "artifact-" + buildIndex + "-" + i;
+                final PncArtifact artifact = new PncArtifact(new PncArtifact.Id(Integer.toString(artifactCounter++)),
+                        new ArtifactCoordinate(groupId, artifactId, "jar", null, version), false);
+                builtArtifacts.add(artifact);
+                artifactsByGav.put(groupId + ":" + artifactId + ":" + version, artifact);
+                artifactsById.put(artifact.getId(), artifact);
+                buildsByArtifact.put(artifact.getId(), build);
+                // the remaining artifacts of the last build are in PNC, but not in the manifest
+                if (streams.size() < streamCount) {
+                    streams.add(new Stream(groupId, artifactId, version));
+                }
+            }
+            artifactsByBuild.put(build.getId(), builtArtifacts);
+            builds.put(build.getId(), build);
+        }
+    }
+
+    public ChannelManifest manifest() {
+        final ChannelManifest.Builder builder = new ChannelManifest.Builder()
+                .setSchemaVersion(ChannelManifestMapper.SCHEMA_VERSION_1_1_0);
+        streams.forEach(builder::addStreams);
+        return builder.build();
+    }
+
+    public int getBuildCount() {
+        return artifactsByBuild.size();
+    }
+
+    public long getCalls() {
+        return calls.sum();
+    }
+
+    PncArtifact findArtifact(PncArtifact.Id artifactId) {
+        return artifactsById.get(artifactId);
+    }
+
+    PncBuild findBuild(PncBuild.Id buildId) {
+        return builds.get(buildId);
+    }
+
+    @Override
+    public PncArtifact getArtifact(ArtifactCoordinate coordinate) {
+        call();
+        return artifactsByGav.get(coordinate.getGroupId() + ":" + coordinate.getArtifactId() + ":" + coordinate.getVersion());
+    }
+
+    @Override
+    public PncBuild getBuildIdContainingArtifact(PncArtifact.Id artifactId) {
+        call();
+        return buildsByArtifact.get(artifactId);
+    }
+
+    @Override
+    public List<PncArtifact> getArtifactsInBuild(PncBuild.Id buildId) {
+        call();
+        return artifactsByBuild.getOrDefault(buildId, List.of());
+    }
+
+    private void call() {
+        calls.increment();
+        if (latencyNanos > 0) {
+            LockSupport.parkNanos(latencyNanos);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package org.jboss.set.components;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.wildfly.channel.ChannelManifest;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a whole {@link ManifestVerifier#verifyComponents(ChannelManifest)} run against a {@link SyntheticPncManager}.
+ * <p>
+ * Run with {@code -prof gc} to see the allocation rate.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class VerifyComponentsBenchmark {
+
+    @Param({"100", "1000", "10000", "50000"})
+    int streams;
+
+    @Param({"10"})
+    int meanBuildSize;
+
+    @Param({"500"})
+    int components;
+
+    @Param({"0", "1000"})
+    long latencyMicros;
+
+    @Param({"" + ManifestVerifier.DEFAULT_CONCURRENCY})
+    int concurrency;
+
+    private ManifestVerifier manifestVerifier;
+    private ChannelManifest manifest;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        final SyntheticPncManager pncManager = new SyntheticPncManager(streams, meanBuildSize, components, latencyMicros);
+        manifest = pncManager.manifest();
+        manifestVerifier = new ManifestVerifier(pncManager, concurrency);
+    }
+
+    @Benchmark
+    public VerificationResult verifyComponents() {
+        return manifestVerifier.verifyComponents(manifest);
+    }
+}
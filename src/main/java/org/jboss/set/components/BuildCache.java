@@ -1,69 +1,186 @@
 package org.jboss.set.components;
 
+import java.util.List;
 import java.util.Map;
-import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 
-import org.apache.commons.lang3.StringUtils;
+import org.jboss.set.components.metrics.Counter;
+import org.jboss.set.components.metrics.MetricsRegistry;
+import org.jboss.set.components.pnc.PncArtifact;
 import org.jboss.set.components.pnc.PncBuild;
 import org.jboss.set.components.pnc.PncComponent;
-
+import org.wildfly.channel.ArtifactCoordinate;
+
+/**
+ * Artifacts of the builds resolved so far. A verification has its own cache, shared with the other manifests verified
+ * by the same call, so that the builds overlapping between manifests are listed only once. A long-running verifier
+ * can keep a bounded cache of the finished builds between the verifications.
+ * <p>
+ * The bound is kept with two generations of builds: once the current generation holds {@code maxBuilds} builds,
+ * it becomes the previous generation and the one before is dropped. The builds listed again from the previous
+ * generation move to the current one, so the frequently used builds stay cached.
+ */
 class BuildCache {
-    final Map<Key, Entry> cache = new ConcurrentHashMap<>();
-
-    static Key toKey(String... parts) {
-        return new Key(parts);
+    private final int maxBuilds;
+    private final boolean finishedBuildsOnly;
+    private volatile Generation current = new Generation();
+    private volatile Generation previous = new Generation();
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter listingHits;
+    private final Counter listingMisses;
+
+    private BuildCache(MetricsRegistry metrics, int maxBuilds, boolean finishedBuildsOnly) {
+        if (maxBuilds < 1) {
+            throw new IllegalArgumentException("Maximum number of cached builds has to be a positive number, was " + maxBuilds);
+        }
+        this.maxBuilds = maxBuilds;
+        this.finishedBuildsOnly = finishedBuildsOnly;
+        this.hits = metrics.counter("cache.artifacts", "result", "hit");
+        this.misses = metrics.counter("cache.artifacts", "result", "miss");
+        this.listingHits = metrics.counter("cache.builds", "result", "hit");
+        this.listingMisses = metrics.counter("cache.builds", "result", "miss");
     }
 
-    void cache(Key key, PncComponent componentName, PncBuild.Id buildId) {
-        cache.put(key, new Entry(componentName, buildId));
+    /**
+     * A cache of the builds resolved by a verification, dropped once the verification is done.
+     */
+    static BuildCache forVerification(MetricsRegistry metrics) {
+        return new BuildCache(metrics, Integer.MAX_VALUE, false);
     }
 
-    Entry get(Key key) {
-        return cache.get(key);
+    /**
+     * A cache kept between the verifications. Only the finished builds are cached, the artifacts of a running build
+     * can still change.
+     *
+     * @param maxBuilds - number of builds cached at least, at most twice as many are kept
+     */
+    static BuildCache shared(MetricsRegistry metrics, int maxBuilds) {
+        return new BuildCache(metrics, maxBuilds, true);
     }
 
-    boolean contains(Key key) {
-        return cache.containsKey(key);
+    /**
+     * @return the cached artifact or {@code null}. The result is counted as a hit or a miss.
+     */
+    Entry get(String groupId, String artifactId, String version) {
+        Entry entry = current.artifacts.get(groupId, artifactId, version);
+        if (entry == null) {
+            entry = previous.artifacts.get(groupId, artifactId, version);
+        }
+        if (entry != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+        }
+        return entry;
     }
 
-    static class Key {
-        private final String key;
+    /**
+     * Lists the artifacts of the build and caches them. The build is listed only once, concurrent callers get
+     * the pending listing. If the listing fails, the returned future fails and the next caller tries again.
+     * If the listing is cancelled (e.g. the verification that started it stopped early), the callers waiting for it
+     * list the build themselves.
+     */
+    CompletableFuture<List<PncArtifact>> artifactsInBuild(PncBuild build, Function<PncBuild.Id, CompletableFuture<List<PncArtifact>>> lookup) {
+        final Generation generation = current;
+        final CompletableFuture<List<PncArtifact>> listing = new CompletableFuture<>();
+        final CompletableFuture<List<PncArtifact>> pending = generation.listings.putIfAbsent(build.getId(), listing);
+        if (pending != null) {
+            listingHits.increment();
+            return pending.handle((artifacts, failure) -> failure != null && isCancellation(failure) ?
+                    artifactsInBuild(build, lookup) : pending).thenCompose(next -> next);
+        }
 
-        Key(String... parts) {
-            this.key = StringUtils.join(parts, ":");
+        final CompletableFuture<List<PncArtifact>> previousListing = previous.listings.get(build.getId());
+        if (previousListing != null && previousListing.isDone() && !previousListing.isCompletedExceptionally()) {
+            // still in use, move the build to the current generation
+            listingHits.increment();
+            final List<PncArtifact> artifacts = previousListing.join();
+            add(generation, build, artifacts);
+            listing.complete(artifacts);
+            return listing;
         }
 
-        @Override
-        public boolean equals(Object o) {
-            if (this == o) return true;
-            if (o == null || getClass() != o.getClass()) return false;
-            Key that = (Key) o;
-            return Objects.equals(key, that.key);
+        listingMisses.increment();
+        CompletableFuture<List<PncArtifact>> lookedUp;
+        try {
+            lookedUp = lookup.apply(build.getId());
+        } catch (RuntimeException e) {
+            lookedUp = CompletableFuture.failedFuture(e);
         }
+        lookedUp.whenComplete((artifacts, failure) -> {
+            if (failure != null) {
+                generation.listings.remove(build.getId(), listing);
+                listing.completeExceptionally(failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure);
+                return;
+            }
+            if (finishedBuildsOnly && !build.isFinished()) {
+                // passed to the callers waiting for it, but listed again by the following ones
+                generation.listings.remove(build.getId(), listing);
+            } else {
+                add(generation, build, artifacts);
+            }
+            listing.complete(artifacts);
+        });
+        return listing;
+    }
 
-        @Override
-        public int hashCode() {
-            return Objects.hash(key);
+    private void add(Generation generation, PncBuild build, List<PncArtifact> artifacts) {
+        for (PncArtifact artifact : artifacts) {
+            final ArtifactCoordinate coordinate = artifact.getCoordinate();
+            generation.artifacts.putIfAbsent(coordinate.getGroupId(), coordinate.getArtifactId(), coordinate.getVersion(),
+                    new Entry(artifact, build));
+        }
+        if (generation.builds.incrementAndGet() > maxBuilds) {
+            synchronized (this) {
+                if (current == generation) {
+                    previous = generation;
+                    current = new Generation();
+                }
+            }
         }
     }
 
+    private static boolean isCancellation(Throwable failure) {
+        return failure instanceof CancellationException
+                || failure instanceof CompletionException && failure.getCause() instanceof CancellationException;
+    }
+
+    private static class Generation {
+        private final GavTable<Entry> artifacts = new GavTable<>();
+        private final Map<PncBuild.Id, CompletableFuture<List<PncArtifact>>> listings = new ConcurrentHashMap<>();
+        private final AtomicInteger builds = new AtomicInteger();
+    }
 
     static class Entry {
-        private final PncBuild.Id buildId;
-        private final PncComponent componentName;
+        private final PncArtifact artifact;
+        private final PncBuild build;
+
+        public Entry(PncArtifact artifact, PncBuild build) {
+            this.artifact = artifact;
+            this.build = build;
+        }
+
+        public PncArtifact getArtifact() {
+            return artifact;
+        }
 
-        public Entry(PncComponent componentName, PncBuild.Id buildId) {
-            this.buildId = buildId;
-            this.componentName = componentName;
+        public PncBuild getBuild() {
+            return build;
         }
 
         public PncBuild.Id getBuildId() {
-            return buildId;
+            return build.getId();
         }
 
         public PncComponent getComponentName() {
-            return componentName;
+            return build.getBrewComponent();
         }
     }
 }
@@ -0,0 +1,104 @@
+package org.jboss.set.components;
+
+import org.jboss.set.components.pnc.PncBuild;
+import org.jboss.set.components.pnc.PncComponent;
+import org.wildfly.channel.ArtifactCoordinate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Groups the resolved artifacts by component and version as they are recorded by the resolving threads.
+ * <p>
+ * A component is classified while its artifacts arrive: it's a violation as soon as an artifact from a second build
+ * is recorded. The builds themselves are not kept, the first one is enough to detect the second. The final
+ * {@link #check(VerificationResult)} pass only copies the artifacts of the violated components and the components
+ * with more than one version, and runs in parallel for large manifests.
+ */
+class ComponentAccumulator {
+
+    /**
+     * Number of components from which the final pass runs in parallel.
+     */
+    static final long PARALLELISM_THRESHOLD = 10_000;
+
+    private final ConcurrentHashMap<PncComponent, ComponentArtifacts> components = new ConcurrentHashMap<>();
+
+    /**
+     * @return {@code true} if the artifact is the first one of the component's second build, i.e. the component just became
+     * a violation. Returned exactly once per violated component.
+     */
+    boolean record(PncBuild.Id buildId, PncComponent component, ArtifactCoordinate coordinate) {
+        return components.computeIfAbsent(component, ComponentArtifacts::new).add(buildId, coordinate);
+    }
+
+    /**
+     * @return the violation listing the artifacts of the component recorded so far
+     */
+    Violation violationOf(PncComponent component) {
+        return components.get(component).toViolation();
+    }
+
+    /**
+     * Reports the components built more than once as violations, and the builds providing more than one version as warnings.
+     */
+    void check(VerificationResult res) {
+        final Queue<Violation> violations = new ConcurrentLinkedQueue<>();
+        final Queue<Warning> warnings = new ConcurrentLinkedQueue<>();
+        components.forEachValue(PARALLELISM_THRESHOLD, artifacts -> {
+            if (artifacts.multipleBuilds.get()) {
+                violations.add(artifacts.toViolation());
+            } else if (artifacts.artifactsByVersion.size() > 1) {
+                warnings.add(new Warning("[WARN] Different versions of artifact from the same build:", artifacts.allArtifacts()));
+            }
+        });
+
+        // the components are visited in no particular order, keep the report stable
+        final List<Violation> sortedViolations = new ArrayList<>(violations);
+        sortedViolations.sort(Comparator.comparing(Violation::getComponentName, Comparator.nullsFirst(Comparator.naturalOrder())));
+        sortedViolations.forEach(res::addViolation);
+        warnings.forEach(res::addWarning);
+    }
+
+    private static class ComponentArtifacts {
+        private final PncComponent component;
+        private final AtomicReference<PncBuild.Id> firstBuild = new AtomicReference<>();
+        private final AtomicBoolean multipleBuilds = new AtomicBoolean();
+        private final ConcurrentMap<String, Queue<ArtifactCoordinate>> artifactsByVersion = new ConcurrentHashMap<>(2);
+
+        ComponentArtifacts(PncComponent component) {
+            this.component = component;
+        }
+
+        boolean add(PncBuild.Id buildId, ArtifactCoordinate coordinate) {
+            // add the artifact first, so that the violation reported for it includes it
+            artifactsByVersion.computeIfAbsent(coordinate.getVersion(), v -> new ConcurrentLinkedQueue<>()).add(coordinate);
+
+            if (multipleBuilds.get() || firstBuild.compareAndSet(null, buildId) || buildId.equals(firstBuild.get())) {
+                return false;
+            }
+            return multipleBuilds.compareAndSet(false, true);
+        }
+
+        Violation toViolation() {
+            final Map<String, List<ArtifactCoordinate>> copy = new HashMap<>();
+            artifactsByVersion.forEach((version, artifacts) -> copy.put(version, new ArrayList<>(artifacts)));
+            return new Violation(component.getName(), copy);
+        }
+
+        List<ArtifactCoordinate> allArtifacts() {
+            final List<ArtifactCoordinate> all = new ArrayList<>();
+            artifactsByVersion.values().forEach(all::addAll);
+            return all;
+        }
+    }
+}
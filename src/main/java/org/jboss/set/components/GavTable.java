@@ -0,0 +1,139 @@
+package org.jboss.set.components;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Maps artifact GAVs to values, assigning each GAV a dense int ID in the order they are added.
+ * <p>
+ * The GAVs are looked up by their parts, so a lookup doesn't need to join them into a key and allocates nothing.
+ * The table is an open-addressing hash table of the IDs, linearly probed, with the entries stored in an array indexed
+ * by the ID. The entries are never removed.
+ * <p>
+ * Lookups are lock-free, additions are serialized. An entry is fully written before its ID is published in the hash
+ * table, so a lookup either sees a complete entry or misses it.
+ */
+final class GavTable<V> {
+
+    private static final int INITIAL_CAPACITY = 256;
+
+    private volatile Slots slots = new Slots(INITIAL_CAPACITY);
+    private volatile GavEntry<V>[] entries = newEntries(INITIAL_CAPACITY / 2);
+    // guarded by this
+    private int size;
+
+    /**
+     * @return the ID of the GAV, or -1 if the GAV is not in the table
+     */
+    int find(String groupId, String artifactId, String version) {
+        final Slots slots = this.slots;
+        int index = hash(groupId, artifactId, version) & slots.mask;
+        while (true) {
+            final int slot = slots.ids.get(index);
+            if (slot == 0) {
+                return -1;
+            }
+            // read after the slot, the entries array published with the slot contains the entry
+            final GavEntry<V> entry = entries[slot - 1];
+            if (entry.matches(groupId, artifactId, version)) {
+                return slot - 1;
+            }
+            index = (index + 1) & slots.mask;
+        }
+    }
+
+    /**
+     * @return the value of the GAV, or {@code null} if the GAV is not in the table
+     */
+    V get(String groupId, String artifactId, String version) {
+        final int id = find(groupId, artifactId, version);
+        return id < 0 ? null : entries[id].value;
+    }
+
+    /**
+     * Adds the GAV with the {@code value}, unless the GAV is already in the table.
+     *
+     * @return the ID of the GAV
+     */
+    synchronized int putIfAbsent(String groupId, String artifactId, String version, V value) {
+        final int existing = find(groupId, artifactId, version);
+        if (existing >= 0) {
+            return existing;
+        }
+
+        final int id = size;
+        GavEntry<V>[] entries = this.entries;
+        if (id == entries.length) {
+            entries = Arrays.copyOf(entries, entries.length * 2);
+        }
+        entries[id] = new GavEntry<>(groupId, artifactId, version, value);
+        this.entries = entries;
+        size++;
+
+        Slots slots = this.slots;
+        // keep the load factor at most 1/2, so that the probe sequences stay short
+        if (size * 2 > slots.ids.length()) {
+            slots = new Slots(slots.ids.length() * 2);
+            for (int i = 0; i < id; i++) {
+                slots.insert(hash(entries[i].groupId, entries[i].artifactId, entries[i].version), i);
+            }
+            slots.insert(hash(groupId, artifactId, version), id);
+            this.slots = slots;
+        } else {
+            slots.insert(hash(groupId, artifactId, version), id);
+        }
+        return id;
+    }
+
+    synchronized int size() {
+        return size;
+    }
+
+    private static int hash(String groupId, String artifactId, String version) {
+        // the String hash codes are cached, so hashing the parts is cheap
+        final int h = (groupId.hashCode() * 31 + artifactId.hashCode()) * 31 + version.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <V> GavEntry<V>[] newEntries(int capacity) {
+        return (GavEntry<V>[]) new GavEntry[capacity];
+    }
+
+    private static final class Slots {
+        // ID + 1 of the entry hashed into the slot, 0 for an empty slot
+        private final AtomicIntegerArray ids;
+        private final int mask;
+
+        Slots(int capacity) {
+            this.ids = new AtomicIntegerArray(capacity);
+            this.mask = capacity - 1;
+        }
+
+        void insert(int hash, int id) {
+            int index = hash & mask;
+            while (ids.get(index) != 0) {
+                index = (index + 1) & mask;
+            }
+            ids.set(index, id + 1);
+        }
+    }
+
+    private static final class GavEntry<V> {
+        private final String groupId;
+        private final String artifactId;
+        private final String version;
+        private final V value;
+
+        GavEntry(String groupId, String artifactId, String version, V value) {
+            this.groupId = groupId;
+            this.artifactId = artifactId;
+            this.version = version;
+            this.value = value;
+        }
+
+        boolean matches(String groupId, String artifactId, String version) {
+            return this.version.equals(version) && this.artifactId.equals(artifactId) && this.groupId.equals(groupId);
+        }
+    }
+}
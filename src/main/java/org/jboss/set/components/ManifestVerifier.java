@@ -1,9 +1,14 @@
 package org.jboss.set.components;
 
+import org.jboss.set.components.metrics.Counter;
+import org.jboss.set.components.metrics.MetricsRegistry;
+import org.jboss.set.components.pnc.AsyncPncManager;
+import org.jboss.set.components.pnc.BlockingAsyncPncManager;
 import org.jboss.set.components.pnc.PncArtifact;
 import org.jboss.set.components.pnc.PncBuild;
-import org.jboss.set.components.pnc.PncComponent;
+import org.jboss.set.components.pnc.PncException;
 import org.jboss.set.components.pnc.PncManager;
+import org.jboss.set.components.pnc.PncResolution;
 import org.wildfly.channel.ArtifactCoordinate;
 import org.wildfly.channel.ChannelManifest;
 import org.wildfly.channel.ChannelManifestMapper;
@@ -12,109 +17,456 @@ import org.wildfly.channel.Stream;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.atomic.AtomicInteger;
-import java.util.stream.Collectors;
 
 public class ManifestVerifier {
+    public static final int DEFAULT_CONCURRENCY = 20;
+    public static final int DEFAULT_BATCH_SIZE = 1;
+    /**
+     * Counts the streams resolved or failed, tagged by their status.
+     */
+    public static final String STREAMS = "verification.streams";
+    /**
+     * Counts the streams whose PNC lookup started, the others were resolved from the already resolved builds.
+     */
+    public static final String LOOKED_UP_STREAMS = "verification.streams.lookups";
+    /**
+     * Counts the streams resolved without a lookup - from the already resolved builds or from the baseline.
+     */
+    public static final String CACHED_STREAMS = "verification.streams.cached";
+
     final PncManager pncManager;
+    private final AsyncPncManager asyncPncManager;
+    private final int concurrency;
+    private final int batchSize;
+    private final MetricsRegistry metrics;
+    // the builds kept between the verifications, or null if every verification lists the builds again
+    private final BuildCache sharedCache;
+    private final Map<PncResolution.Status, Counter> resolvedStreams = new EnumMap<>(PncResolution.Status.class);
+    private final Counter failedStreams;
+    private final Counter lookedUpStreams;
+    private final Counter cachedStreams;
 
     public ManifestVerifier(PncManager pncManager) {
+        this(pncManager, DEFAULT_CONCURRENCY);
+    }
+
+    public ManifestVerifier(PncManager pncManager, int concurrency) {
+        this(pncManager, concurrency, DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * @param concurrency - maximum number of streams resolved in parallel. The PNC lookups are network-bound,
+     *                    so this can be much higher than the number of available CPUs.
+     * @param batchSize - number of streams resolved by one {@link PncManager#resolveAll(List)} call. Only useful if the
+     *                  {@code pncManager} can look up many artifacts with a single request.
+     */
+    public ManifestVerifier(PncManager pncManager, int concurrency, int batchSize) {
+        this(pncManager, concurrency, batchSize, new MetricsRegistry());
+    }
+
+    /**
+     * @param metrics - registry receiving the build cache and stream resolution meters
+     */
+    public ManifestVerifier(PncManager pncManager, int concurrency, int batchSize, MetricsRegistry metrics) {
+        this(pncManager, null, concurrency, batchSize, metrics, 0);
+    }
+
+    /**
+     * Keeps the artifacts of the resolved builds between the verifications, e.g. of a long-running server verifying
+     * similar manifests. Only the finished builds are kept.
+     *
+     * @param sharedBuilds - number of builds kept between the verifications, 0 to list the builds again in every
+     *                     verification
+     */
+    public ManifestVerifier(PncManager pncManager, int concurrency, int batchSize, MetricsRegistry metrics, int sharedBuilds) {
+        this(pncManager, null, concurrency, batchSize, metrics, sharedBuilds);
+    }
+
+    /**
+     * Looks up the streams with non-blocking requests. The lookups in flight don't occupy a thread, so
+     * the {@code concurrency} can be set to hundreds of streams.
+     *
+     * @param concurrency - maximum number of streams resolved in parallel
+     * @param batchSize - number of streams resolved by one {@link AsyncPncManager#resolveAll(List)} call
+     */
+    public ManifestVerifier(AsyncPncManager asyncPncManager, int concurrency, int batchSize, MetricsRegistry metrics) {
+        this(null, asyncPncManager, concurrency, batchSize, metrics, 0);
+    }
+
+    private ManifestVerifier(PncManager pncManager, AsyncPncManager asyncPncManager, int concurrency, int batchSize, MetricsRegistry metrics,
+                             int sharedBuilds) {
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("Concurrency has to be a positive number, was " + concurrency);
+        }
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size has to be a positive number, was " + batchSize);
+        }
         this.pncManager = pncManager;
+        this.asyncPncManager = asyncPncManager;
+        this.concurrency = concurrency;
+        this.batchSize = batchSize;
+        this.metrics = metrics;
+        if (sharedBuilds < 0) {
+            throw new IllegalArgumentException("Number of shared builds can't be negative, was " + sharedBuilds);
+        }
+        this.sharedCache = sharedBuilds == 0 ? null : BuildCache.shared(metrics, sharedBuilds);
+        for (PncResolution.Status status : PncResolution.Status.values()) {
+            resolvedStreams.put(status, metrics.counter(STREAMS, "status", status.name().toLowerCase(Locale.ROOT)));
+        }
+        this.failedStreams = metrics.counter(STREAMS, "status", "failed");
+        this.lookedUpStreams = metrics.counter(LOOKED_UP_STREAMS);
+        this.cachedStreams = metrics.counter(CACHED_STREAMS);
+    }
+
+    public MetricsRegistry getMetrics() {
+        return metrics;
     }
 
     public VerificationResult verifyComponents(URL manifestURL) throws MalformedURLException {
-        final ChannelManifest manifest = ChannelManifestMapper.from(manifestURL);
-        final Collection<Stream> streams = manifest.getStreams();
+        return verifyComponents(ChannelManifestMapper.from(manifestURL));
+    }
+
+    public VerificationResult verifyComponents(ChannelManifest manifest) {
+        return verifyComponents(manifest, VerificationBaseline.EMPTY);
+    }
+
+    public List<VerificationResult> verifyComponents(List<ChannelManifest> manifests) {
+        return verifyComponents(manifests, false);
+    }
 
-        final BuildRecorder recorder = new BuildRecorder();
+    /**
+     * Verifies the manifests concurrently. The streams and builds shared by the manifests are resolved only once.
+     *
+     * @param failFast - stops the verification of each manifest once its first violation is found
+     * @return the results in the order of the {@code manifests}
+     */
+    public List<VerificationResult> verifyComponents(List<ChannelManifest> manifests, boolean failFast) {
+        return verifyComponents(manifests, VerificationListener.NONE, failFast);
+    }
+
+    /**
+     * Verifies the manifests concurrently, reporting the findings of all of them to the {@code listener}.
+     *
+     * @see #verifyComponents(List, boolean)
+     */
+    public List<VerificationResult> verifyComponents(List<ChannelManifest> manifests, VerificationListener listener, boolean failFast) {
+        final BuildCache cache = buildCache();
+        final VerificationResult[] results = new VerificationResult[manifests.size()];
+        try (VerificationExecutor executor = VerificationExecutor.create(Math.max(1, manifests.size()))) {
+            final List<CompletableFuture<Void>> tasks = new ArrayList<>(manifests.size());
+            for (int i = 0; i < manifests.size(); i++) {
+                final int index = i;
+                tasks.add(executor.submit(() -> results[index] = verifyComponents(manifests.get(index), VerificationBaseline.EMPTY,
+                        listener, failFast, cache)));
+            }
+            VerificationExecutor.awaitAll(tasks);
+        }
+        return Arrays.asList(results);
+    }
 
-        final Collection<ArtifactCoordinate> imported = new ConcurrentLinkedQueue<>();
-        final List<ArtifactCoordinate> missingArtifacts = new ArrayList<>();
-        final Collection<ArtifactCoordinate> ungrouped = new ArrayList<>();
+    /**
+     * Verifies the manifest re-using the resolutions of the streams that didn't change since the {@code baseline}.
+     * Only the added and changed streams are looked up in PNC, the components are checked across all the streams.
+     */
+    public VerificationResult verifyComponents(ChannelManifest manifest, VerificationBaseline baseline) {
+        return verifyComponents(manifest, baseline, VerificationListener.NONE, false);
+    }
 
-        // record all artifacts from resolved builds, so that we don't need to resolve them twice
-        final BuildCache cache = new BuildCache();
+    /**
+     * Verifies the manifest, reporting the findings to the {@code listener} as they are found.
+     *
+     * @param failFast - stops the verification once the first violation is found. The PNC lookups in progress are
+     *                 interrupted, and the result is marked incomplete.
+     */
+    public VerificationResult verifyComponents(ChannelManifest manifest, VerificationBaseline baseline,
+                                               VerificationListener listener, boolean failFast) {
+        return verifyComponents(manifest, baseline, listener, failFast, buildCache());
+    }
 
-        final AtomicInteger counter = new AtomicInteger(0);
-        streams.parallelStream().forEach((stream)-> {
-            final BuildCache.Key cacheKey = BuildCache.toKey(stream.getGroupId(), stream.getArtifactId(), stream.getVersion());
-            final ArtifactCoordinate artifactCoordinate = stream2Coord(stream);
-            System.out.printf("Resolving [%d/%d]: %s%n", counter.getAndIncrement(), streams.size(), artifactCoordinate);
-            if (cache.contains(cacheKey)) {
-                // we resolved that artifact as part of one of earlier builds, let's just add this
-                final BuildCache.Entry buildCacheEntry = cache.get(cacheKey);
+    private BuildCache buildCache() {
+        return sharedCache != null ? sharedCache : BuildCache.forVerification(metrics);
+    }
 
-                recorder.record(buildCacheEntry.getBuildId(), buildCacheEntry.getComponentName(), artifactCoordinate);
+    private VerificationResult verifyComponents(ChannelManifest manifest, VerificationBaseline baseline,
+                                                VerificationListener listener, boolean failFast, BuildCache cache) {
+        final List<Stream> streams = new ArrayList<>();
+        final List<PncResolution> reused = new ArrayList<>();
+        for (Stream stream : manifest.getStreams()) {
+            final PncResolution resolution = baseline.getResolution(stream);
+            if (resolution != null) {
+                reused.add(resolution);
             } else {
+                streams.add(stream);
+            }
+        }
+        if (!reused.isEmpty()) {
+            listener.baselineReused(reused.size(), streams.size());
+        }
+
+        final StreamResolver resolver;
+        try (VerificationExecutor executor = VerificationExecutor.create(concurrency)) {
+            // the blocking lookups run on the executor, each of them holding a thread until PNC answers
+            final AsyncPncManager lookups = asyncPncManager != null ? asyncPncManager : new BlockingAsyncPncManager(pncManager, executor);
+
+            // phase one - index all the streams, phase two - resolve them, dropping the streams of every resolved build from the queue
+            final StreamQueue queue = new StreamQueue(streams);
+            resolver = new StreamResolver(lookups, cache, manifest.getStreams().size(), queue, listener, failFast);
+            reused.forEach(resolver::recordBuilt);
+            cachedStreams.increment(reused.size());
+
+            final int workers = Math.min(concurrency, (streams.size() + batchSize - 1) / batchSize);
+            final List<CompletableFuture<Void>> tasks = new ArrayList<>(workers);
+            for (int i = 0; i < workers; i++) {
+                tasks.add(resolver.start());
+            }
+            // closing the executor interrupts the blocking lookups still in progress after a cancellation
+            VerificationExecutor.awaitAll(tasks, resolver.cancelled);
+        }
 
-                final PncArtifact artifact = pncManager.getArtifact(artifactCoordinate);
+        final VerificationResult res = new VerificationResult();
+        if (resolver.cancelled.isDone()) {
+            res.markIncomplete();
+        }
 
-                if (artifact == null) {
-                    missingArtifacts.add(artifactCoordinate);
-                    return;
-                }
+        resolver.components.check(res);
+        res.addResolutions(resolver.resolutions);
+
+        if (!resolver.missingArtifacts.isEmpty()) {
+            res.addWarning(new Warning("[WARN] Artifacts not build in PNC:", new ArrayList<>(resolver.missingArtifacts)));
+        }
 
-                if (artifact.isImported()) {
-                    imported.add(artifact.getCoordinate());
-                    return;
-                }
 
-                final PncBuild build = pncManager.getBuildIdContainingArtifact(artifact.getId());
+        if (!resolver.imported.isEmpty()) {
+            res.addWarning(new Warning("[WARN] Ignored imported artifacts:", new ArrayList<>(resolver.imported)));
+        }
 
-                if (build == null) {
-                    ungrouped.add(artifact.getCoordinate());
+        if (!resolver.ungrouped.isEmpty()) {
+            res.addWarning(new Warning("[WARN] Unable to determine components of:", new ArrayList<>(resolver.ungrouped)));
+        }
+
+        if (!resolver.failed.isEmpty()) {
+            res.addWarning(new Warning("[WARN] Unable to resolve artifacts due to PNC errors:", new ArrayList<>(resolver.failed)));
+            res.markIncomplete();
+        }
+
+        return res;
+    }
+
+    /**
+     * Resolves the streams of one verification. Each worker started by {@link #start()} resolves a batch of streams
+     * at a time, composing the next batch on the completion of the previous one instead of waiting for it.
+     */
+    private class StreamResolver {
+        private final AsyncPncManager lookups;
+        private final BuildCache cache;
+        private final int totalStreams;
+        private final StreamQueue queue;
+        private final VerificationListener listener;
+        private final boolean failFast;
+        private final AtomicInteger resolvedCounter = new AtomicInteger(0);
+        private final CompletableFuture<Void> cancelled = new CompletableFuture<>();
+
+        private final ComponentAccumulator components = new ComponentAccumulator();
+
+        private final Collection<ArtifactCoordinate> imported = new ConcurrentLinkedQueue<>();
+        private final Collection<ArtifactCoordinate> missingArtifacts = new ConcurrentLinkedQueue<>();
+        private final Collection<ArtifactCoordinate> ungrouped = new ConcurrentLinkedQueue<>();
+        private final Collection<ArtifactCoordinate> failed = new ConcurrentLinkedQueue<>();
+        private final Collection<PncResolution> resolutions = new ConcurrentLinkedQueue<>();
+        // builds whose artifacts were already taken out of the queue
+        private final Set<PncBuild.Id> claimedBuilds = ConcurrentHashMap.newKeySet();
+
+        StreamResolver(AsyncPncManager lookups, BuildCache cache, int totalStreams, StreamQueue queue, VerificationListener listener, boolean failFast) {
+            this.lookups = lookups;
+            this.cache = cache;
+            this.totalStreams = totalStreams;
+            this.queue = queue;
+            this.listener = listener;
+            this.failFast = failFast;
+        }
+
+        /**
+         * Starts a worker resolving the batches from the queue, until the queue is empty or the verification is cancelled.
+         *
+         * @return a future completed once the worker is done
+         */
+        CompletableFuture<Void> start() {
+            final CompletableFuture<Void> worker = new CompletableFuture<>();
+            resolveNext(worker);
+            return worker;
+        }
+
+        private void resolveNext(CompletableFuture<Void> worker) {
+            List<Stream> batch;
+            // loops while the batches are resolved right away (e.g. from the cache) to keep the stack flat
+            while (!cancelled.isDone() && !(batch = queue.poll(batchSize)).isEmpty()) {
+                final CompletableFuture<Void> resolved;
+                try {
+                    resolved = resolve(batch);
+                } catch (RuntimeException | Error e) {
+                    worker.completeExceptionally(e);
                     return;
                 }
+                if (!resolved.isDone() || resolved.isCompletedExceptionally()) {
+                    resolved.whenComplete((ignored, failure) -> {
+                        if (failure != null) {
+                            worker.completeExceptionally(unwrap(failure));
+                        } else {
+                            resolveNext(worker);
+                        }
+                    });
+                    return;
+                }
+            }
+            worker.complete(null);
+        }
 
-                recorder.record(build.getId(), build.getBrewComponent(), artifactCoordinate);
-
-                final List<PncArtifact> componentArtifacts = pncManager.getArtifactsInBuild(build.getId());
+        void cancel() {
+            queue.clear();
+            cancelled.complete(null);
+        }
 
-                for (PncArtifact componentArtifact : componentArtifacts) {
-                    final BuildCache.Key compKey = BuildCache.toKey(componentArtifact.getCoordinate().getGroupId(),
-                            componentArtifact.getCoordinate().getArtifactId(), componentArtifact.getCoordinate().getVersion());
-                    cache.cache(compKey, build.getBrewComponent(), build.getId());
+        private CompletableFuture<Void> resolve(List<Stream> streams) {
+            final List<ArtifactCoordinate> unresolved = new ArrayList<>(streams.size());
+            for (Stream stream : streams) {
+                final ArtifactCoordinate artifactCoordinate = stream2Coord(stream);
+                final BuildCache.Entry buildCacheEntry = cache.get(stream.getGroupId(), stream.getArtifactId(), stream.getVersion());
+                if (buildCacheEntry != null) {
+                    // we resolved that artifact as part of one of earlier builds, let's just add this
+                    cachedStreams.increment();
+                    recordBuilt(PncResolution.built(artifactCoordinate, buildCacheEntry.getArtifact(), buildCacheEntry.getBuild()));
+                } else {
+                    unresolved.add(artifactCoordinate);
                 }
             }
-        });
 
-        final VerificationResult res = new VerificationResult();
+            if (unresolved.isEmpty()) {
+                return CompletableFuture.completedFuture(null);
+            }
+            lookedUpStreams.increment(unresolved.size());
+
+            final CompletableFuture<List<PncResolution>> lookup = unresolved.size() == 1 ?
+                    lookups.resolve(unresolved.get(0)).thenApply(List::of) : lookups.resolveAll(unresolved);
+            return lookup.handle((resolutions, failure) -> {
+                if (failure != null) {
+                    final Throwable cause = unwrap(failure);
+                    if (!(cause instanceof PncException)) {
+                        return CompletableFuture.<Void>failedFuture(cause);
+                    }
+                    // don't abort the whole verification, report the streams instead
+                    failed.addAll(unresolved);
+                    failedStreams.increment(unresolved.size());
+                    if (!cancelled.isDone()) {
+                        unresolved.forEach(c -> listener.streamFailed(c, (PncException) cause));
+                    }
+                    return CompletableFuture.<Void>completedFuture(null);
+                }
 
-        for (PncComponent component : recorder.recordedComponents()) {
+                final List<CompletableFuture<Void>> listings = new ArrayList<>();
+                for (PncResolution resolution : resolutions) {
+                    final CompletableFuture<Void> listing = record(resolution);
+                    if (!listing.isDone() || listing.isCompletedExceptionally()) {
+                        listings.add(listing);
+                    }
+                }
+                return CompletableFuture.allOf(listings.toArray(new CompletableFuture[0]));
+            }).thenCompose(listings -> listings);
+        }
 
-            final Collection<BuildRecord> componentBuild = recorder.recordedBuildsOf(component);
-            final Collection<ArtifactCoordinate> artifactCoordinates = componentBuild.stream()
-                    .flatMap(r->r.includedArtifacts.stream())
-                    .collect(Collectors.toList());
-            final Map<String, List<ArtifactCoordinate>> artifactsByVersion = artifactCoordinates.stream()
-                    .collect(Collectors.groupingBy(ArtifactCoordinate::getVersion));
+        /**
+         * Records the resolution. If it's the first resolution of a build, the build's artifacts are listed, and
+         * the other streams of the build are taken out of the queue.
+         *
+         * @return a future completed once the build's artifacts are listed
+         */
+        private CompletableFuture<Void> record(PncResolution resolution) {
+            final ArtifactCoordinate artifactCoordinate = resolution.getCoordinate();
+            switch (resolution.getStatus()) {
+                case MISSING:
+                    missingArtifacts.add(artifactCoordinate);
+                    recordResolution(resolution);
+                    return CompletableFuture.completedFuture(null);
+                case IMPORTED:
+                    imported.add(resolution.getArtifact().getCoordinate());
+                    recordResolution(resolution);
+                    return CompletableFuture.completedFuture(null);
+                case UNGROUPED:
+                    ungrouped.add(resolution.getArtifact().getCoordinate());
+                    recordResolution(resolution);
+                    return CompletableFuture.completedFuture(null);
+            }
+
+            final PncBuild build = resolution.getBuild();
+            recordBuilt(resolution);
 
-            if (componentBuild.size() > 1) {
-                res.addViolation(new Violation(component.getName(), artifactsByVersion));
-            } else if (artifactsByVersion.size() > 1) {
-                res.addWarning(new Warning("[WARN] Different versions of artifact from the same build:", new ArrayList<>(artifactCoordinates)));
+            // streams from the same build can be resolved concurrently, but only one of them needs to take the build's streams
+            if (cancelled.isDone() || !claimedBuilds.add(build.getId())) {
+                return CompletableFuture.completedFuture(null);
             }
-        }
+            return cache.artifactsInBuild(build, lookups::getArtifactsInBuild).handle((componentArtifacts, failure) -> {
+                if (failure != null) {
+                    final Throwable cause = unwrap(failure);
+                    if (!(cause instanceof PncException)) {
+                        throw cause instanceof RuntimeException ? (RuntimeException) cause : new CompletionException(cause);
+                    }
+                    // the other streams of the build will be resolved one by one
+                    if (!cancelled.isDone()) {
+                        listener.buildListingFailed(build, (PncException) cause);
+                    }
+                    return null;
+                }
 
-        if (!missingArtifacts.isEmpty()) {
-            res.addWarning(new Warning("[WARN] Artifacts not build in PNC:", missingArtifacts));
+                for (PncArtifact componentArtifact : componentArtifacts) {
+                    final ArtifactCoordinate coordinate = componentArtifact.getCoordinate();
+
+                    // the stream is resolved by this build, no need to look it up
+                    final Stream stream = queue.remove(StreamQueue.toGav(coordinate.getGroupId(), coordinate.getArtifactId(), coordinate.getVersion()));
+                    if (stream != null) {
+                        cachedStreams.increment();
+                        recordBuilt(PncResolution.built(stream2Coord(stream), componentArtifact, build));
+                    }
+                }
+                return null;
+            });
         }
 
+        private void recordBuilt(PncResolution resolution) {
+            final PncBuild build = resolution.getBuild();
+            final boolean violation = components.record(build.getId(), build.getBrewComponent(), resolution.getCoordinate());
+            recordResolution(resolution);
 
-        if (!imported.isEmpty()) {
-            res.addWarning(new Warning("[WARN] Ignored imported artifacts:", new ArrayList<>(imported)));
+            if (violation && !cancelled.isDone()) {
+                listener.violationFound(components.violationOf(build.getBrewComponent()));
+                if (failFast) {
+                    cancel();
+                }
+            }
         }
 
-        if (!ungrouped.isEmpty()) {
-            res.addWarning(new Warning("[WARN] Unable to determine components of:", new ArrayList<>(imported)));
+        private void recordResolution(PncResolution resolution) {
+            resolutions.add(resolution);
+            resolvedStreams.get(resolution.getStatus()).increment();
+            final int resolved = resolvedCounter.incrementAndGet();
+            if (!cancelled.isDone()) {
+                listener.streamResolved(resolution, resolved, totalStreams);
+            }
         }
+    }
 
-        return res;
+    private static Throwable unwrap(Throwable failure) {
+        return failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure;
     }
 
     private static ArtifactCoordinate stream2Coord(Stream stream) {
@@ -125,34 +477,4 @@ public class ManifestVerifier {
                 null,
                 stream.getVersion());
     }
-
-    static class BuildRecorder {
-        Map<PncComponent, Map<PncBuild.Id, Collection<ArtifactCoordinate>>> buildsByComponent = new ConcurrentHashMap<>();
-        void record(PncBuild.Id buildId, PncComponent component, ArtifactCoordinate artifactCoordinate) {
-            Map<PncBuild.Id, Collection<ArtifactCoordinate>> buildToArtifacts = buildsByComponent.computeIfAbsent(component, k -> new ConcurrentHashMap<>());
-            Collection<ArtifactCoordinate> artifacts = buildToArtifacts.computeIfAbsent(buildId, k -> new ConcurrentLinkedQueue<>());
-            artifacts.add(artifactCoordinate);
-        }
-
-        Collection<PncComponent> recordedComponents() {
-            return buildsByComponent.keySet();
-        }
-
-        Collection<BuildRecord> recordedBuildsOf(PncComponent component) {
-            return buildsByComponent.get(component).entrySet().stream()
-                    .map(e->new BuildRecord(e.getKey(), e.getValue()))
-                    .collect(Collectors.toList());
-        }
-    }
-
-    static class BuildRecord {
-        private final PncBuild.Id buildId;
-        private final List<ArtifactCoordinate> includedArtifacts;
-
-        public BuildRecord(PncBuild.Id buildId, Collection<ArtifactCoordinate> includedArtifacts) {
-            this.buildId = buildId;
-            this.includedArtifacts = new ArrayList<>(includedArtifacts);
-        }
-    }
-
 }
@@ -0,0 +1,93 @@
+package org.jboss.set.components;
+
+import org.wildfly.channel.Stream;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Streams of a manifest waiting to be resolved, indexed by their GAV.
+ * <p>
+ * Resolving one stream of a build resolves all the streams built by it, so the streams can be taken out of the queue
+ * either by a worker ({@link #poll(int)}) or as part of a resolved build ({@link #remove(String)}), whichever comes first.
+ * <p>
+ * The streams are handed out round-robin across their groupIds, starting with the groupIds that have the most streams.
+ * Streams sharing a groupId are usually built together, so the builds covering the most streams are discovered first,
+ * and the remaining streams of those builds never need to be looked up.
+ */
+class StreamQueue {
+
+    private final Map<String, Stream> pending = new ConcurrentHashMap<>();
+    // guarded by this
+    private final Deque<String> order = new ArrayDeque<>();
+
+    StreamQueue(Collection<Stream> streams) {
+        final Map<String, Deque<Stream>> streamsByGroup = new LinkedHashMap<>();
+        for (Stream stream : streams) {
+            pending.put(toGav(stream), stream);
+            streamsByGroup.computeIfAbsent(stream.getGroupId(), k -> new ArrayDeque<>()).add(stream);
+        }
+
+        final List<Deque<Stream>> groups = new ArrayList<>(streamsByGroup.values());
+        groups.sort(Comparator.comparingInt(Deque<Stream>::size).reversed());
+        while (!groups.isEmpty()) {
+            final Iterator<Deque<Stream>> iterator = groups.iterator();
+            while (iterator.hasNext()) {
+                final Deque<Stream> group = iterator.next();
+                order.add(toGav(group.poll()));
+                if (group.isEmpty()) {
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    /**
+     * Takes up to {@code max} streams that are still waiting to be resolved.
+     *
+     * @return the taken streams or an empty list if no streams are left
+     */
+    synchronized List<Stream> poll(int max) {
+        final List<Stream> taken = new ArrayList<>(Math.min(max, order.size()));
+        while (taken.size() < max && !order.isEmpty()) {
+            final Stream stream = pending.remove(order.poll());
+            if (stream != null) {
+                taken.add(stream);
+            }
+        }
+        return taken;
+    }
+
+    /**
+     * Takes the stream matching the {@code gav}.
+     *
+     * @return the stream or {@code null} if no such stream is waiting to be resolved
+     */
+    Stream remove(String gav) {
+        return pending.remove(gav);
+    }
+
+    /**
+     * Drops all the streams waiting to be resolved.
+     */
+    synchronized void clear() {
+        pending.clear();
+        order.clear();
+    }
+
+    static String toGav(Stream stream) {
+        return toGav(stream.getGroupId(), stream.getArtifactId(), stream.getVersion());
+    }
+
+    static String toGav(String groupId, String artifactId, String version) {
+        return groupId + ":" + artifactId + ":" + version;
+    }
+}
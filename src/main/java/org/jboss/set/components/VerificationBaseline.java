@@ -0,0 +1,111 @@
+package org.jboss.set.components;
+
+import org.jboss.set.components.pnc.PncDataCodec;
+import org.jboss.set.components.pnc.PncResolution;
+import org.wildfly.channel.ArtifactCoordinate;
+import org.wildfly.channel.ChannelManifest;
+import org.wildfly.channel.Stream;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Resolutions of the streams of a previously verified manifest, used to verify a newer revision of the manifest incrementally.
+ * <p>
+ * Only the streams resolved to a build are re-used - a finished build never changes, but a missing or imported artifact
+ * might have been built since. The resolutions are stored with {@link #save(VerificationResult, Path)} after
+ * the baseline is verified.
+ */
+public class VerificationBaseline {
+
+    public static final VerificationBaseline EMPTY = new VerificationBaseline(Map.of());
+
+    // "PNCR"
+    private static final int MAGIC = 0x504E4352;
+    static final int VERSION = 2;
+
+    private final Map<String, PncResolution> resolutions;
+
+    private VerificationBaseline(Map<String, PncResolution> resolutions) {
+        this.resolutions = resolutions;
+    }
+
+    /**
+     * @param baselineManifest - the manifest that was verified
+     * @param baselineResolutions - the resolutions of the baseline verification, only the ones matching
+     *                            the {@code baselineManifest} streams are used
+     */
+    public static VerificationBaseline of(ChannelManifest baselineManifest, Collection<PncResolution> baselineResolutions) {
+        final Set<String> baselineStreams = new HashSet<>();
+        for (Stream stream : baselineManifest.getStreams()) {
+            baselineStreams.add(StreamQueue.toGav(stream));
+        }
+
+        final Map<String, PncResolution> resolutions = new HashMap<>();
+        for (PncResolution resolution : baselineResolutions) {
+            final ArtifactCoordinate coordinate = resolution.getCoordinate();
+            final String gav = StreamQueue.toGav(coordinate.getGroupId(), coordinate.getArtifactId(), coordinate.getVersion());
+            if (resolution.getStatus() == PncResolution.Status.BUILT && baselineStreams.contains(gav)) {
+                resolutions.put(gav, resolution);
+            }
+        }
+        return new VerificationBaseline(resolutions);
+    }
+
+    public static VerificationBaseline load(ChannelManifest baselineManifest, Path resultFile) throws IOException {
+        final List<PncResolution> baselineResolutions;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(resultFile)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not a verification result: " + resultFile);
+            }
+            final int version = in.readInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported version " + version + " of verification result " + resultFile);
+            }
+
+            final int count = PncDataCodec.readCount(in);
+            baselineResolutions = PncDataCodec.newList(count);
+            for (int i = 0; i < count; i++) {
+                baselineResolutions.add(PncDataCodec.readResolution(in));
+            }
+        }
+        return of(baselineManifest, baselineResolutions);
+    }
+
+    /**
+     * Stores the resolutions of the {@code result}, so that it can be used as a baseline by following verifications.
+     */
+    public static void save(VerificationResult result, Path resultFile) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(resultFile)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+
+            out.writeInt(result.getResolutions().size());
+            for (PncResolution resolution : result.getResolutions()) {
+                PncDataCodec.writeResolution(out, resolution);
+            }
+        }
+    }
+
+    /**
+     * @return the resolution of the stream if the stream didn't change since the baseline, {@code null} otherwise
+     */
+    PncResolution getResolution(Stream stream) {
+        return resolutions.get(StreamQueue.toGav(stream));
+    }
+
+    public int size() {
+        return resolutions.size();
+    }
+}
@@ -0,0 +1,176 @@
+package org.jboss.set.components;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs the blocking PNC lookups of a verification with at most {@code concurrency} tasks in flight.
+ * <p>
+ * Uses virtual threads when the runtime supports them (JDK 21+) and falls back to a fixed pool of platform threads otherwise.
+ * The tasks passed to {@link #execute(Runnable)} are bound by the same {@code concurrency}.
+ * <p>
+ * Tasks that are also a {@link Future} (e.g. the lookups of a {@link org.jboss.set.components.pnc.BlockingAsyncPncManager})
+ * are cancelled if they never run - when the executor is closed before they start, or while they wait for a permit.
+ */
+class VerificationExecutor implements Executor, AutoCloseable {
+
+    private final ExecutorService executor;
+    private final Semaphore permits;
+
+    private VerificationExecutor(ExecutorService executor, int concurrency) {
+        this.executor = executor;
+        this.permits = new Semaphore(concurrency);
+    }
+
+    static VerificationExecutor create(int concurrency) {
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("Concurrency has to be a positive number, was " + concurrency);
+        }
+
+        final ExecutorService virtualThreads = newVirtualThreadExecutor();
+        if (virtualThreads != null) {
+            return new VerificationExecutor(virtualThreads, concurrency);
+        } else {
+            return new VerificationExecutor(Executors.newFixedThreadPool(concurrency, new DaemonThreadFactory()), concurrency);
+        }
+    }
+
+    CompletableFuture<Void> submit(Runnable task) {
+        final Task future = new Task(task);
+        execute(future);
+        return future;
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        try {
+            executor.execute(new PermitTask(task));
+        } catch (RejectedExecutionException e) {
+            // submitted after the close
+            if (!abandon(task)) {
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Waits for all the tasks to finish. If any of the tasks failed, its exception is re-thrown.
+     */
+    static void awaitAll(Collection<CompletableFuture<Void>> tasks) {
+        awaitAll(tasks, new CompletableFuture<>());
+    }
+
+    /**
+     * Waits for all the tasks to finish, or until {@code cancelled} completes. If any of the tasks failed, its exception is re-thrown.
+     */
+    static void awaitAll(Collection<CompletableFuture<Void>> tasks, CompletableFuture<Void> cancelled) {
+        try {
+            CompletableFuture.anyOf(CompletableFuture.allOf(tasks.toArray(new CompletableFuture[0])), cancelled).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Interrupts the running tasks and cancels the tasks that didn't start yet, so that nobody waits for them.
+     */
+    @Override
+    public void close() {
+        for (Runnable dropped : executor.shutdownNow()) {
+            abandon(dropped instanceof PermitTask ? ((PermitTask) dropped).task : dropped);
+        }
+    }
+
+    private static boolean abandon(Runnable task) {
+        if (task instanceof Future) {
+            ((Future<?>) task).cancel(false);
+            return true;
+        }
+        return false;
+    }
+
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            final Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            // virtual threads are not available before JDK 21
+            return null;
+        }
+    }
+
+    private class PermitTask implements Runnable {
+        private final Runnable task;
+
+        PermitTask(Runnable task) {
+            this.task = task;
+        }
+
+        @Override
+        public void run() {
+            try {
+                permits.acquire();
+            } catch (InterruptedException e) {
+                // the executor was closed while waiting, the task must not call PNC anymore
+                abandon(task);
+                return;
+            }
+            try {
+                task.run();
+            } finally {
+                permits.release();
+            }
+        }
+    }
+
+    /**
+     * Task of {@link #submit(Runnable)}, failed with a {@link java.util.concurrent.CancellationException} if it never runs.
+     */
+    private static class Task extends CompletableFuture<Void> implements Runnable {
+        private final Runnable task;
+
+        Task(Runnable task) {
+            this.task = task;
+        }
+
+        @Override
+        public void run() {
+            if (isDone()) {
+                return;
+            }
+            try {
+                task.run();
+                complete(null);
+            } catch (Throwable t) {
+                completeExceptionally(t);
+            }
+        }
+    }
+
+    private static class DaemonThreadFactory implements ThreadFactory {
+        private final AtomicInteger counter = new AtomicInteger(0);
+
+        @Override
+        public Thread newThread(Runnable r) {
+            final Thread thread = new Thread(r, "pnc-lookup-" + counter.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
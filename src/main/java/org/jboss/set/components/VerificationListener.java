@@ -0,0 +1,97 @@
+package org.jboss.set.components;
+
+import org.jboss.set.components.pnc.PncBuild;
+import org.jboss.set.components.pnc.PncException;
+import org.jboss.set.components.pnc.PncResolution;
+import org.wildfly.channel.ArtifactCoordinate;
+
+/**
+ * Receives the findings of a verification as soon as they are known, before the {@link VerificationResult} is complete.
+ * <p>
+ * The methods are called concurrently by the threads resolving the streams and should return quickly.
+ */
+public interface VerificationListener {
+
+    VerificationListener NONE = new VerificationListener() {
+    };
+
+    /**
+     * @return a listener passing the events to each of the {@code listeners}, in order
+     */
+    static VerificationListener of(VerificationListener... listeners) {
+        return new VerificationListener() {
+            @Override
+            public void baselineReused(int reusedStreams, int changedStreams) {
+                for (VerificationListener listener : listeners) {
+                    listener.baselineReused(reusedStreams, changedStreams);
+                }
+            }
+
+            @Override
+            public void streamResolved(PncResolution resolution, int resolvedStreams, int totalStreams) {
+                for (VerificationListener listener : listeners) {
+                    listener.streamResolved(resolution, resolvedStreams, totalStreams);
+                }
+            }
+
+            @Override
+            public void streamFailed(ArtifactCoordinate coordinate, PncException error) {
+                for (VerificationListener listener : listeners) {
+                    listener.streamFailed(coordinate, error);
+                }
+            }
+
+            @Override
+            public void buildListingFailed(PncBuild build, PncException error) {
+                for (VerificationListener listener : listeners) {
+                    listener.buildListingFailed(build, error);
+                }
+            }
+
+            @Override
+            public void violationFound(Violation violation) {
+                for (VerificationListener listener : listeners) {
+                    listener.violationFound(violation);
+                }
+            }
+        };
+    }
+
+    /**
+     * The verification started with the streams that didn't change since the baseline already resolved.
+     *
+     * @param reusedStreams - number of streams taken from the baseline
+     * @param changedStreams - number of streams that will be looked up
+     */
+    default void baselineReused(int reusedStreams, int changedStreams) {
+    }
+
+    /**
+     * A stream was resolved, either by a PNC lookup, as part of an already resolved build or from the baseline.
+     *
+     * @param resolvedStreams - number of streams resolved so far, including this one
+     * @param totalStreams - number of streams in the manifest
+     */
+    default void streamResolved(PncResolution resolution, int resolvedStreams, int totalStreams) {
+    }
+
+    /**
+     * A stream could not be resolved due to a PNC error.
+     */
+    default void streamFailed(ArtifactCoordinate coordinate, PncException error) {
+    }
+
+    /**
+     * The artifacts of a resolved build could not be listed due to a PNC error. The other streams of the build are
+     * looked up one by one instead.
+     */
+    default void buildListingFailed(PncBuild build, PncException error) {
+    }
+
+    /**
+     * A component was found to be built more than once. Called once per component, as soon as its second build
+     * is resolved - the violation lists only the streams resolved so far, the {@link VerificationResult} lists all of them.
+     */
+    default void violationFound(Violation violation) {
+    }
+}
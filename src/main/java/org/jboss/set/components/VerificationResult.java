@@ -1,12 +1,17 @@
 package org.jboss.set.components;
 
+import org.jboss.set.components.pnc.PncResolution;
+
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 public class VerificationResult {
 
     private List<Violation> violations = new ArrayList<>();
     private List<Warning> warnings = new ArrayList<>();
+    private List<PncResolution> resolutions = new ArrayList<>();
+    private boolean complete = true;
 
     public VerificationResult() {
     }
@@ -26,4 +31,26 @@ public class VerificationResult {
     public List<Warning> getWarnings() {
         return warnings;
     }
+
+    void addResolutions(Collection<PncResolution> resolutions) {
+        this.resolutions.addAll(resolutions);
+    }
+
+    /**
+     * @return how each of the verified streams was resolved, except for the streams that failed to resolve
+     */
+    public List<PncResolution> getResolutions() {
+        return resolutions;
+    }
+
+    /**
+     * Marks the result as incomplete - some of the streams could not be verified.
+     */
+    public void markIncomplete() {
+        complete = false;
+    }
+
+    public boolean isComplete() {
+        return complete;
+    }
 }
@@ -0,0 +1,133 @@
+package org.jboss.set.components.cli;
+
+import org.jboss.set.components.ManifestVerifier;
+import org.jboss.set.components.metrics.MetricsRegistry;
+import org.jboss.set.components.pnc.AsyncPncManager;
+import org.jboss.set.components.pnc.CoalescingPncManager;
+import org.jboss.set.components.pnc.HedgingPncManager;
+import org.jboss.set.components.pnc.HttpAsyncPncManager;
+import org.jboss.set.components.pnc.LightweightPncManager;
+import org.jboss.set.components.pnc.MeteredAsyncPncManager;
+import org.jboss.set.components.pnc.MeteredPncManager;
+import org.jboss.set.components.pnc.NegativeCachingAsyncPncManager;
+import org.jboss.set.components.pnc.NegativeCachingPncManager;
+import org.jboss.set.components.pnc.PersistentPncManager;
+import org.jboss.set.components.pnc.PncManager;
+import org.jboss.set.components.pnc.PncManagerImpl;
+import org.jboss.set.components.pnc.ThrottlingAsyncPncManager;
+import org.jboss.set.components.pnc.ThrottlingPncManager;
+import picocli.CommandLine;
+
+import java.net.URL;
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Options of the PNC client shared by the commands, and the factory composing the client from them.
+ */
+public class PncClientOptions {
+
+    /**
+     * The PNC clients of the commands look up a batch of streams with a single query, unlike the clients the
+     * {@link ManifestVerifier#DEFAULT_BATCH_SIZE} is meant for.
+     */
+    static final int DEFAULT_BATCH_SIZE = 20;
+
+    @CommandLine.Option(names = {"--concurrency"}, defaultValue = "" + ManifestVerifier.DEFAULT_CONCURRENCY,
+            description = "Maximum number of PNC lookups performed in parallel (default: ${DEFAULT-VALUE})")
+    int concurrency;
+
+    @CommandLine.Option(names = {"--batch-size"}, defaultValue = "" + DEFAULT_BATCH_SIZE,
+            description = "Number of manifest streams looked up in PNC with a single query (default: ${DEFAULT-VALUE})")
+    int batchSize;
+
+    @CommandLine.Option(names = {"--max-retries"}, defaultValue = "" + ThrottlingPncManager.DEFAULT_MAX_RETRIES,
+            description = "Number of times a PNC request failing with a transient error is retried (default: ${DEFAULT-VALUE})")
+    int maxRetries;
+
+    @CommandLine.Option(names = {"--rate-limit"}, defaultValue = "0",
+            description = "Maximum number of requests per second sent to each PNC resource, the artifacts and the builds, 0 for no limit (default: ${DEFAULT-VALUE})")
+    double rateLimit;
+
+    @CommandLine.Option(names = {"--pnc-timeout"}, defaultValue = "" + PncManagerImpl.DEFAULT_TIMEOUT_SECONDS,
+            description = "Seconds after which a PNC call without a response is aborted and retried, 0 for no limit (default: ${DEFAULT-VALUE})")
+    long pncTimeout;
+
+    @CommandLine.Option(names = {"--hedge-budget"}, defaultValue = "0",
+            description = "Percentage of the PNC calls that can be sent twice when they are slower than usual, 0 disables the hedging (default: ${DEFAULT-VALUE})")
+    double hedgeBudget;
+
+    @CommandLine.Option(names = {"--hedge-percentile"}, defaultValue = "95",
+            description = "Latency percentile after which a PNC call is hedged (default: ${DEFAULT-VALUE})")
+    double hedgePercentile;
+
+    @CommandLine.Option(names = {"--negative-cache-ttl"}, defaultValue = "" + NegativeCachingPncManager.DEFAULT_TTL_SECONDS,
+            description = "Seconds for which the artifacts missing in PNC, imported or not built by any build are remembered, 0 to disable (default: ${DEFAULT-VALUE})")
+    long negativeCacheTtl;
+
+    @CommandLine.Option(names = {"--negative-cache-size"}, defaultValue = "" + NegativeCachingPncManager.DEFAULT_MAX_ENTRIES,
+            description = "Maximum number of remembered artifacts that are not built in PNC (default: ${DEFAULT-VALUE})")
+    int negativeCacheSize;
+
+    @CommandLine.Option(names = {"--page-size"}, defaultValue = "" + PncManagerImpl.DEFAULT_PAGE_SIZE,
+            description = "Number of artifacts fetched from PNC by one request when listing the artifacts of a build. " +
+                    "Only the built-in HTTP client requests the next page in advance (default: ${DEFAULT-VALUE})")
+    int pageSize;
+
+    @CommandLine.Option(names = {"--lightweight-client"}, description = "Talks to PNC with a built-in HTTP client that requests compressed responses " +
+            "and parses only the fields needed by the verification, instead of the PNC REST client")
+    boolean lightweightClient;
+
+    @CommandLine.Option(names = {"--cache-dir"}, description = "A directory used to persist the PNC lookups between the runs")
+    Path cacheDir;
+
+    private PersistentPncManager persistentPncManager;
+
+    /**
+     * Composes the blocking PNC client: the metered client, throttled, hedged and coalesced, behind the persistent
+     * and the negative caches.
+     */
+    PncManager createPncManager(URL pncUrl, MetricsRegistry metrics) {
+        // the clients are pooled, one per concurrent lookup
+        PncManager pncManager = new MeteredPncManager(lightweightClient ?
+                new LightweightPncManager(pncUrl, pageSize, Duration.ofSeconds(pncTimeout)) :
+                new PncManagerImpl(pncUrl, concurrency, pageSize, Duration.ofSeconds(pncTimeout)), metrics);
+        pncManager = new ThrottlingPncManager(pncManager, concurrency, rateLimit, maxRetries, metrics);
+        if (hedgeBudget > 0) {
+            // above the throttling, so that the hedges count against the concurrency and rate limits
+            pncManager = new HedgingPncManager(pncManager, hedgePercentile / 100, hedgeBudget / 100, metrics);
+        }
+        pncManager = new CoalescingPncManager(pncManager);
+        if (cacheDir != null) {
+            persistentPncManager = new PersistentPncManager(pncManager, cacheDir);
+            pncManager = persistentPncManager;
+        }
+        if (negativeCacheTtl > 0) {
+            // the artifacts not built in PNC are re-checked only after the TTL
+            pncManager = new NegativeCachingPncManager(pncManager, negativeCacheSize, Duration.ofSeconds(negativeCacheTtl), metrics);
+        }
+        return pncManager;
+    }
+
+    /**
+     * Composes the non-blocking PNC client: metered and throttled, behind the negative cache. The persistent cache and
+     * the hedging are not available.
+     */
+    AsyncPncManager createAsyncPncManager(URL pncUrl, MetricsRegistry metrics) {
+        AsyncPncManager asyncPncManager = new MeteredAsyncPncManager(new HttpAsyncPncManager(pncUrl, HttpAsyncPncManager.DEFAULT_THREADS,
+                pageSize, Duration.ofSeconds(pncTimeout)), metrics);
+        asyncPncManager = new ThrottlingAsyncPncManager(asyncPncManager, concurrency, rateLimit, maxRetries, metrics);
+        if (negativeCacheTtl > 0) {
+            asyncPncManager = new NegativeCachingAsyncPncManager(asyncPncManager, negativeCacheSize, Duration.ofSeconds(negativeCacheTtl), metrics);
+        }
+        return asyncPncManager;
+    }
+
+    /**
+     * @return the persistent cache created by {@link #createPncManager(URL, MetricsRegistry)}, or null if
+     * {@code --cache-dir} is not set
+     */
+    PersistentPncManager getPersistentPncManager() {
+        return persistentPncManager;
+    }
+}
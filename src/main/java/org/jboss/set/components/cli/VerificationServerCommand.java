@@ -0,0 +1,86 @@
+package org.jboss.set.components.cli;
+
+import org.jboss.set.components.ManifestVerifier;
+import org.jboss.set.components.metrics.MetricsRegistry;
+import org.jboss.set.components.pnc.PncManager;
+import org.jboss.set.components.server.VerificationServer;
+import picocli.CommandLine;
+
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+@CommandLine.Command(name = "verification-server", description = "Starts an HTTP server verifying the manifests sent to it.\n" +
+        "The PNC clients and the resolved builds are kept between the verifications.")
+public class VerificationServerCommand implements Callable<Integer> {
+
+    private static final int SHUTDOWN_TIMEOUT_SECONDS = 30;
+
+    @CommandLine.Option(names = {CliConstants.H, CliConstants.HELP}, usageHelp = true)
+    boolean help;
+
+    @CommandLine.Option(names = {"--pnc-url"}, required = true, description = "An URL of the PNC API gateway used to build artifacts in the manifests")
+    URL pncUrl;
+
+    @CommandLine.Option(names = {"--host"}, defaultValue = "localhost", description = "Address the server listens on (default: ${DEFAULT-VALUE})")
+    String host;
+
+    @CommandLine.Option(names = {"--port"}, defaultValue = "8080", description = "Port the server listens on (default: ${DEFAULT-VALUE})")
+    int port;
+
+    @CommandLine.Option(names = {"--max-parallel"}, defaultValue = "2",
+            description = "Maximum number of manifests verified at the same time (default: ${DEFAULT-VALUE})")
+    int maxParallel;
+
+    @CommandLine.Option(names = {"--max-queued"}, defaultValue = "10",
+            description = "Maximum number of verifications waiting to start, further requests are rejected (default: ${DEFAULT-VALUE})")
+    int maxQueued;
+
+    @CommandLine.Option(names = {"--max-cached-builds"}, defaultValue = "10000",
+            description = "Number of finished PNC builds whose artifacts are kept between the verifications (default: ${DEFAULT-VALUE})")
+    int maxCachedBuilds;
+
+    @CommandLine.Mixin
+    PncClientOptions pncClientOptions;
+
+    @Override
+    public Integer call() throws Exception {
+        final MetricsRegistry metrics = new MetricsRegistry();
+        // kept for the lifetime of the server, the PNC concurrency and caches are shared by all the verifications
+        final PncManager pncManager = pncClientOptions.createPncManager(pncUrl, metrics);
+
+        final CountDownLatch stopped = new CountDownLatch(1);
+        final CountDownLatch closed = new CountDownLatch(1);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            stopped.countDown();
+            // let the main thread stop the server and flush the caches before the JVM exits
+            try {
+                closed.await(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+
+        try (PncManager closeablePncManager = pncManager;
+             VerificationServer server = new VerificationServer(
+                     new ManifestVerifier(closeablePncManager, pncClientOptions.concurrency, pncClientOptions.batchSize, metrics, maxCachedBuilds),
+                     new InetSocketAddress(host, port), maxParallel, maxQueued)) {
+            server.start();
+            System.out.printf("Verification server listening on http://%s:%d%n", server.getAddress().getHostString(), server.getAddress().getPort());
+
+            stopped.await();
+        } finally {
+            closed.countDown();
+        }
+        return CliConstants.ReturnCodes.SUCCESS;
+    }
+
+    public static void main(String[] args) throws Exception {
+        CommandLine commandLine = new CommandLine(new VerificationServerCommand());
+
+        commandLine.setUsageHelpAutoWidth(true);
+        System.exit(commandLine.execute(args));
+    }
+}
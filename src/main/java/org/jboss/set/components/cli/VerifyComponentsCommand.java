@@ -1,11 +1,36 @@
 package org.jboss.set.components.cli;
 
 import org.jboss.set.components.ManifestVerifier;
+import org.jboss.set.components.VerificationBaseline;
+import org.jboss.set.components.VerificationListener;
 import org.jboss.set.components.VerificationResult;
-import org.jboss.set.components.pnc.PncManagerImpl;
+import org.jboss.set.components.metrics.MetricsRegistry;
+import org.jboss.set.components.metrics.PrometheusFormat;
+import org.jboss.set.components.pnc.AsyncPncManager;
+import org.jboss.set.components.pnc.MeteredPncManager;
+import org.jboss.set.components.pnc.PncManager;
+import org.jboss.set.components.pnc.RecordingPncManager;
+import org.jboss.set.components.pnc.SnapshotPncManager;
+import org.jboss.set.components.progress.ConsoleDiagnostics;
+import org.jboss.set.components.progress.ProgressReporter;
+import org.jboss.set.components.progress.StreamTraceWriter;
+import org.jboss.set.components.report.ReportFormat;
+import org.jboss.set.components.report.ReportWriter;
+import org.wildfly.channel.Channel;
+import org.wildfly.channel.ChannelManifest;
+import org.wildfly.channel.ChannelManifestMapper;
+import org.wildfly.channel.ChannelMapper;
 import picocli.CommandLine;
 
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
 import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.Callable;
 
 @CommandLine.Command(name = "verify-components", description = "Checks if the manifest contains and components with more then one of version of artifact.\n" +
@@ -15,23 +40,189 @@ public class VerifyComponentsCommand implements Callable<Integer> {
     @CommandLine.Option(names = {CliConstants.H, CliConstants.HELP}, usageHelp = true)
     boolean help;
 
-    @CommandLine.Option(names = {"--manifest-url"}, required = true, description = "An URL of the fixed-version manifest to check")
-    URL manifestUrl;
+    @CommandLine.Option(names = {"--manifest-url"}, description = "An URL of the fixed-version manifest to check. Can be repeated to check many manifests.")
+    List<URL> manifestUrls = new ArrayList<>();
 
-    @CommandLine.Option(names = {"--pnc-url"}, required = true, description = "An URL of the PNC API gateway used to build artifacts in the manifest")
+    @CommandLine.Option(names = {"--channel-url"}, description = "An URL of a channel definition, the manifest of the channel is checked. Can be repeated.")
+    List<URL> channelUrls = new ArrayList<>();
+
+    @CommandLine.Option(names = {"--pnc-url"}, description = "An URL of the PNC API gateway used to build artifacts in the manifest. Required unless --snapshot is used.")
     URL pncUrl;
 
+    @CommandLine.Mixin
+    PncClientOptions pncClientOptions;
+
+    @CommandLine.Option(names = {"--async-client"}, description = "Looks up the streams with non-blocking requests, so that --concurrency " +
+            "can be set to hundreds of lookups handled by a few threads. Can't be used with --cache-dir, snapshots, " +
+            "--lightweight-client and --hedge-budget.")
+    boolean asyncClient;
+
+    @CommandLine.Option(names = {"--record-snapshot"}, description = "Records all the PNC answers into a snapshot file that can be used with --snapshot")
+    Path recordSnapshot;
+
+    @CommandLine.Option(names = {"--snapshot"}, description = "Verifies the manifest against a snapshot recorded with --record-snapshot instead of PNC")
+    Path snapshot;
+
+    @CommandLine.Option(names = {"--baseline-manifest"}, description = "An URL of a previously verified revision of the manifest. " +
+            "Only the streams that changed since the baseline are looked up in PNC. Requires --baseline-result.")
+    URL baselineManifestUrl;
+
+    @CommandLine.Option(names = {"--baseline-result"}, description = "A result of the baseline manifest verification saved with --save-result")
+    Path baselineResult;
+
+    @CommandLine.Option(names = {"--save-result"}, description = "Saves the result of the verification, to be used as a baseline by following verifications")
+    Path saveResult;
+
+    @CommandLine.Option(names = {"--fail-fast"}, description = "Stops the verification as soon as the first violation is found")
+    boolean failFast;
+
+    @CommandLine.Option(names = {"--output-format"}, defaultValue = "text",
+            description = "Format of the report, one of ${COMPLETION-CANDIDATES} (default: ${DEFAULT-VALUE})")
+    ReportFormat outputFormat;
+
+    @CommandLine.Option(names = {"--output-file"}, description = "A file to write the report to instead of the standard output")
+    Path outputFile;
+
+    @CommandLine.Option(names = {"--metrics"}, description = "Prints the PNC latencies, cache hit rates and stream counts at the end of the run")
+    boolean printMetrics;
+
+    @CommandLine.Option(names = {"--metrics-file"}, description = "Writes the metrics of the run to a file in the Prometheus text format")
+    Path metricsFile;
+
+    @CommandLine.Option(names = {"-q", "--quiet"}, description = "Doesn't print the progress of the verification")
+    boolean quiet;
+
+    @CommandLine.Option(names = {"--trace-file"}, description = "Writes a line per resolved stream into a file, for debugging")
+    Path traceFile;
+
+    @CommandLine.Spec
+    CommandLine.Model.CommandSpec spec;
 
     @Override
     public Integer call() throws Exception {
-        final ManifestVerifier manifestVerifier = new ManifestVerifier(new PncManagerImpl(pncUrl));
+        final List<URL> manifests = new ArrayList<>(manifestUrls);
+        for (URL channelUrl : channelUrls) {
+            manifests.add(resolveManifestUrl(channelUrl));
+        }
+        if (manifests.isEmpty()) {
+            throw new CommandLine.ParameterException(spec.commandLine(), "Missing required option: '--manifest-url' or '--channel-url'");
+        }
+        if (manifests.size() > 1 && (baselineManifestUrl != null || saveResult != null)) {
+            throw new CommandLine.ParameterException(spec.commandLine(), "Options '--baseline-manifest' and '--save-result' can be used only with a single manifest");
+        }
+        if ((baselineManifestUrl == null) != (baselineResult == null)) {
+            throw new CommandLine.ParameterException(spec.commandLine(), "Options '--baseline-manifest' and '--baseline-result' have to be used together");
+        }
+        final VerificationBaseline baseline = baselineManifestUrl == null ? VerificationBaseline.EMPTY :
+                VerificationBaseline.load(ChannelManifestMapper.from(baselineManifestUrl), baselineResult);
+
+        final MetricsRegistry metrics = new MetricsRegistry();
+        PncManager pncManager = null;
+        AsyncPncManager asyncPncManager = null;
+        if (asyncClient) {
+            if (pncUrl == null) {
+                throw new CommandLine.ParameterException(spec.commandLine(), "Missing required option: '--pnc-url'");
+            }
+            if (snapshot != null || recordSnapshot != null || pncClientOptions.cacheDir != null) {
+                throw new CommandLine.ParameterException(spec.commandLine(),
+                        "Option '--async-client' can't be used with '--snapshot', '--record-snapshot' or '--cache-dir'");
+            }
+            if (pncClientOptions.lightweightClient || pncClientOptions.hedgeBudget > 0) {
+                throw new CommandLine.ParameterException(spec.commandLine(),
+                        "Option '--async-client' can't be used with '--lightweight-client' or '--hedge-budget'");
+            }
+            asyncPncManager = pncClientOptions.createAsyncPncManager(pncUrl, metrics);
+        } else if (snapshot != null) {
+            pncManager = new MeteredPncManager(SnapshotPncManager.load(snapshot), metrics);
+        } else {
+            if (pncUrl == null) {
+                throw new CommandLine.ParameterException(spec.commandLine(), "Missing required option: '--pnc-url'");
+            }
+            pncManager = pncClientOptions.createPncManager(pncUrl, metrics);
+        }
+        if (recordSnapshot != null) {
+            pncManager = new RecordingPncManager(pncManager, recordSnapshot);
+        }
+
+        final List<ChannelManifest> channelManifests = new ArrayList<>(manifests.size());
+        long totalStreams = 0;
+        for (URL manifest : manifests) {
+            final ChannelManifest channelManifest = ChannelManifestMapper.from(manifest);
+            channelManifests.add(channelManifest);
+            totalStreams += channelManifest.getStreams().size();
+        }
+
+        final List<VerificationResult> verificationResults;
+        try (PncManager closeablePncManager = pncManager;
+             AsyncPncManager closeableAsyncPncManager = asyncPncManager;
+             StreamTraceWriter trace = traceFile == null ? null : new StreamTraceWriter(traceFile);
+             ProgressReporter progress = quiet ? null : ProgressReporter.toConsole(metrics, totalStreams).start()) {
+            // one verifier, so that the manifests share the resolved builds
+            final ManifestVerifier manifestVerifier = closeableAsyncPncManager != null ?
+                    new ManifestVerifier(closeableAsyncPncManager, pncClientOptions.concurrency, pncClientOptions.batchSize, metrics) :
+                    new ManifestVerifier(closeablePncManager, pncClientOptions.concurrency, pncClientOptions.batchSize, metrics);
+            // the standard output is reserved for the report
+            final VerificationListener diagnostics = new ConsoleDiagnostics(System.err, !quiet);
+            final VerificationListener listener = trace == null ? diagnostics : VerificationListener.of(diagnostics, trace);
 
-        final VerificationResult verificationResult = manifestVerifier.verifyComponents(manifestUrl);
+            if (manifests.size() == 1) {
+                verificationResults = List.of(manifestVerifier.verifyComponents(channelManifests.get(0), baseline, listener, failFast));
+            } else {
+                verificationResults = manifestVerifier.verifyComponents(channelManifests, listener, failFast);
+            }
+        }
+        if (saveResult != null) {
+            VerificationBaseline.save(verificationResults.get(0), saveResult);
+        }
+        // the standard output is reserved for the report
+        if (pncClientOptions.getPersistentPncManager() != null) {
+            System.err.println(pncClientOptions.getPersistentPncManager().summary());
+        }
+        if (printMetrics) {
+            System.err.println(metrics.summary());
+        }
+        if (metricsFile != null) {
+            try (Writer writer = Files.newBufferedWriter(metricsFile)) {
+                PrometheusFormat.write(metrics, writer);
+            }
+        }
 
-        verificationResult.getViolations().forEach(v->System.out.println(v.print()));
-        verificationResult.getWarnings().forEach(w->System.out.println(w.print()));
+        boolean success = true;
+        try (ReportWriter reportWriter = outputFormat.createWriter(openOutput())) {
+            for (int i = 0; i < manifests.size(); i++) {
+                final VerificationResult verificationResult = verificationResults.get(i);
+                reportWriter.write(manifests.get(i).toString(), verificationResult);
+                success &= verificationResult.getViolations().isEmpty() && verificationResult.isComplete();
+            }
+        }
+
+        return success ? CliConstants.ReturnCodes.SUCCESS : CliConstants.ReturnCodes.FAILURE;
+    }
+
+    private OutputStream openOutput() throws IOException {
+        if (outputFile != null) {
+            return Files.newOutputStream(outputFile);
+        }
+        // finishing the report must not close the standard output
+        return new FilterOutputStream(System.out) {
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                out.write(b, off, len);
+            }
+
+            @Override
+            public void close() throws IOException {
+                flush();
+            }
+        };
+    }
 
-        return verificationResult.getViolations().isEmpty()? CliConstants.ReturnCodes.SUCCESS: CliConstants.ReturnCodes.FAILURE;
+    private URL resolveManifestUrl(URL channelUrl) {
+        final Channel channel = ChannelMapper.from(channelUrl);
+        if (channel.getManifestCoordinate() == null || channel.getManifestCoordinate().getUrl() == null) {
+            throw new CommandLine.ParameterException(spec.commandLine(), "Channel " + channelUrl + " doesn't define the manifest with an URL");
+        }
+        return channel.getManifestCoordinate().getUrl();
     }
 
     public static void main(String[] args) throws Exception {
@@ -44,6 +235,7 @@ public class VerifyComponentsCommand implements Callable<Integer> {
         CommandLine commandLine = new CommandLine(new VerifyComponentsCommand());
 
         commandLine.setUsageHelpAutoWidth(true);
+        commandLine.setCaseInsensitiveEnumValuesAllowed(true);
         return commandLine;
     }
 }
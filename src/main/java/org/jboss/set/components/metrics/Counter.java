@@ -0,0 +1,27 @@
+package org.jboss.set.components.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A monotonically increasing count. Increments from concurrent threads don't contend.
+ */
+public class Counter extends Meter {
+
+    private final LongAdder count = new LongAdder();
+
+    Counter(MeterId id) {
+        super(id);
+    }
+
+    public void increment() {
+        count.increment();
+    }
+
+    public void increment(long amount) {
+        count.add(amount);
+    }
+
+    public long count() {
+        return count.sum();
+    }
+}
@@ -0,0 +1,20 @@
+package org.jboss.set.components.metrics;
+
+import java.util.function.LongSupplier;
+
+/**
+ * A value sampled when the metrics are exported, e.g. the number of requests in flight.
+ */
+public class Gauge extends Meter {
+
+    private final LongSupplier value;
+
+    Gauge(MeterId id, LongSupplier value) {
+        super(id);
+        this.value = value;
+    }
+
+    public long value() {
+        return value.getAsLong();
+    }
+}
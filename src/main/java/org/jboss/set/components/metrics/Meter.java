@@ -0,0 +1,14 @@
+package org.jboss.set.components.metrics;
+
+public abstract class Meter {
+
+    private final MeterId id;
+
+    Meter(MeterId id) {
+        this.id = id;
+    }
+
+    public MeterId getId() {
+        return id;
+    }
+}
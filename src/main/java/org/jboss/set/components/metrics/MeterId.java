@@ -0,0 +1,59 @@
+package org.jboss.set.components.metrics;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Identifies a meter by its name and tags, e.g. {@code pnc.requests{method=getArtifact}}.
+ */
+public final class MeterId {
+
+    private final String name;
+    private final Map<String, String> tags;
+
+    MeterId(String name, String... tags) {
+        if (tags.length % 2 != 0) {
+            throw new IllegalArgumentException("Tags have to be key-value pairs: " + Arrays.toString(tags));
+        }
+        final Map<String, String> sortedTags = new TreeMap<>();
+        for (int i = 0; i < tags.length; i += 2) {
+            sortedTags.put(tags[i], tags[i + 1]);
+        }
+        this.name = name;
+        this.tags = Collections.unmodifiableMap(sortedTags);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Map<String, String> getTags() {
+        return tags;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        MeterId meterId = (MeterId) o;
+        return name.equals(meterId.name) && tags.equals(meterId.tags);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * name.hashCode() + tags.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        if (tags.isEmpty()) {
+            return name;
+        }
+        final StringBuilder sb = new StringBuilder(name).append('{');
+        tags.forEach((key, value) -> sb.append(key).append('=').append(value).append(','));
+        sb.setCharAt(sb.length() - 1, '}');
+        return sb.toString();
+    }
+}
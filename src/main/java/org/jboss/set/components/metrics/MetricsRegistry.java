@@ -0,0 +1,118 @@
+package org.jboss.set.components.metrics;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Holds the meters of the verifier. The meters are created on first use and identified by their name and tags,
+ * so the same meter is returned for the same name and tags:
+ * <pre>
+ * registry.timer("pnc.requests", "method", "getArtifact").record(nanos);
+ * </pre>
+ * The lookup goes through a map, so hot paths should keep the reference to the meter.
+ */
+public class MetricsRegistry {
+
+    private final ConcurrentMap<MeterId, Meter> meters = new ConcurrentHashMap<>();
+    private final long startNanos = System.nanoTime();
+
+    public Counter counter(String name, String... tags) {
+        return register(new MeterId(name, tags), Counter::new, Counter.class);
+    }
+
+    public Timer timer(String name, String... tags) {
+        return register(new MeterId(name, tags), Timer::new, Timer.class);
+    }
+
+    /**
+     * Registers a gauge sampling the {@code value}. If the gauge is already registered, the existing one is kept.
+     */
+    public Gauge gauge(String name, LongSupplier value, String... tags) {
+        return register(new MeterId(name, tags), id -> new Gauge(id, value), Gauge.class);
+    }
+
+    private <M extends Meter> M register(MeterId id, Function<MeterId, M> factory, Class<M> type) {
+        final Meter meter = meters.computeIfAbsent(id, factory);
+        if (!type.isInstance(meter)) {
+            throw new IllegalArgumentException("Meter " + id + " is already registered as " + meter.getClass().getSimpleName());
+        }
+        return type.cast(meter);
+    }
+
+    /**
+     * Sums the counts of the counters, or the values of the gauges, with the {@code name} regardless of their tags.
+     *
+     * @return the sum, or 0 if there is no such meter
+     */
+    public long sum(String name) {
+        long sum = 0;
+        for (Meter meter : meters.values()) {
+            if (meter.getId().getName().equals(name)) {
+                if (meter instanceof Counter) {
+                    sum += ((Counter) meter).count();
+                } else if (meter instanceof Gauge) {
+                    sum += ((Gauge) meter).value();
+                }
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * @return the meters sorted by their names
+     */
+    public List<Meter> getMeters() {
+        final List<Meter> sorted = new ArrayList<>(meters.values());
+        sorted.sort(Comparator.comparing((Meter m) -> m.getId().getName()).thenComparing(m -> m.getId().toString()));
+        return sorted;
+    }
+
+    /**
+     * @return seconds since the registry was created
+     */
+    public double uptimeSeconds() {
+        return (double) (System.nanoTime() - startNanos) / TimeUnit.SECONDS.toNanos(1);
+    }
+
+    /**
+     * Formats the meters as a table, to be printed at the end of a run.
+     */
+    public String summary() {
+        final List<Meter> meters = getMeters();
+        final int width = meters.stream().mapToInt(m -> m.getId().toString().length()).max().orElse(0) + 2;
+        final double uptime = uptimeSeconds();
+
+        final StringBuilder sb = new StringBuilder();
+        sb.append(String.format("Metrics after %.1f s:%n", uptime));
+        final String timerRow = "%-" + width + "s %10s %10s %10s %10s %10s%n";
+        final String valueRow = "%-" + width + "s %10s %10s%n";
+        sb.append(String.format(timerRow, "Timer", "Count", "Mean ms", "p50 ms", "p95 ms", "Max ms"));
+        for (Meter meter : meters) {
+            if (meter instanceof Timer) {
+                final Timer timer = (Timer) meter;
+                sb.append(String.format(timerRow, timer.getId(), timer.count(), format(timer.meanMillis()),
+                        format(timer.percentileMillis(0.5)), format(timer.percentileMillis(0.95)), format(timer.maxMillis())));
+            }
+        }
+        sb.append(String.format(valueRow, "Counter", "Count", "Rate/s"));
+        for (Meter meter : meters) {
+            if (meter instanceof Counter) {
+                final Counter counter = (Counter) meter;
+                sb.append(String.format(valueRow, counter.getId(), counter.count(), format(uptime > 0 ? counter.count() / uptime : 0)));
+            } else if (meter instanceof Gauge) {
+                sb.append(String.format(valueRow, meter.getId(), ((Gauge) meter).value(), ""));
+            }
+        }
+        return sb.toString();
+    }
+
+    private static String format(double value) {
+        return String.format("%.1f", value);
+    }
+}
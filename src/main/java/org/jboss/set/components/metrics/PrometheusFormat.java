@@ -0,0 +1,82 @@
+package org.jboss.set.components.metrics;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes the meters in the Prometheus text exposition format. Counters get the {@code _total} suffix, timers are
+ * written as histograms in seconds.
+ */
+public final class PrometheusFormat {
+
+    public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private PrometheusFormat() {
+    }
+
+    public static void write(MetricsRegistry registry, Writer out) throws IOException {
+        // the meters are sorted by name, so the series of one metric are written together
+        final Set<String> described = new HashSet<>();
+        for (Meter meter : registry.getMeters()) {
+            final String name = toPrometheusName(meter.getId().getName());
+            final Map<String, String> tags = meter.getId().getTags();
+            if (meter instanceof Counter) {
+                writeType(out, described, name + "_total", "counter");
+                writeSample(out, name + "_total", tags, null, ((Counter) meter).count());
+            } else if (meter instanceof Gauge) {
+                writeType(out, described, name, "gauge");
+                writeSample(out, name, tags, null, ((Gauge) meter).value());
+            } else if (meter instanceof Timer) {
+                final Timer timer = (Timer) meter;
+                final String histogram = name + "_seconds";
+                writeType(out, described, histogram, "histogram");
+                final long[] counts = timer.bucketCounts();
+                long cumulative = 0;
+                for (int i = 0; i < Timer.BUCKET_BOUNDS_MILLIS.length; i++) {
+                    cumulative += counts[i];
+                    writeSample(out, histogram + "_bucket", tags, Double.toString(Timer.BUCKET_BOUNDS_MILLIS[i] / 1000.0), cumulative);
+                }
+                cumulative += counts[counts.length - 1];
+                writeSample(out, histogram + "_bucket", tags, "+Inf", cumulative);
+                writeSample(out, histogram + "_sum", tags, null, (double) timer.totalNanos() / TimeUnit.SECONDS.toNanos(1));
+                writeSample(out, histogram + "_count", tags, null, cumulative);
+            }
+        }
+        out.flush();
+    }
+
+    private static void writeType(Writer out, Set<String> described, String name, String type) throws IOException {
+        if (described.add(name)) {
+            out.write("# TYPE " + name + " " + type + "\n");
+        }
+    }
+
+    private static void writeSample(Writer out, String name, Map<String, String> tags, String le, Number value) throws IOException {
+        out.write(name);
+        if (!tags.isEmpty() || le != null) {
+            out.write('{');
+            String separator = "";
+            for (Map.Entry<String, String> tag : tags.entrySet()) {
+                out.write(separator + toPrometheusName(tag.getKey()) + "=\"" + escape(tag.getValue()) + "\"");
+                separator = ",";
+            }
+            if (le != null) {
+                out.write(separator + "le=\"" + le + "\"");
+            }
+            out.write('}');
+        }
+        out.write(" " + value + "\n");
+    }
+
+    private static String toPrometheusName(String name) {
+        return name.replaceAll("[^a-zA-Z0-9_]", "_");
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+}
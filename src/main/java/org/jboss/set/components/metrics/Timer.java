@@ -0,0 +1,103 @@
+package org.jboss.set.components.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records durations into a fixed histogram. Recording only increments {@link LongAdder}s, so the timer can be used
+ * by many threads without contention. The percentiles are estimated as the upper bound of the matching bucket.
+ */
+public class Timer extends Meter {
+
+    /**
+     * Upper bounds of the histogram buckets in milliseconds, the last bucket is unbounded.
+     */
+    static final long[] BUCKET_BOUNDS_MILLIS = {1, 2, 5, 10, 25, 50, 100, 250, 500, 1_000, 2_500, 5_000, 10_000, 30_000};
+    private static final long[] BUCKET_BOUNDS_NANOS = new long[BUCKET_BOUNDS_MILLIS.length];
+
+    static {
+        for (int i = 0; i < BUCKET_BOUNDS_MILLIS.length; i++) {
+            BUCKET_BOUNDS_NANOS[i] = TimeUnit.MILLISECONDS.toNanos(BUCKET_BOUNDS_MILLIS[i]);
+        }
+    }
+
+    private final LongAdder[] buckets = new LongAdder[BUCKET_BOUNDS_MILLIS.length + 1];
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+    Timer(MeterId id) {
+        super(id);
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    public void record(long nanos) {
+        int bucket = 0;
+        while (bucket < BUCKET_BOUNDS_NANOS.length && nanos > BUCKET_BOUNDS_NANOS[bucket]) {
+            bucket++;
+        }
+        buckets[bucket].increment();
+        count.increment();
+        totalNanos.add(nanos);
+        maxNanos.accumulate(nanos);
+    }
+
+    public long count() {
+        return count.sum();
+    }
+
+    public long totalNanos() {
+        return totalNanos.sum();
+    }
+
+    public long maxNanos() {
+        return maxNanos.get();
+    }
+
+    public double maxMillis() {
+        return (double) maxNanos() / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    public double meanMillis() {
+        final long count = count();
+        return count == 0 ? 0 : (double) totalNanos() / count / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    /**
+     * @return number of recordings in each bucket, see {@link #BUCKET_BOUNDS_MILLIS}
+     */
+    long[] bucketCounts() {
+        final long[] counts = new long[buckets.length];
+        for (int i = 0; i < buckets.length; i++) {
+            counts[i] = buckets[i].sum();
+        }
+        return counts;
+    }
+
+    /**
+     * @param percentile - between 0 and 1
+     * @return the upper bound of the bucket containing the percentile, capped by the maximum
+     */
+    public double percentileMillis(double percentile) {
+        final long[] counts = bucketCounts();
+        long total = 0;
+        for (long c : counts) {
+            total += c;
+        }
+        if (total == 0) {
+            return 0;
+        }
+        final long rank = (long) Math.ceil(percentile * total);
+        long cumulative = 0;
+        for (int i = 0; i < BUCKET_BOUNDS_MILLIS.length; i++) {
+            cumulative += counts[i];
+            if (cumulative >= rank) {
+                return Math.min(BUCKET_BOUNDS_MILLIS[i], maxMillis());
+            }
+        }
+        return maxMillis();
+    }
+}
@@ -0,0 +1,179 @@
+package org.jboss.set.components.pnc;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Limits the number of concurrent PNC requests, adjusting the limit with AIMD.
+ * <p>
+ * The limit grows by one for every {@code limit} successful requests and shrinks by half when PNC signals it's
+ * overloaded. Responses much slower than the fastest observed latency of their endpoint are taken as an early sign
+ * of congestion and shrink the limit slightly. The endpoints are tracked separately, a listing of a large build is
+ * not compared with a single artifact lookup. Only one decrease is applied per latency window, so a burst of failures
+ * of requests sent at the same time doesn't collapse the limit.
+ * <p>
+ * Waits on a {@link ReentrantLock} rather than a monitor, so that the waiting virtual threads don't pin their carriers.
+ * The non-blocking callers queue a future instead, which is completed in the order of arrival once a request is
+ * released.
+ */
+class AdaptiveLimiter {
+
+    private static final double BACKOFF_RATIO = 0.5;
+    private static final double CONGESTION_RATIO = 0.9;
+    private static final long CONGESTION_LATENCY_FACTOR = 4;
+    private static final long MIN_DECREASE_INTERVAL_NANOS = 100_000_000L;
+
+    private final int minLimit;
+    private final int maxLimit;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition released = lock.newCondition();
+    // guarded by lock
+    private double limit;
+    private int inFlight;
+    private final Map<String, Long> baselineLatencies = new HashMap<>();
+    private final Queue<CompletableFuture<Void>> waiters = new ArrayDeque<>();
+    private long lastDecrease;
+
+    AdaptiveLimiter(int minLimit, int maxLimit) {
+        if (minLimit < 1 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("Invalid limits " + minLimit + " - " + maxLimit);
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.limit = maxLimit;
+    }
+
+    void acquire() throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            while (inFlight >= (int) limit) {
+                released.await();
+            }
+            inFlight++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return a future completed once the caller can send its request. If the future is cancelled before, no request
+     * is counted for the caller.
+     */
+    CompletableFuture<Void> acquireAsync() {
+        lock.lock();
+        try {
+            if (waiters.isEmpty() && inFlight < (int) limit) {
+                inFlight++;
+                return CompletableFuture.completedFuture(null);
+            }
+            final CompletableFuture<Void> waiter = new CompletableFuture<>();
+            waiters.add(waiter);
+            return waiter;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void onSuccess(String endpoint, long latencyNanos) {
+        lock.lock();
+        try {
+            inFlight--;
+            long baselineLatency = baselineLatencies.getOrDefault(endpoint, 0L);
+            if (baselineLatency == 0 || latencyNanos < baselineLatency) {
+                baselineLatency = latencyNanos;
+            } else {
+                // let the baseline follow slow drifts of the latency
+                baselineLatency += (latencyNanos - baselineLatency) / 100;
+            }
+            baselineLatencies.put(endpoint, baselineLatency);
+
+            if (latencyNanos > baselineLatency * CONGESTION_LATENCY_FACTOR) {
+                decrease(CONGESTION_RATIO, baselineLatency);
+            } else {
+                limit = Math.min(maxLimit, limit + 1.0 / limit);
+            }
+            released.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        grantWaiters();
+    }
+
+    void onOverload(String endpoint) {
+        lock.lock();
+        try {
+            inFlight--;
+            decrease(BACKOFF_RATIO, baselineLatencies.getOrDefault(endpoint, 0L));
+            released.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        grantWaiters();
+    }
+
+    /**
+     * Releases a request that failed for a reason unrelated to PNC load.
+     */
+    void onIgnore() {
+        lock.lock();
+        try {
+            inFlight--;
+            released.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        grantWaiters();
+    }
+
+    int getLimit() {
+        lock.lock();
+        try {
+            return (int) limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Completes the futures of the queued callers that fit into the limit. The futures are completed outside of
+     * the lock, as they run the requests of the callers.
+     */
+    private void grantWaiters() {
+        final List<CompletableFuture<Void>> granted = new ArrayList<>();
+        lock.lock();
+        try {
+            while (!waiters.isEmpty() && inFlight < (int) limit) {
+                final CompletableFuture<Void> waiter = waiters.poll();
+                if (!waiter.isDone()) {
+                    inFlight++;
+                    granted.add(waiter);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        for (CompletableFuture<Void> waiter : granted) {
+            if (!waiter.complete(null)) {
+                // cancelled in the meantime
+                onIgnore();
+            }
+        }
+    }
+
+    private void decrease(double ratio, long window) {
+        final long now = System.nanoTime();
+        if (lastDecrease != 0 && now - lastDecrease < Math.max(window, MIN_DECREASE_INTERVAL_NANOS)) {
+            return;
+        }
+        lastDecrease = now;
+        limit = Math.max(minLimit, limit * ratio);
+    }
+}
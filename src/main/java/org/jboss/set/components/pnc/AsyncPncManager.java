@@ -0,0 +1,64 @@
+package org.jboss.set.components.pnc;
+
+import org.wildfly.channel.ArtifactCoordinate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Non-blocking counterpart of {@link PncManager}. The lookups return immediately and complete their futures once PNC
+ * answers, so the number of lookups in flight is not bound by the number of threads.
+ * <p>
+ * Failed lookups complete exceptionally with a {@link PncException}.
+ */
+public interface AsyncPncManager extends AutoCloseable {
+
+    CompletableFuture<PncArtifact> getArtifact(ArtifactCoordinate coordinate);
+
+    CompletableFuture<PncBuild> getBuildIdContainingArtifact(PncArtifact.Id artifactId);
+
+    CompletableFuture<List<PncArtifact>> getArtifactsInBuild(PncBuild.Id buildId);
+
+    /**
+     * See {@link PncManager#resolve(ArtifactCoordinate)}. The default implementation composes the single lookups.
+     */
+    default CompletableFuture<PncResolution> resolve(ArtifactCoordinate coordinate) {
+        return getArtifact(coordinate).thenCompose(artifact -> {
+            if (artifact == null) {
+                return CompletableFuture.completedFuture(PncResolution.missing(coordinate));
+            }
+            if (artifact.isImported()) {
+                return CompletableFuture.completedFuture(PncResolution.imported(coordinate, artifact));
+            }
+            return getBuildIdContainingArtifact(artifact.getId()).thenApply(build -> build == null ?
+                    PncResolution.ungrouped(coordinate, artifact) : PncResolution.built(coordinate, artifact, build));
+        });
+    }
+
+    /**
+     * See {@link PncManager#resolveAll(List)}. The default implementation resolves the {@code coordinates} concurrently.
+     *
+     * @return a future of the resolutions in the same order as the {@code coordinates}
+     */
+    default CompletableFuture<List<PncResolution>> resolveAll(List<ArtifactCoordinate> coordinates) {
+        final List<CompletableFuture<PncResolution>> resolutions = new ArrayList<>(coordinates.size());
+        for (ArtifactCoordinate coordinate : coordinates) {
+            resolutions.add(resolve(coordinate));
+        }
+        return CompletableFuture.allOf(resolutions.toArray(new CompletableFuture[0])).thenApply(ignored -> {
+            final List<PncResolution> results = new ArrayList<>(resolutions.size());
+            for (CompletableFuture<PncResolution> resolution : resolutions) {
+                results.add(resolution.join());
+            }
+            return results;
+        });
+    }
+
+    /**
+     * Releases the resources (e.g. the HTTP client threads) held by the manager.
+     */
+    @Override
+    default void close() {
+    }
+}
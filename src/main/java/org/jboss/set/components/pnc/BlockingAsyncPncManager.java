@@ -0,0 +1,101 @@
+package org.jboss.set.components.pnc;
+
+import org.wildfly.channel.ArtifactCoordinate;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * Runs the lookups of a blocking {@link PncManager} on an {@link Executor}, so that it can be used where
+ * an {@link AsyncPncManager} is expected. Each lookup in flight still occupies a thread of the executor.
+ * <p>
+ * The futures are cancelled if the executor drops the lookup, or if the lookup fails because its thread was
+ * interrupted, so that the callers can tell a cancelled lookup from a PNC failure.
+ * <p>
+ * The delegate is not owned by the adapter, closing the adapter doesn't close it.
+ */
+public class BlockingAsyncPncManager implements AsyncPncManager {
+
+    private final PncManager delegate;
+    private final Executor executor;
+
+    public BlockingAsyncPncManager(PncManager delegate, Executor executor) {
+        this.delegate = delegate;
+        this.executor = executor;
+    }
+
+    @Override
+    public CompletableFuture<PncArtifact> getArtifact(ArtifactCoordinate coordinate) {
+        return submit(() -> delegate.getArtifact(coordinate));
+    }
+
+    @Override
+    public CompletableFuture<PncBuild> getBuildIdContainingArtifact(PncArtifact.Id artifactId) {
+        return submit(() -> delegate.getBuildIdContainingArtifact(artifactId));
+    }
+
+    @Override
+    public CompletableFuture<List<PncArtifact>> getArtifactsInBuild(PncBuild.Id buildId) {
+        return submit(() -> delegate.getArtifactsInBuild(buildId));
+    }
+
+    /**
+     * Resolves the artifact with a single blocking {@link PncManager#resolve(ArtifactCoordinate)} call, so that
+     * the delegate's optimized resolution is used.
+     */
+    @Override
+    public CompletableFuture<PncResolution> resolve(ArtifactCoordinate coordinate) {
+        return submit(() -> delegate.resolve(coordinate));
+    }
+
+    @Override
+    public CompletableFuture<List<PncResolution>> resolveAll(List<ArtifactCoordinate> coordinates) {
+        return submit(() -> delegate.resolveAll(coordinates));
+    }
+
+    private <T> CompletableFuture<T> submit(Supplier<T> call) {
+        final Lookup<T> lookup = new Lookup<>(call);
+        try {
+            executor.execute(lookup);
+        } catch (RejectedExecutionException e) {
+            lookup.cancel(false);
+        }
+        return lookup;
+    }
+
+    private static class Lookup<T> extends CompletableFuture<T> implements Runnable {
+        private final Supplier<T> call;
+
+        Lookup(Supplier<T> call) {
+            this.call = call;
+        }
+
+        @Override
+        public void run() {
+            if (isDone()) {
+                return;
+            }
+            try {
+                complete(call.get());
+            } catch (Throwable t) {
+                if (Thread.currentThread().isInterrupted() || isInterruption(t)) {
+                    cancel(false);
+                } else {
+                    completeExceptionally(t);
+                }
+            }
+        }
+
+        private static boolean isInterruption(Throwable failure) {
+            for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+                if (cause instanceof InterruptedException) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
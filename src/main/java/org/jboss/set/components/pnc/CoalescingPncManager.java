@@ -0,0 +1,163 @@
+package org.jboss.set.components.pnc;
+
+import org.wildfly.channel.ArtifactCoordinate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent identical requests to PNC. If a lookup for the same artifact GAV, artifact ID or build ID
+ * is already in progress, the caller waits for the pending result instead of sending another request. A batch
+ * resolution joins the lookups in progress for some of its coordinates and sends only the remaining ones.
+ * <p>
+ * The results are not cached - once the request completes, the next call goes to the delegate again.
+ */
+public class CoalescingPncManager implements PncManager {
+
+    private final PncManager delegate;
+
+    private final ConcurrentMap<String, CompletableFuture<PncArtifact>> artifactLookups = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, CompletableFuture<PncResolution>> resolutions = new ConcurrentHashMap<>();
+    private final ConcurrentMap<PncArtifact.Id, CompletableFuture<PncBuild>> buildLookups = new ConcurrentHashMap<>();
+    private final ConcurrentMap<PncBuild.Id, CompletableFuture<List<PncArtifact>>> builtArtifactLookups = new ConcurrentHashMap<>();
+
+    public CoalescingPncManager(PncManager delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public PncArtifact getArtifact(ArtifactCoordinate coordinate) {
+        return coalesce(artifactLookups, toGav(coordinate), () -> delegate.getArtifact(coordinate));
+    }
+
+    @Override
+    public PncBuild getBuildIdContainingArtifact(PncArtifact.Id artifactId) {
+        return coalesce(buildLookups, artifactId, () -> delegate.getBuildIdContainingArtifact(artifactId));
+    }
+
+    @Override
+    public List<PncArtifact> getArtifactsInBuild(PncBuild.Id buildId) {
+        return coalesce(builtArtifactLookups, buildId, () -> delegate.getArtifactsInBuild(buildId));
+    }
+
+    @Override
+    public PncResolution resolve(ArtifactCoordinate coordinate) {
+        return coalesce(resolutions, toGav(coordinate), () -> delegate.resolve(coordinate));
+    }
+
+    @Override
+    public List<PncResolution> resolveAll(List<ArtifactCoordinate> coordinates) {
+        final List<CompletableFuture<PncResolution>> requests = new ArrayList<>(coordinates.size());
+        final Map<String, CompletableFuture<PncResolution>> claimed = new HashMap<>();
+        final List<ArtifactCoordinate> unresolved = new ArrayList<>();
+        for (ArtifactCoordinate coordinate : coordinates) {
+            final String gav = toGav(coordinate);
+            CompletableFuture<PncResolution> request = claimed.get(gav);
+            if (request == null) {
+                final CompletableFuture<PncResolution> newRequest = new CompletableFuture<>();
+                request = resolutions.putIfAbsent(gav, newRequest);
+                if (request == null) {
+                    request = newRequest;
+                    claimed.put(gav, newRequest);
+                    unresolved.add(coordinate);
+                }
+            }
+            requests.add(request);
+        }
+
+        // complete the claimed lookups before waiting for the others, so that two overlapping batches can't wait
+        // for each other
+        if (!unresolved.isEmpty()) {
+            final List<PncResolution> resolved;
+            try {
+                resolved = delegate.resolveAll(unresolved);
+            } catch (RuntimeException | Error e) {
+                claimed.forEach((gav, request) -> fail(resolutions, gav, request, e));
+                throw e;
+            }
+            for (int i = 0; i < unresolved.size(); i++) {
+                final String gav = toGav(unresolved.get(i));
+                final CompletableFuture<PncResolution> request = claimed.get(gav);
+                resolutions.remove(gav, request);
+                request.complete(resolved.get(i));
+            }
+        }
+
+        final List<PncResolution> results = new ArrayList<>(coordinates.size());
+        for (int i = 0; i < coordinates.size(); i++) {
+            final ArtifactCoordinate coordinate = coordinates.get(i);
+            results.add(await(requests.get(i), () -> resolve(coordinate)));
+        }
+        return results;
+    }
+
+    @Override
+    public void close() {
+        delegate.close();
+    }
+
+    private static <K, V> V coalesce(ConcurrentMap<K, CompletableFuture<V>> inFlight, K key, Supplier<V> lookup) {
+        final CompletableFuture<V> request = new CompletableFuture<>();
+        final CompletableFuture<V> pending = inFlight.putIfAbsent(key, request);
+        if (pending != null) {
+            return await(pending, () -> coalesce(inFlight, key, lookup));
+        }
+
+        final V value;
+        try {
+            value = lookup.get();
+        } catch (RuntimeException | Error e) {
+            fail(inFlight, key, request, e);
+            throw e;
+        }
+        inFlight.remove(key, request);
+        request.complete(value);
+        return value;
+    }
+
+    private static <K, V> void fail(ConcurrentMap<K, CompletableFuture<V>> inFlight, K key, CompletableFuture<V> request, Throwable failure) {
+        inFlight.remove(key, request);
+        if (Thread.currentThread().isInterrupted()) {
+            // only this caller was cancelled, the others waiting for the lookup send it again
+            request.cancel(false);
+        } else {
+            request.completeExceptionally(failure);
+        }
+    }
+
+    private static String toGav(ArtifactCoordinate coordinate) {
+        return coordinate.getGroupId() + ":" + coordinate.getArtifactId() + ":" + coordinate.getVersion();
+    }
+
+    /**
+     * Waits for the lookup of another caller. If this caller is interrupted, it stops waiting without affecting
+     * the lookup. If the lookup was cancelled, it is sent again with {@code retry}.
+     */
+    private static <V> V await(CompletableFuture<V> pending, Supplier<V> retry) {
+        try {
+            return pending.get();
+        } catch (CancellationException e) {
+            return retry.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PncException("Interrupted while waiting for a PNC lookup", PncException.UNKNOWN_STATUS, e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw new CompletionException(e.getCause());
+        }
+    }
+}
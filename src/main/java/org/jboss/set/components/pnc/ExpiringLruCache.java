@@ -0,0 +1,61 @@
+package org.jboss.set.components.pnc;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * A bounded map evicting the least recently used entries, whose entries also expire after a fixed time.
+ * The accesses are serialized, each one only moves an entry in a linked list.
+ */
+class ExpiringLruCache<K, V> {
+
+    private final long ttlNanos;
+    private final LongSupplier nanoClock;
+    // guarded by this
+    private final LinkedHashMap<K, Expiring<V>> entries;
+
+    ExpiringLruCache(int maxEntries, long ttlNanos, LongSupplier nanoClock) {
+        this.ttlNanos = ttlNanos;
+        this.nanoClock = nanoClock;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Expiring<V>> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * @return the value or {@code null} if there is no such entry or it expired
+     */
+    synchronized V get(K key) {
+        final Expiring<V> entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (nanoClock.getAsLong() - entry.expiresAt > 0) {
+            entries.remove(key);
+            return null;
+        }
+        return entry.value;
+    }
+
+    synchronized void put(K key, V value) {
+        entries.put(key, new Expiring<>(value, nanoClock.getAsLong() + ttlNanos));
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    private static class Expiring<V> {
+        private final V value;
+        private final long expiresAt;
+
+        Expiring(V value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
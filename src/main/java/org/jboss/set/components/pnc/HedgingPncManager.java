@@ -0,0 +1,215 @@
+package org.jboss.set.components.pnc;
+
+import org.jboss.set.components.metrics.Counter;
+import org.jboss.set.components.metrics.MetricsRegistry;
+import org.jboss.set.components.metrics.Timer;
+import org.wildfly.channel.ArtifactCoordinate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Cuts the tail latency of the PNC lookups by hedging the slow ones.
+ * <p>
+ * The latency of each method is tracked. Once a call takes longer than the {@code percentile} of the latencies seen so
+ * far, a duplicate request is sent and whichever answers first is used, the other one is cancelled. At most
+ * {@code budget} of the calls are hedged, so that a slow PNC doesn't get twice the load. All the lookups are read-only,
+ * so sending them twice is safe.
+ * <p>
+ * Should wrap the {@link ThrottlingPncManager}, so that the hedges count against its concurrency and rate limits.
+ * The losing attempt is interrupted, but a request already sent is only stopped by the client's timeout.
+ */
+public class HedgingPncManager implements PncManager {
+
+    public static final String HEDGES = "pnc.hedges";
+    public static final String LATENCY = "pnc.hedging.latency";
+    public static final double DEFAULT_PERCENTILE = 0.95;
+    // the percentile estimate is not reliable until a few calls completed
+    static final int MIN_SAMPLES = 20;
+    // don't duplicate the calls that are slow only because of scheduling noise
+    private static final long MIN_HEDGE_DELAY_MILLIS = 10;
+
+    private final PncManager delegate;
+    private final double percentile;
+    private final double budget;
+    private final ExecutorService executor;
+
+    private final Endpoint artifact;
+    private final Endpoint artifactBuild;
+    private final Endpoint builtArtifacts;
+    private final Endpoint resolve;
+    private final Endpoint resolveAll;
+
+    /**
+     * @param percentile - latency percentile, between 0 and 1, after which a call is hedged
+     * @param budget - maximum fraction of the calls that can be hedged, 0 disables the hedging
+     */
+    public HedgingPncManager(PncManager delegate, double percentile, double budget, MetricsRegistry registry) {
+        if (percentile <= 0 || percentile >= 1) {
+            throw new IllegalArgumentException("Percentile has to be between 0 and 1, was " + percentile);
+        }
+        if (budget < 0 || budget > 1) {
+            throw new IllegalArgumentException("Hedge budget has to be between 0 and 1, was " + budget);
+        }
+        this.delegate = delegate;
+        this.percentile = percentile;
+        this.budget = budget;
+        final AtomicInteger counter = new AtomicInteger();
+        // the attempts block on the delegate, the threads are only created when the calls run concurrently
+        this.executor = Executors.newCachedThreadPool(r -> {
+            final Thread thread = new Thread(r, "pnc-hedging-" + counter.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.artifact = new Endpoint(registry, "getArtifact");
+        this.artifactBuild = new Endpoint(registry, "getBuildIdContainingArtifact");
+        this.builtArtifacts = new Endpoint(registry, "getArtifactsInBuild");
+        this.resolve = new Endpoint(registry, "resolve");
+        this.resolveAll = new Endpoint(registry, "resolveAll");
+    }
+
+    @Override
+    public PncArtifact getArtifact(ArtifactCoordinate coordinate) {
+        return call(artifact, () -> delegate.getArtifact(coordinate));
+    }
+
+    @Override
+    public PncBuild getBuildIdContainingArtifact(PncArtifact.Id artifactId) {
+        return call(artifactBuild, () -> delegate.getBuildIdContainingArtifact(artifactId));
+    }
+
+    @Override
+    public List<PncArtifact> getArtifactsInBuild(PncBuild.Id buildId) {
+        return call(builtArtifacts, () -> delegate.getArtifactsInBuild(buildId));
+    }
+
+    @Override
+    public PncResolution resolve(ArtifactCoordinate coordinate) {
+        return call(resolve, () -> delegate.resolve(coordinate));
+    }
+
+    @Override
+    public List<PncResolution> resolveAll(List<ArtifactCoordinate> coordinates) {
+        return call(resolveAll, () -> delegate.resolveAll(coordinates));
+    }
+
+    @Override
+    public void close() {
+        try {
+            executor.shutdownNow();
+        } finally {
+            delegate.close();
+        }
+    }
+
+    private <T> T call(Endpoint endpoint, Supplier<T> call) {
+        endpoint.calls.incrementAndGet();
+        final long hedgeDelay = endpoint.hedgeDelayNanos();
+        if (hedgeDelay == 0) {
+            // nothing to hedge yet, the call stays on the caller's thread
+            final long start = System.nanoTime();
+            final T value = call.get();
+            endpoint.latency.record(System.nanoTime() - start);
+            return value;
+        }
+
+        final CompletableFuture<T> result = new CompletableFuture<>();
+        // the call fails only once all its attempts failed
+        final AtomicInteger pendingAttempts = new AtomicInteger(1);
+        final List<Future<?>> attempts = new ArrayList<>(2);
+        attempts.add(submit(endpoint, call, result, pendingAttempts, false));
+        try {
+            try {
+                return result.get(hedgeDelay, TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                if (endpoint.tryHedge()) {
+                    pendingAttempts.incrementAndGet();
+                    attempts.add(submit(endpoint, call, result, pendingAttempts, true));
+                }
+            }
+            return result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PncException("Interrupted while waiting for PNC call " + endpoint.name, PncException.UNKNOWN_STATUS, e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw new PncException(e.getCause().getMessage(), PncException.UNKNOWN_STATUS, e.getCause());
+        } finally {
+            // stop the attempt that lost
+            for (Future<?> attempt : attempts) {
+                attempt.cancel(true);
+            }
+        }
+    }
+
+    private <T> Future<?> submit(Endpoint endpoint, Supplier<T> call, CompletableFuture<T> result, AtomicInteger pendingAttempts, boolean hedge) {
+        return executor.submit(() -> {
+            final long start = System.nanoTime();
+            try {
+                final T value = call.get();
+                endpoint.latency.record(System.nanoTime() - start);
+                if (result.complete(value) && hedge) {
+                    endpoint.hedgesWon.increment();
+                }
+            } catch (RuntimeException | Error e) {
+                if (pendingAttempts.decrementAndGet() == 0) {
+                    result.completeExceptionally(e);
+                }
+            }
+        });
+    }
+
+    private class Endpoint {
+        private final String name;
+        private final Timer latency;
+        private final AtomicLong calls = new AtomicLong();
+        private final AtomicLong hedges = new AtomicLong();
+        private final Counter hedgesSent;
+        private final Counter hedgesWon;
+
+        Endpoint(MetricsRegistry registry, String name) {
+            this.name = name;
+            this.latency = registry.timer(LATENCY, "method", name);
+            this.hedgesSent = registry.counter(HEDGES, "method", name, "result", "sent");
+            this.hedgesWon = registry.counter(HEDGES, "method", name, "result", "won");
+        }
+
+        /**
+         * @return how long to wait for the first attempt before hedging, or 0 if the call should not be hedged
+         */
+        long hedgeDelayNanos() {
+            if (budget == 0 || latency.count() < MIN_SAMPLES) {
+                return 0;
+            }
+            return TimeUnit.MILLISECONDS.toNanos(1) * Math.max(MIN_HEDGE_DELAY_MILLIS, (long) latency.percentileMillis(percentile));
+        }
+
+        boolean tryHedge() {
+            final long allowed = (long) (budget * calls.get());
+            long sent;
+            do {
+                sent = hedges.get();
+                if (sent >= allowed) {
+                    return false;
+                }
+            } while (!hedges.compareAndSet(sent, sent + 1));
+            hedgesSent.increment();
+            return true;
+        }
+    }
+}
@@ -0,0 +1,411 @@
+package org.jboss.set.components.pnc;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import org.wildfly.channel.ArtifactCoordinate;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Non-blocking PNC client talking to the PNC REST API directly, without the PNC REST client and its DTOs.
+ * <p>
+ * The requests are sent with {@link HttpClient#sendAsync}, over HTTP/2 when PNC supports it, so all the lookups
+ * in flight are multiplexed over a few connections and their responses are handled by a small pool of threads.
+ * The responses are requested gzip-compressed and are parsed with a streaming parser, which picks out only the fields
+ * the verifier needs - artifact id, identifier, origin URL and build id, and the build attributes. Everything else
+ * is skipped without being bound to objects. Follows the same lookups as {@link PncManagerImpl}.
+ */
+public class HttpAsyncPncManager implements AsyncPncManager {
+
+    public static final int DEFAULT_THREADS = 4;
+    static final String BASE_PATH = "/pnc-rest/v2";
+    static final String BREW_BUILD_NAME = "BREW_BUILD_NAME";
+    // the statuses of BuildStatus that are not final
+    private static final Set<String> RUNNING_BUILD_STATUSES = Set.of("NEW", "ENQUEUED", "WAITING_FOR_DEPENDENCIES", "BUILDING");
+    private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(30);
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private final String baseUrl;
+    private final int pageSize;
+    private final Duration requestTimeout;
+    private final ExecutorService executor;
+    private final HttpClient httpClient;
+
+    public HttpAsyncPncManager(URL pncUrl) {
+        this(pncUrl, DEFAULT_THREADS);
+    }
+
+    /**
+     * @param threads - number of threads handling the responses. The lookups in flight don't occupy a thread,
+     *                so a few threads are enough for hundreds of concurrent lookups.
+     */
+    public HttpAsyncPncManager(URL pncUrl, int threads) {
+        this(pncUrl, threads, PncManagerImpl.DEFAULT_PAGE_SIZE);
+    }
+
+    /**
+     * @param pageSize - number of entities fetched by one request when listing collections, e.g. the artifacts of a build
+     */
+    public HttpAsyncPncManager(URL pncUrl, int threads, int pageSize) {
+        this(pncUrl, threads, pageSize, Duration.ofSeconds(PncManagerImpl.DEFAULT_TIMEOUT_SECONDS));
+    }
+
+    /**
+     * @param requestTimeout - time after which a request that didn't get a response fails with a retryable
+     *                       {@link PncException}, {@link Duration#ZERO} for no limit
+     */
+    public HttpAsyncPncManager(URL pncUrl, int threads, int pageSize, Duration requestTimeout) {
+        if (pageSize < 1) {
+            throw new IllegalArgumentException("Page size has to be a positive number, was " + pageSize);
+        }
+        if (requestTimeout.isNegative()) {
+            throw new IllegalArgumentException("Request timeout can't be negative, was " + requestTimeout);
+        }
+        this.pageSize = pageSize;
+        this.requestTimeout = requestTimeout;
+        this.baseUrl = pncUrl.getProtocol() + "://" + pncUrl.getHost() + (pncUrl.getPort() > 0 ? ":" + pncUrl.getPort() : "") + BASE_PATH;
+        final AtomicInteger counter = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(threads, r -> {
+            final Thread thread = new Thread(r, "pnc-http-" + counter.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(CONNECT_TIMEOUT)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .executor(executor)
+                .build();
+    }
+
+    @Override
+    public CompletableFuture<PncArtifact> getArtifact(ArtifactCoordinate coordinate) {
+        return findArtifact(coordinate).thenCompose(found -> found == null ? CompletableFuture.completedFuture(null) :
+                // the filtered list doesn't include the origin
+                getArtifactFields(found.id).thenApply(HttpAsyncPncManager::toArtifact));
+    }
+
+    @Override
+    public CompletableFuture<PncBuild> getBuildIdContainingArtifact(PncArtifact.Id artifactId) {
+        return getArtifactFields(artifactId.getId()).thenCompose(artifact ->
+                artifact.buildId == null ? CompletableFuture.completedFuture(null) : getBuild(artifact.buildId));
+    }
+
+    @Override
+    public CompletableFuture<List<PncArtifact>> getArtifactsInBuild(PncBuild.Id buildId) {
+        final List<PncArtifact> artifacts = new ArrayList<>();
+        return getPages("/builds/" + encode(buildId.getId()) + "/artifacts/built", new LinkedHashMap<>(),
+                artifact -> artifacts.add(new PncArtifact(new PncArtifact.Id(artifact.id), PncManagerImpl.parseIdentifier(artifact.identifier), false)))
+                .thenApply(ignored -> artifacts);
+    }
+
+    @Override
+    public CompletableFuture<PncResolution> resolve(ArtifactCoordinate coordinate) {
+        return findArtifact(coordinate).thenCompose(found -> found == null ? CompletableFuture.completedFuture(PncResolution.missing(coordinate)) :
+                getArtifactFields(found.id).thenCompose(artifact -> toResolution(coordinate, artifact, this::getBuild)));
+    }
+
+    /**
+     * Looks up the artifacts with RSQL queries matching up to {@link PncManagerImpl#MAX_QUERY_BATCH} identifiers each.
+     * The queries are sent concurrently. The query results include the origin and the build, so the only other
+     * requests are made for the builds, once per build.
+     */
+    @Override
+    public CompletableFuture<List<PncResolution>> resolveAll(List<ArtifactCoordinate> coordinates) {
+        final Map<String, CompletableFuture<PncBuild>> builds = new ConcurrentHashMap<>();
+        final List<CompletableFuture<List<PncResolution>>> batches = new ArrayList<>();
+        for (int i = 0; i < coordinates.size(); i += PncManagerImpl.MAX_QUERY_BATCH) {
+            batches.add(resolveBatch(coordinates.subList(i, Math.min(i + PncManagerImpl.MAX_QUERY_BATCH, coordinates.size())),
+                    buildId -> builds.computeIfAbsent(buildId, this::getBuild)));
+        }
+        return CompletableFuture.allOf(batches.toArray(new CompletableFuture[0])).thenApply(ignored -> {
+            final List<PncResolution> resolutions = new ArrayList<>(coordinates.size());
+            for (CompletableFuture<List<PncResolution>> batch : batches) {
+                resolutions.addAll(batch.join());
+            }
+            return resolutions;
+        });
+    }
+
+    /**
+     * Stops the threads handling the responses. The lookups still in flight won't complete.
+     */
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    private CompletableFuture<List<PncResolution>> resolveBatch(List<ArtifactCoordinate> batch, Function<String, CompletableFuture<PncBuild>> buildLookup) {
+        final Map<String, String> parameters = new LinkedHashMap<>();
+        parameters.put("q", PncManagerImpl.artifactQuery(batch));
+
+        final Map<String, ArtifactFields> artifactsByGav = new LinkedHashMap<>();
+        // the first matching artifact wins, same as with a single lookup
+        return getPages("/artifacts", parameters, artifact -> artifactsByGav.putIfAbsent(toGav(PncManagerImpl.parseIdentifier(artifact.identifier)), artifact))
+                .thenCompose(ignored -> {
+                    final List<CompletableFuture<PncResolution>> resolutions = new ArrayList<>(batch.size());
+                    for (ArtifactCoordinate coordinate : batch) {
+                        resolutions.add(toResolution(coordinate, artifactsByGav.get(toGav(coordinate)), buildLookup));
+                    }
+                    return CompletableFuture.allOf(resolutions.toArray(new CompletableFuture[0]))
+                            .thenApply(done -> resolutions.stream().map(CompletableFuture::join).collect(Collectors.toList()));
+                });
+    }
+
+    private CompletableFuture<ArtifactFields> findArtifact(ArtifactCoordinate coordinate) {
+        final Map<String, String> parameters = new LinkedHashMap<>();
+        parameters.put("identifier", coordinate.getGroupId() + ":" + coordinate.getArtifactId() + ":*:" + coordinate.getVersion());
+        parameters.put("pageSize", "1");
+        return get("/artifacts/filter", parameters, parser -> {
+            final List<ArtifactFields> first = new ArrayList<>(1);
+            readPage(parser, first::add);
+            return first.isEmpty() ? null : first.get(0);
+        });
+    }
+
+    private CompletableFuture<ArtifactFields> getArtifactFields(String artifactId) {
+        return get("/artifacts/" + encode(artifactId), Map.of(), HttpAsyncPncManager::readArtifact);
+    }
+
+    private CompletableFuture<PncBuild> getBuild(String buildId) {
+        return get("/builds/" + encode(buildId), Map.of(), parser -> readBuild(new PncBuild.Id(buildId), parser));
+    }
+
+    private static CompletableFuture<PncResolution> toResolution(ArtifactCoordinate coordinate, ArtifactFields artifact,
+                                                                 Function<String, CompletableFuture<PncBuild>> buildLookup) {
+        if (artifact == null) {
+            return CompletableFuture.completedFuture(PncResolution.missing(coordinate));
+        }
+        final PncArtifact pncArtifact = toArtifact(artifact);
+        if (pncArtifact.isImported()) {
+            return CompletableFuture.completedFuture(PncResolution.imported(coordinate, pncArtifact));
+        }
+        if (artifact.buildId == null) {
+            return CompletableFuture.completedFuture(PncResolution.ungrouped(coordinate, pncArtifact));
+        }
+        return buildLookup.apply(artifact.buildId).thenApply(build -> PncResolution.built(coordinate, pncArtifact, build));
+    }
+
+    private static PncArtifact toArtifact(ArtifactFields artifact) {
+        final boolean imported = artifact.originUrl != null && !artifact.originUrl.isEmpty();
+        return new PncArtifact(new PncArtifact.Id(artifact.id), PncManagerImpl.parseIdentifier(artifact.identifier), imported);
+    }
+
+    /**
+     * Reads all the pages of a collection, passing the artifacts to the {@code consumer} in order.
+     */
+    private CompletableFuture<Void> getPages(String path, Map<String, String> parameters, Consumer<ArtifactFields> consumer) {
+        return getPage(path, parameters, 0).thenCompose(page -> consumePages(path, parameters, page, consumer));
+    }
+
+    /**
+     * Passes the artifacts of the {@code page} to the {@code consumer}. The next page is requested first, so that
+     * it's on the way while the current one is consumed.
+     */
+    private CompletableFuture<Void> consumePages(String path, Map<String, String> parameters, Page page, Consumer<ArtifactFields> consumer) {
+        final CompletableFuture<Page> next = page.index + 1 < page.totalPages ? getPage(path, parameters, page.index + 1) : null;
+        page.artifacts.forEach(consumer);
+        return next == null ? CompletableFuture.completedFuture(null) :
+                next.thenCompose(nextPage -> consumePages(path, parameters, nextPage, consumer));
+    }
+
+    private CompletableFuture<Page> getPage(String path, Map<String, String> parameters, int pageIndex) {
+        final Map<String, String> pageParameters = new LinkedHashMap<>(parameters);
+        pageParameters.put("pageSize", Integer.toString(pageSize));
+        pageParameters.put("pageIndex", Integer.toString(pageIndex));
+        return get(path, pageParameters, parser -> {
+            final Page page = new Page(pageIndex);
+            page.totalPages = readPage(parser, page.artifacts::add);
+            return page;
+        });
+    }
+
+    private <T> CompletableFuture<T> get(String path, Map<String, String> parameters, ResponseReader<T> reader) {
+        final String query = parameters.entrySet().stream()
+                .map(e -> encode(e.getKey()) + "=" + encode(e.getValue()))
+                .collect(Collectors.joining("&"));
+        final URI uri = URI.create(baseUrl + path + (query.isEmpty() ? "" : "?" + query));
+        final HttpRequest.Builder builder = HttpRequest.newBuilder(uri)
+                .header("Accept", "application/json")
+                .header("Accept-Encoding", "gzip")
+                .GET();
+        if (!requestTimeout.isZero()) {
+            // the HTTP client aborts the exchange, so a hung request doesn't hold its stream
+            builder.timeout(requestTimeout);
+        }
+        final HttpRequest request = builder.build();
+
+        // the body is buffered, so that parsing it never blocks on the network
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray()).handle((response, failure) -> {
+            if (failure != null) {
+                final Throwable cause = failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure;
+                throw new PncException("PNC request to " + uri + " failed: " + cause.getMessage(), PncException.UNKNOWN_STATUS, cause);
+            }
+            if (response.statusCode() >= 400) {
+                throw new PncException("PNC request to " + uri + " failed with status " + response.statusCode(), response.statusCode(), null);
+            }
+            try (InputStream body = decode(response); JsonParser parser = JSON_FACTORY.createParser(body)) {
+                parser.nextToken();
+                return reader.read(parser);
+            } catch (IOException e) {
+                throw new PncException("Unable to read the response to " + uri + ": " + e.getMessage(), PncException.UNKNOWN_STATUS, e);
+            }
+        });
+    }
+
+    private static InputStream decode(HttpResponse<byte[]> response) throws IOException {
+        final InputStream body = new ByteArrayInputStream(response.body());
+        final boolean gzip = response.headers().firstValue("Content-Encoding").map("gzip"::equalsIgnoreCase).orElse(false);
+        return gzip ? new GZIPInputStream(body) : body;
+    }
+
+    /**
+     * Reads a page of artifacts, passing each of them to the {@code consumer}.
+     *
+     * @return the total number of pages
+     */
+    static int readPage(JsonParser parser, Consumer<ArtifactFields> consumer) throws IOException {
+        int totalPages = 0;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            final String field = parser.getCurrentName();
+            final JsonToken value = parser.nextToken();
+            if ("totalPages".equals(field)) {
+                totalPages = parser.getIntValue();
+            } else if ("content".equals(field) && value == JsonToken.START_ARRAY) {
+                while (parser.nextToken() == JsonToken.START_OBJECT) {
+                    consumer.accept(readArtifact(parser));
+                }
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return totalPages;
+    }
+
+    static ArtifactFields readArtifact(JsonParser parser) throws IOException {
+        final ArtifactFields artifact = new ArtifactFields();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            final String field = parser.getCurrentName();
+            final JsonToken value = parser.nextToken();
+            switch (field) {
+                case "id":
+                    artifact.id = parser.getValueAsString();
+                    break;
+                case "identifier":
+                    artifact.identifier = parser.getValueAsString();
+                    break;
+                case "originUrl":
+                    artifact.originUrl = parser.getValueAsString();
+                    break;
+                case "build":
+                    if (value == JsonToken.START_OBJECT) {
+                        artifact.buildId = readId(parser);
+                    }
+                    break;
+                default:
+                    parser.skipChildren();
+            }
+        }
+        return artifact;
+    }
+
+    private static String readId(JsonParser parser) throws IOException {
+        String id = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            final String field = parser.getCurrentName();
+            parser.nextToken();
+            if ("id".equals(field)) {
+                id = parser.getValueAsString();
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return id;
+    }
+
+    static PncBuild readBuild(PncBuild.Id id, JsonParser parser) throws IOException {
+        String brewName = null;
+        // a build without a status is not known to be finished
+        boolean finished = false;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            final String field = parser.getCurrentName();
+            final JsonToken value = parser.nextToken();
+            if ("status".equals(field) && value == JsonToken.VALUE_STRING) {
+                finished = !RUNNING_BUILD_STATUSES.contains(parser.getText());
+            } else if ("attributes".equals(field) && value == JsonToken.START_OBJECT) {
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    final String attribute = parser.getCurrentName();
+                    parser.nextToken();
+                    if (BREW_BUILD_NAME.equals(attribute)) {
+                        brewName = parser.getValueAsString();
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return new PncBuild(id, new PncComponent(brewName), finished);
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    private static String toGav(ArtifactCoordinate coordinate) {
+        return coordinate.getGroupId() + ":" + coordinate.getArtifactId() + ":" + coordinate.getVersion();
+    }
+
+    @FunctionalInterface
+    private interface ResponseReader<T> {
+        T read(JsonParser parser) throws IOException;
+    }
+
+    private static class Page {
+        private final int index;
+        private final List<ArtifactFields> artifacts = new ArrayList<>();
+        private int totalPages;
+
+        Page(int index) {
+            this.index = index;
+        }
+    }
+
+    /**
+     * The fields of a PNC artifact the verifier needs.
+     */
+    static class ArtifactFields {
+        String id;
+        String identifier;
+        String originUrl;
+        String buildId;
+    }
+}
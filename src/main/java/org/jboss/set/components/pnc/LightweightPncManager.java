@@ -0,0 +1,87 @@
+package org.jboss.set.components.pnc;
+
+import org.wildfly.channel.ArtifactCoordinate;
+
+import java.net.URL;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Talks to the PNC REST API directly, without the PNC REST client and its DTOs.
+ * <p>
+ * Blocking view of {@link HttpAsyncPncManager} - the responses are requested gzip-compressed and only the fields
+ * the verifier needs are parsed. Follows the same lookups as {@link PncManagerImpl}.
+ * <p>
+ * The underlying {@link java.net.http.HttpClient} is thread-safe and pools its connections, so a single manager serves
+ * all the concurrent callers.
+ */
+public class LightweightPncManager implements PncManager {
+
+    private final HttpAsyncPncManager client;
+
+    public LightweightPncManager(URL pncUrl) {
+        this(pncUrl, PncManagerImpl.DEFAULT_PAGE_SIZE);
+    }
+
+    /**
+     * @param pageSize - number of entities fetched by one request when listing collections, e.g. the artifacts of a build
+     */
+    public LightweightPncManager(URL pncUrl, int pageSize) {
+        this(pncUrl, pageSize, Duration.ofSeconds(PncManagerImpl.DEFAULT_TIMEOUT_SECONDS));
+    }
+
+    /**
+     * @param requestTimeout - time after which a request that didn't get a response fails, {@link Duration#ZERO} for no limit
+     */
+    public LightweightPncManager(URL pncUrl, int pageSize, Duration requestTimeout) {
+        this.client = new HttpAsyncPncManager(pncUrl, HttpAsyncPncManager.DEFAULT_THREADS, pageSize, requestTimeout);
+    }
+
+    @Override
+    public PncArtifact getArtifact(ArtifactCoordinate coordinate) {
+        return await(client.getArtifact(coordinate));
+    }
+
+    @Override
+    public PncBuild getBuildIdContainingArtifact(PncArtifact.Id artifactId) {
+        return await(client.getBuildIdContainingArtifact(artifactId));
+    }
+
+    @Override
+    public List<PncArtifact> getArtifactsInBuild(PncBuild.Id buildId) {
+        return await(client.getArtifactsInBuild(buildId));
+    }
+
+    @Override
+    public PncResolution resolve(ArtifactCoordinate coordinate) {
+        return await(client.resolve(coordinate));
+    }
+
+    @Override
+    public List<PncResolution> resolveAll(List<ArtifactCoordinate> coordinates) {
+        return await(client.resolveAll(coordinates));
+    }
+
+    @Override
+    public void close() {
+        client.close();
+    }
+
+    private static <T> T await(CompletableFuture<T> lookup) {
+        try {
+            return lookup.get();
+        } catch (InterruptedException e) {
+            // the lookup is abandoned, e.g. when the verification is cancelled
+            lookup.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new PncException("PNC lookup was interrupted", PncException.UNKNOWN_STATUS, e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new PncException(e.getCause().getMessage(), PncException.UNKNOWN_STATUS, e.getCause());
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package org.jboss.set.components.pnc;
+
+import org.jboss.set.components.metrics.Counter;
+import org.jboss.set.components.metrics.MetricsRegistry;
+import org.jboss.set.components.metrics.Timer;
+import org.wildfly.channel.ArtifactCoordinate;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Non-blocking counterpart of {@link MeteredPncManager}, recording the same meters. The latency of a call is measured
+ * until its future completes.
+ */
+public class MeteredAsyncPncManager implements AsyncPncManager {
+
+    private final AsyncPncManager delegate;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private final Endpoint artifact;
+    private final Endpoint artifactBuild;
+    private final Endpoint builtArtifacts;
+    private final Endpoint resolve;
+    private final Endpoint resolveAll;
+
+    public MeteredAsyncPncManager(AsyncPncManager delegate, MetricsRegistry registry) {
+        this.delegate = delegate;
+        this.artifact = new Endpoint(registry, "getArtifact");
+        this.artifactBuild = new Endpoint(registry, "getBuildIdContainingArtifact");
+        this.builtArtifacts = new Endpoint(registry, "getArtifactsInBuild");
+        this.resolve = new Endpoint(registry, "resolve");
+        this.resolveAll = new Endpoint(registry, "resolveAll");
+        registry.gauge(MeteredPncManager.IN_FLIGHT, inFlight::get);
+    }
+
+    @Override
+    public CompletableFuture<PncArtifact> getArtifact(ArtifactCoordinate coordinate) {
+        return call(artifact, () -> delegate.getArtifact(coordinate));
+    }
+
+    @Override
+    public CompletableFuture<PncBuild> getBuildIdContainingArtifact(PncArtifact.Id artifactId) {
+        return call(artifactBuild, () -> delegate.getBuildIdContainingArtifact(artifactId));
+    }
+
+    @Override
+    public CompletableFuture<List<PncArtifact>> getArtifactsInBuild(PncBuild.Id buildId) {
+        return call(builtArtifacts, () -> delegate.getArtifactsInBuild(buildId));
+    }
+
+    @Override
+    public CompletableFuture<PncResolution> resolve(ArtifactCoordinate coordinate) {
+        return call(resolve, () -> delegate.resolve(coordinate));
+    }
+
+    @Override
+    public CompletableFuture<List<PncResolution>> resolveAll(List<ArtifactCoordinate> coordinates) {
+        return call(resolveAll, () -> delegate.resolveAll(coordinates));
+    }
+
+    @Override
+    public void close() {
+        delegate.close();
+    }
+
+    private <T> CompletableFuture<T> call(Endpoint endpoint, Supplier<CompletableFuture<T>> call) {
+        inFlight.incrementAndGet();
+        final long start = System.nanoTime();
+        CompletableFuture<T> response;
+        try {
+            response = call.get();
+        } catch (RuntimeException e) {
+            response = CompletableFuture.failedFuture(e);
+        }
+        return response.whenComplete((result, failure) -> {
+            if (failure != null) {
+                endpoint.errors.increment();
+            }
+            endpoint.latency.record(System.nanoTime() - start);
+            inFlight.decrementAndGet();
+        });
+    }
+
+    private static class Endpoint {
+        private final Timer latency;
+        private final Counter errors;
+
+        Endpoint(MetricsRegistry registry, String method) {
+            this.latency = registry.timer(MeteredPncManager.REQUESTS, "method", method);
+            this.errors = registry.counter(MeteredPncManager.ERRORS, "method", method);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package org.jboss.set.components.pnc;
+
+import org.jboss.set.components.metrics.Counter;
+import org.jboss.set.components.metrics.MetricsRegistry;
+import org.jboss.set.components.metrics.Timer;
+import org.wildfly.channel.ArtifactCoordinate;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Measures the latency of each {@link PncManager} method, the failed calls and the calls in flight.
+ * <p>
+ * Wrapping the client directly measures the individual PNC requests, including the retried ones. The meters are
+ * resolved once, so a call only costs two {@link System#nanoTime()} reads and a few uncontended increments.
+ */
+public class MeteredPncManager implements PncManager {
+
+    public static final String REQUESTS = "pnc.requests";
+    public static final String ERRORS = "pnc.errors";
+    public static final String IN_FLIGHT = "pnc.requests.in_flight";
+
+    private final PncManager delegate;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private final Endpoint artifact;
+    private final Endpoint artifactBuild;
+    private final Endpoint builtArtifacts;
+    private final Endpoint resolve;
+    private final Endpoint resolveAll;
+
+    public MeteredPncManager(PncManager delegate, MetricsRegistry registry) {
+        this.delegate = delegate;
+        this.artifact = new Endpoint(registry, "getArtifact");
+        this.artifactBuild = new Endpoint(registry, "getBuildIdContainingArtifact");
+        this.builtArtifacts = new Endpoint(registry, "getArtifactsInBuild");
+        this.resolve = new Endpoint(registry, "resolve");
+        this.resolveAll = new Endpoint(registry, "resolveAll");
+        registry.gauge(IN_FLIGHT, inFlight::get);
+    }
+
+    @Override
+    public PncArtifact getArtifact(ArtifactCoordinate coordinate) {
+        return call(artifact, () -> delegate.getArtifact(coordinate));
+    }
+
+    @Override
+    public PncBuild getBuildIdContainingArtifact(PncArtifact.Id artifactId) {
+        return call(artifactBuild, () -> delegate.getBuildIdContainingArtifact(artifactId));
+    }
+
+    @Override
+    public List<PncArtifact> getArtifactsInBuild(PncBuild.Id buildId) {
+        return call(builtArtifacts, () -> delegate.getArtifactsInBuild(buildId));
+    }
+
+    @Override
+    public PncResolution resolve(ArtifactCoordinate coordinate) {
+        return call(resolve, () -> delegate.resolve(coordinate));
+    }
+
+    @Override
+    public List<PncResolution> resolveAll(List<ArtifactCoordinate> coordinates) {
+        return call(resolveAll, () -> delegate.resolveAll(coordinates));
+    }
+
+    @Override
+    public void close() {
+        delegate.close();
+    }
+
+    private <T> T call(Endpoint endpoint, Supplier<T> call) {
+        inFlight.incrementAndGet();
+        final long start = System.nanoTime();
+        try {
+            return call.get();
+        } catch (RuntimeException e) {
+            endpoint.errors.increment();
+            throw e;
+        } finally {
+            endpoint.latency.record(System.nanoTime() - start);
+            inFlight.decrementAndGet();
+        }
+    }
+
+    private static class Endpoint {
+        private final Timer latency;
+        private final Counter errors;
+
+        Endpoint(MetricsRegistry registry, String method) {
+            this.latency = registry.timer(REQUESTS, "method", method);
+            this.errors = registry.counter(ERRORS, "method", method);
+        }
+    }
+}
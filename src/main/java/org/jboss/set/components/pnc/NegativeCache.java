@@ -0,0 +1,104 @@
+package org.jboss.set.components.pnc;
+
+import org.jboss.set.components.metrics.Counter;
+import org.jboss.set.components.metrics.MetricsRegistry;
+import org.wildfly.channel.ArtifactCoordinate;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * The answers about artifacts not built in PNC, shared by {@link NegativeCachingPncManager} and
+ * {@link NegativeCachingAsyncPncManager}. The lookups are counted as hits and misses of the cache.
+ */
+class NegativeCache {
+
+    // missing, imported and ungrouped resolutions by GAV
+    private final ExpiringLruCache<String, PncResolution> resolutions;
+    // artifacts not associated with any build
+    private final ExpiringLruCache<PncArtifact.Id, Boolean> ungrouped;
+
+    private final Counter hits;
+    private final Counter misses;
+
+    NegativeCache(int maxEntries, Duration ttl, MetricsRegistry metrics, LongSupplier nanoClock) {
+        if (maxEntries < 1 || ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("Invalid negative cache limits: " + maxEntries + " entries, TTL " + ttl);
+        }
+        this.resolutions = new ExpiringLruCache<>(maxEntries, ttl.toNanos(), nanoClock);
+        this.ungrouped = new ExpiringLruCache<>(maxEntries, ttl.toNanos(), nanoClock);
+        this.hits = metrics.counter("cache.negative", "result", "hit");
+        this.misses = metrics.counter("cache.negative", "result", "miss");
+    }
+
+    /**
+     * @return the remembered resolution of the {@code coordinate}, or {@code null} if it has to be looked up
+     */
+    PncResolution getResolution(ArtifactCoordinate coordinate) {
+        final PncResolution cached = resolutions.get(toGav(coordinate));
+        if (cached == null) {
+            misses.increment();
+            return null;
+        }
+
+        hits.increment();
+        // answer with the requested coordinate, the cached one may come from a different stream of the same GAV
+        switch (cached.getStatus()) {
+            case MISSING:
+                return PncResolution.missing(coordinate);
+            case IMPORTED:
+                return PncResolution.imported(coordinate, cached.getArtifact());
+            default:
+                return PncResolution.ungrouped(coordinate, cached.getArtifact());
+        }
+    }
+
+    /**
+     * @return {@code true} if the artifact is remembered as not associated with any build
+     */
+    boolean isUngrouped(PncArtifact.Id artifactId) {
+        if (ungrouped.get(artifactId) == null) {
+            misses.increment();
+            return false;
+        }
+        hits.increment();
+        return true;
+    }
+
+    /**
+     * Remembers the answer of an artifact lookup if the artifact is missing or imported.
+     */
+    void storeArtifact(ArtifactCoordinate coordinate, PncArtifact artifact) {
+        if (artifact == null) {
+            resolutions.put(toGav(coordinate), PncResolution.missing(coordinate));
+        } else if (artifact.isImported()) {
+            resolutions.put(toGav(coordinate), PncResolution.imported(coordinate, artifact));
+        }
+    }
+
+    /**
+     * Remembers the answer of a build lookup if the artifact is not associated with any build.
+     */
+    void storeBuild(PncArtifact.Id artifactId, PncBuild build) {
+        if (build == null) {
+            ungrouped.put(artifactId, Boolean.TRUE);
+        }
+    }
+
+    void storeResolution(PncResolution resolution) {
+        if (resolution.getStatus() != PncResolution.Status.BUILT) {
+            resolutions.put(toGav(resolution.getCoordinate()), resolution);
+        }
+        if (resolution.getStatus() == PncResolution.Status.UNGROUPED) {
+            ungrouped.put(resolution.getArtifact().getId(), Boolean.TRUE);
+        }
+    }
+
+    int size() {
+        return resolutions.size() + ungrouped.size();
+    }
+
+    private static String toGav(ArtifactCoordinate coordinate) {
+        return coordinate.getGroupId() + ":" + coordinate.getArtifactId() + ":" + coordinate.getVersion();
+    }
+}
@@ -0,0 +1,109 @@
+package org.jboss.set.components.pnc;
+
+import org.jboss.set.components.metrics.MetricsRegistry;
+import org.wildfly.channel.ArtifactCoordinate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.LongSupplier;
+
+/**
+ * Non-blocking counterpart of {@link NegativeCachingPncManager}, remembering the artifacts that are not built in PNC
+ * with the same TTL and bound.
+ */
+public class NegativeCachingAsyncPncManager implements AsyncPncManager {
+
+    private final AsyncPncManager delegate;
+    private final NegativeCache cache;
+
+    public NegativeCachingAsyncPncManager(AsyncPncManager delegate, int maxEntries, Duration ttl, MetricsRegistry metrics) {
+        this(delegate, maxEntries, ttl, metrics, System::nanoTime);
+    }
+
+    NegativeCachingAsyncPncManager(AsyncPncManager delegate, int maxEntries, Duration ttl, MetricsRegistry metrics, LongSupplier nanoClock) {
+        this.delegate = delegate;
+        this.cache = new NegativeCache(maxEntries, ttl, metrics, nanoClock);
+    }
+
+    @Override
+    public CompletableFuture<PncArtifact> getArtifact(ArtifactCoordinate coordinate) {
+        final PncResolution cached = cache.getResolution(coordinate);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached.getArtifact());
+        }
+
+        return delegate.getArtifact(coordinate).thenApply(artifact -> {
+            cache.storeArtifact(coordinate, artifact);
+            return artifact;
+        });
+    }
+
+    @Override
+    public CompletableFuture<PncBuild> getBuildIdContainingArtifact(PncArtifact.Id artifactId) {
+        if (cache.isUngrouped(artifactId)) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        return delegate.getBuildIdContainingArtifact(artifactId).thenApply(build -> {
+            cache.storeBuild(artifactId, build);
+            return build;
+        });
+    }
+
+    @Override
+    public CompletableFuture<List<PncArtifact>> getArtifactsInBuild(PncBuild.Id buildId) {
+        return delegate.getArtifactsInBuild(buildId);
+    }
+
+    @Override
+    public CompletableFuture<PncResolution> resolve(ArtifactCoordinate coordinate) {
+        final PncResolution cached = cache.getResolution(coordinate);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+
+        return delegate.resolve(coordinate).thenApply(resolution -> {
+            cache.storeResolution(resolution);
+            return resolution;
+        });
+    }
+
+    @Override
+    public CompletableFuture<List<PncResolution>> resolveAll(List<ArtifactCoordinate> coordinates) {
+        final PncResolution[] resolved = new PncResolution[coordinates.size()];
+        final List<ArtifactCoordinate> uncached = new ArrayList<>();
+        for (int i = 0; i < coordinates.size(); i++) {
+            resolved[i] = cache.getResolution(coordinates.get(i));
+            if (resolved[i] == null) {
+                uncached.add(coordinates.get(i));
+            }
+        }
+        if (uncached.isEmpty()) {
+            return CompletableFuture.completedFuture(Arrays.asList(resolved));
+        }
+
+        return delegate.resolveAll(uncached).thenApply(delegatedResolutions -> {
+            final Iterator<PncResolution> delegated = delegatedResolutions.iterator();
+            for (int i = 0; i < resolved.length; i++) {
+                if (resolved[i] == null) {
+                    resolved[i] = delegated.next();
+                    cache.storeResolution(resolved[i]);
+                }
+            }
+            return Arrays.asList(resolved);
+        });
+    }
+
+    int size() {
+        return cache.size();
+    }
+
+    @Override
+    public void close() {
+        delegate.close();
+    }
+}
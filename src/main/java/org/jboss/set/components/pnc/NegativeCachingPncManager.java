@@ -0,0 +1,110 @@
+package org.jboss.set.components.pnc;
+
+import org.jboss.set.components.metrics.MetricsRegistry;
+import org.wildfly.channel.ArtifactCoordinate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.LongSupplier;
+
+/**
+ * Remembers the artifacts that are not built in PNC - missing, imported and not associated with a build - so that
+ * they are not looked up again by every verification.
+ * <p>
+ * The built artifacts are cached by the verifier and by {@link PersistentPncManager}. Unlike a build, the negative
+ * answers can change (an artifact can be built or imported later), so they expire after the {@code ttl}. The cache is
+ * bounded, evicting the least recently used entries, and is meant to be kept for the lifetime of the JVM, e.g. by
+ * the verification server.
+ */
+public class NegativeCachingPncManager implements PncManager {
+
+    public static final int DEFAULT_MAX_ENTRIES = 100_000;
+    public static final long DEFAULT_TTL_SECONDS = 3600;
+
+    private final PncManager delegate;
+    private final NegativeCache cache;
+
+    public NegativeCachingPncManager(PncManager delegate, int maxEntries, Duration ttl, MetricsRegistry metrics) {
+        this(delegate, maxEntries, ttl, metrics, System::nanoTime);
+    }
+
+    NegativeCachingPncManager(PncManager delegate, int maxEntries, Duration ttl, MetricsRegistry metrics, LongSupplier nanoClock) {
+        this.delegate = delegate;
+        this.cache = new NegativeCache(maxEntries, ttl, metrics, nanoClock);
+    }
+
+    @Override
+    public PncArtifact getArtifact(ArtifactCoordinate coordinate) {
+        final PncResolution cached = cache.getResolution(coordinate);
+        if (cached != null) {
+            return cached.getArtifact();
+        }
+
+        final PncArtifact artifact = delegate.getArtifact(coordinate);
+        cache.storeArtifact(coordinate, artifact);
+        return artifact;
+    }
+
+    @Override
+    public PncBuild getBuildIdContainingArtifact(PncArtifact.Id artifactId) {
+        if (cache.isUngrouped(artifactId)) {
+            return null;
+        }
+
+        final PncBuild build = delegate.getBuildIdContainingArtifact(artifactId);
+        cache.storeBuild(artifactId, build);
+        return build;
+    }
+
+    @Override
+    public List<PncArtifact> getArtifactsInBuild(PncBuild.Id buildId) {
+        return delegate.getArtifactsInBuild(buildId);
+    }
+
+    @Override
+    public PncResolution resolve(ArtifactCoordinate coordinate) {
+        final PncResolution cached = cache.getResolution(coordinate);
+        if (cached != null) {
+            return cached;
+        }
+
+        final PncResolution resolution = delegate.resolve(coordinate);
+        cache.storeResolution(resolution);
+        return resolution;
+    }
+
+    @Override
+    public List<PncResolution> resolveAll(List<ArtifactCoordinate> coordinates) {
+        final PncResolution[] resolved = new PncResolution[coordinates.size()];
+        final List<ArtifactCoordinate> uncached = new ArrayList<>();
+        for (int i = 0; i < coordinates.size(); i++) {
+            resolved[i] = cache.getResolution(coordinates.get(i));
+            if (resolved[i] == null) {
+                uncached.add(coordinates.get(i));
+            }
+        }
+
+        if (!uncached.isEmpty()) {
+            final Iterator<PncResolution> delegated = delegate.resolveAll(uncached).iterator();
+            for (int i = 0; i < resolved.length; i++) {
+                if (resolved[i] == null) {
+                    resolved[i] = delegated.next();
+                    cache.storeResolution(resolved[i]);
+                }
+            }
+        }
+        return Arrays.asList(resolved);
+    }
+
+    int size() {
+        return cache.size();
+    }
+
+    @Override
+    public void close() {
+        delegate.close();
+    }
+}
@@ -0,0 +1,349 @@
+package org.jboss.set.components.pnc;
+
+import org.wildfly.channel.ArtifactCoordinate;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps the results of PNC lookups on disk, so that they can be re-used by following runs.
+ * <p>
+ * Only the results describing finished builds with a Brew name are stored - the artifact to build and build to
+ * artifacts mappings never change once a build is done. Missing and imported artifacts are always looked up in PNC.
+ * <p>
+ * The cache file is loaded when the manager is created and the new entries are merged into it on {@link #flush()}
+ * and {@link #close()}.
+ * Concurrent processes sharing the cache directory are serialized by a file lock, and the file is replaced atomically,
+ * so readers never see a partially written cache. A cache file that can't be read is ignored, as if it was empty.
+ */
+public class PersistentPncManager implements PncManager {
+
+    static final String CACHE_FILE = "pnc-cache.bin";
+    static final String LOCK_FILE = "pnc-cache.lock";
+    // "PNCC"
+    private static final int MAGIC = 0x504E4343;
+    static final int VERSION = 2;
+
+    private final PncManager delegate;
+    private final Path cacheFile;
+    private final Path lockFile;
+
+    private final Map<String, PncArtifact> artifactsByGav = new ConcurrentHashMap<>();
+    private final Map<PncArtifact.Id, PncBuild.Id> buildIdsByArtifact = new ConcurrentHashMap<>();
+    private final Map<PncBuild.Id, PncBuild> builds = new ConcurrentHashMap<>();
+    private final Map<PncBuild.Id, List<PncArtifact>> artifactsByBuild = new ConcurrentHashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private volatile boolean modified;
+
+    public PersistentPncManager(PncManager delegate, Path cacheDir) {
+        this.delegate = delegate;
+        this.cacheFile = cacheDir.resolve(CACHE_FILE);
+        this.lockFile = cacheDir.resolve(LOCK_FILE);
+
+        try {
+            Files.createDirectories(cacheDir);
+            try (FileChannel lockChannel = openLockChannel(); FileLock ignored = lockChannel.lock(0, Long.MAX_VALUE, true)) {
+                load();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read the PNC cache from " + cacheDir, e);
+        }
+    }
+
+    @Override
+    public PncArtifact getArtifact(ArtifactCoordinate coordinate) {
+        final String gav = toGav(coordinate);
+        final PncArtifact cached = artifactsByGav.get(gav);
+        if (cached != null) {
+            hits.incrementAndGet();
+            return cached;
+        }
+
+        misses.incrementAndGet();
+        final PncArtifact artifact = delegate.getArtifact(coordinate);
+        if (artifact != null && !artifact.isImported()) {
+            artifactsByGav.put(gav, artifact);
+            modified = true;
+        }
+        return artifact;
+    }
+
+    @Override
+    public PncBuild getBuildIdContainingArtifact(PncArtifact.Id artifactId) {
+        final PncBuild.Id buildId = buildIdsByArtifact.get(artifactId);
+        if (buildId != null) {
+            hits.incrementAndGet();
+            return builds.get(buildId);
+        }
+
+        misses.incrementAndGet();
+        final PncBuild build = delegate.getBuildIdContainingArtifact(artifactId);
+        if (build != null && isStorable(build)) {
+            builds.put(build.getId(), build);
+            buildIdsByArtifact.put(artifactId, build.getId());
+            modified = true;
+        }
+        return build;
+    }
+
+    @Override
+    public List<PncArtifact> getArtifactsInBuild(PncBuild.Id buildId) {
+        final List<PncArtifact> cached = artifactsByBuild.get(buildId);
+        if (cached != null) {
+            hits.incrementAndGet();
+            return cached;
+        }
+
+        misses.incrementAndGet();
+        final List<PncArtifact> artifacts = delegate.getArtifactsInBuild(buildId);
+        // only the builds stored by a previous lookup are known to be finished, the artifacts of a running build can change
+        if (builds.containsKey(buildId)) {
+            artifactsByBuild.put(buildId, artifacts);
+            // index its artifacts so that the following lookups don't need to go to PNC
+            for (PncArtifact artifact : artifacts) {
+                artifactsByGav.putIfAbsent(toGav(artifact.getCoordinate()), artifact);
+                buildIdsByArtifact.putIfAbsent(artifact.getId(), buildId);
+            }
+            modified = true;
+        }
+        return artifacts;
+    }
+
+    @Override
+    public PncResolution resolve(ArtifactCoordinate coordinate) {
+        final PncResolution cached = getCachedResolution(coordinate);
+        if (cached != null) {
+            hits.incrementAndGet();
+            return cached;
+        }
+
+        misses.incrementAndGet();
+        final PncResolution resolution = delegate.resolve(coordinate);
+        store(resolution);
+        return resolution;
+    }
+
+    @Override
+    public List<PncResolution> resolveAll(List<ArtifactCoordinate> coordinates) {
+        final PncResolution[] resolutions = new PncResolution[coordinates.size()];
+        final List<ArtifactCoordinate> uncached = new ArrayList<>();
+        for (int i = 0; i < coordinates.size(); i++) {
+            resolutions[i] = getCachedResolution(coordinates.get(i));
+            if (resolutions[i] == null) {
+                uncached.add(coordinates.get(i));
+            }
+        }
+        hits.addAndGet(coordinates.size() - uncached.size());
+        misses.addAndGet(uncached.size());
+
+        if (!uncached.isEmpty()) {
+            final Iterator<PncResolution> resolved = delegate.resolveAll(uncached).iterator();
+            for (int i = 0; i < resolutions.length; i++) {
+                if (resolutions[i] == null) {
+                    resolutions[i] = resolved.next();
+                    store(resolutions[i]);
+                }
+            }
+        }
+        return Arrays.asList(resolutions);
+    }
+
+    private PncResolution getCachedResolution(ArtifactCoordinate coordinate) {
+        final PncArtifact cachedArtifact = artifactsByGav.get(toGav(coordinate));
+        final PncBuild.Id cachedBuildId = cachedArtifact == null ? null : buildIdsByArtifact.get(cachedArtifact.getId());
+        if (cachedBuildId == null) {
+            return null;
+        }
+        return PncResolution.built(coordinate, cachedArtifact, builds.get(cachedBuildId));
+    }
+
+    private void store(PncResolution resolution) {
+        if (resolution.getStatus() == PncResolution.Status.BUILT && isStorable(resolution.getBuild())) {
+            final PncBuild build = resolution.getBuild();
+            artifactsByGav.put(toGav(resolution.getCoordinate()), resolution.getArtifact());
+            builds.put(build.getId(), build);
+            buildIdsByArtifact.put(resolution.getArtifact().getId(), build.getId());
+            modified = true;
+        }
+    }
+
+    /**
+     * A running build can still change, and the Brew name is sometimes set only after the build is done.
+     */
+    private static boolean isStorable(PncBuild build) {
+        return build.isFinished() && build.getBrewComponent() != null && build.getBrewComponent().getName() != null;
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public String summary() {
+        return String.format("PNC cache: %d hits, %d misses, %d builds stored in %s", hits.get(), misses.get(),
+                artifactsByBuild.size(), cacheFile);
+    }
+
+    /**
+     * Merges the entries added since the cache was loaded into the cache file and closes the delegate.
+     */
+    @Override
+    public void close() {
+        try {
+            flush();
+        } finally {
+            delegate.close();
+        }
+    }
+
+    /**
+     * Merges the entries added since the cache was loaded into the cache file.
+     */
+    public void flush() {
+        if (!modified) {
+            return;
+        }
+
+        try (FileChannel lockChannel = openLockChannel(); FileLock ignored = lockChannel.lock()) {
+            // another process might have updated the cache since we loaded it
+            load();
+            save();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to write the PNC cache to " + cacheFile, e);
+        }
+    }
+
+    private FileChannel openLockChannel() throws IOException {
+        return FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    /**
+     * Merges the cache file into the entries in memory. If the file can't be read, nothing is merged.
+     */
+    private void load() {
+        final Map<PncBuild.Id, PncBuild> loadedBuilds = new HashMap<>();
+        final Map<PncArtifact.Id, PncBuild.Id> loadedBuildIds = new HashMap<>();
+        final Map<String, PncArtifact> loadedArtifacts = new HashMap<>();
+        final Map<PncBuild.Id, List<PncArtifact>> loadedArtifactsByBuild = new HashMap<>();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(cacheFile)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                System.err.println("[WARN] Ignoring PNC cache with unsupported format: " + cacheFile);
+                return;
+            }
+
+            final int buildCount = PncDataCodec.readCount(in);
+            for (int i = 0; i < buildCount; i++) {
+                final PncBuild build = PncDataCodec.readBuild(in);
+                loadedBuilds.put(build.getId(), build);
+            }
+
+            final int artifactBuildCount = PncDataCodec.readCount(in);
+            for (int i = 0; i < artifactBuildCount; i++) {
+                loadedBuildIds.put(new PncArtifact.Id(in.readUTF()), new PncBuild.Id(in.readUTF()));
+            }
+
+            final int artifactCount = PncDataCodec.readCount(in);
+            for (int i = 0; i < artifactCount; i++) {
+                final String gav = in.readUTF();
+                loadedArtifacts.put(gav, PncDataCodec.readArtifact(in));
+            }
+
+            final int builtArtifactsCount = PncDataCodec.readCount(in);
+            for (int i = 0; i < builtArtifactsCount; i++) {
+                final PncBuild.Id buildId = new PncBuild.Id(in.readUTF());
+                final int size = PncDataCodec.readCount(in);
+                final List<PncArtifact> artifacts = PncDataCodec.newList(size);
+                for (int j = 0; j < size; j++) {
+                    artifacts.add(PncDataCodec.readArtifact(in));
+                }
+                loadedArtifactsByBuild.put(buildId, artifacts);
+            }
+        } catch (NoSuchFileException e) {
+            // nothing cached yet
+            return;
+        } catch (IOException | RuntimeException e) {
+            // truncated, corrupted or written by an incompatible version, start with a cold cache
+            System.err.println("[WARN] Ignoring unreadable PNC cache " + cacheFile + ": " + e);
+            return;
+        }
+
+        loadedBuilds.forEach(builds::putIfAbsent);
+        loadedBuildIds.forEach(buildIdsByArtifact::putIfAbsent);
+        loadedArtifacts.forEach(artifactsByGav::putIfAbsent);
+        loadedArtifactsByBuild.forEach(artifactsByBuild::putIfAbsent);
+    }
+
+    private void save() throws IOException {
+        final Path tempFile = Files.createTempFile(cacheFile.getParent(), CACHE_FILE, ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+
+                out.writeInt(builds.size());
+                for (PncBuild build : builds.values()) {
+                    PncDataCodec.writeBuild(out, build);
+                }
+
+                out.writeInt(buildIdsByArtifact.size());
+                for (Map.Entry<PncArtifact.Id, PncBuild.Id> entry : buildIdsByArtifact.entrySet()) {
+                    out.writeUTF(entry.getKey().getId());
+                    out.writeUTF(entry.getValue().getId());
+                }
+
+                out.writeInt(artifactsByGav.size());
+                for (Map.Entry<String, PncArtifact> entry : artifactsByGav.entrySet()) {
+                    out.writeUTF(entry.getKey());
+                    PncDataCodec.writeArtifact(out, entry.getValue());
+                }
+
+                out.writeInt(artifactsByBuild.size());
+                for (Map.Entry<PncBuild.Id, List<PncArtifact>> entry : artifactsByBuild.entrySet()) {
+                    out.writeUTF(entry.getKey().getId());
+                    out.writeInt(entry.getValue().size());
+                    for (PncArtifact artifact : entry.getValue()) {
+                        PncDataCodec.writeArtifact(out, artifact);
+                    }
+                }
+            }
+
+            try {
+                Files.move(tempFile, cacheFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempFile, cacheFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+            modified = false;
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    private static String toGav(ArtifactCoordinate coordinate) {
+        return coordinate.getGroupId() + ":" + coordinate.getArtifactId() + ":" + coordinate.getVersion();
+    }
+}
@@ -6,10 +6,15 @@ public class PncBuild {
 
     private final PncBuild.Id id;
     private final PncComponent brewComponent;
+    private final boolean finished;
 
-    public PncBuild(Id id, PncComponent brewComponent) {
+    /**
+     * @param finished - {@code false} if the build is still running or waiting, its attributes might change
+     */
+    public PncBuild(Id id, PncComponent brewComponent, boolean finished) {
         this.id = id;
         this.brewComponent = brewComponent;
+        this.finished = finished;
     }
 
     public PncBuild.Id getId() {
@@ -20,11 +25,16 @@ public class PncBuild {
         return brewComponent;
     }
 
+    public boolean isFinished() {
+        return finished;
+    }
+
     @Override
     public String toString() {
         return "PncBuild{" +
                 "id=" + id +
                 ", brewComponent='" + brewComponent + '\'' +
+                ", finished=" + finished +
                 '}';
     }
 
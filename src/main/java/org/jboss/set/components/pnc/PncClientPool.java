@@ -0,0 +1,131 @@
+package org.jboss.set.components.pnc;
+
+import org.jboss.pnc.client.RemoteResourceException;
+
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Pool of long-lived PNC REST clients. Each client holds its own HTTP connection, so re-using the clients
+ * keeps the connections (and TLS sessions) alive across calls.
+ * <p>
+ * A client is only ever used by one thread at a time. At most {@code size} clients are created, callers
+ * wait for a free client when all of them are busy.
+ * <p>
+ * The PNC REST client has no read timeout, a call that doesn't complete within the {@code timeout} is aborted by
+ * closing its client, which closes the client's connections and fails the blocked request. The closed client is
+ * replaced by a new one.
+ */
+class PncClientPool<C extends AutoCloseable> implements AutoCloseable {
+
+    @FunctionalInterface
+    interface ClientCall<C, R> {
+        R call(C client) throws RemoteResourceException;
+    }
+
+    private enum Lease {
+        ACTIVE, RETURNED, TIMED_OUT
+    }
+
+    // closes the clients of the calls that timed out
+    private static final ScheduledExecutorService WATCHDOG = Executors.newSingleThreadScheduledExecutor(r -> {
+        final Thread thread = new Thread(r, "pnc-client-watchdog");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Supplier<C> clientFactory;
+    private final Duration timeout;
+    private final Semaphore permits;
+    private final Queue<C> idleClients = new ConcurrentLinkedQueue<>();
+    private final Queue<C> allClients = new ConcurrentLinkedQueue<>();
+    private volatile boolean closed;
+
+    PncClientPool(Supplier<C> clientFactory, int size) {
+        this(clientFactory, size, Duration.ZERO);
+    }
+
+    /**
+     * @param timeout - maximum duration of a call, {@link Duration#ZERO} for no limit
+     */
+    PncClientPool(Supplier<C> clientFactory, int size, Duration timeout) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Pool size has to be a positive number, was " + size);
+        }
+        this.clientFactory = clientFactory;
+        this.timeout = timeout;
+        this.permits = new Semaphore(size);
+    }
+
+    <R> R execute(ClientCall<C, R> call) throws RemoteResourceException {
+        if (closed) {
+            throw new IllegalStateException("The PNC client pool has been closed");
+        }
+
+        permits.acquireUninterruptibly();
+        try {
+            C client = idleClients.poll();
+            if (client == null) {
+                client = clientFactory.get();
+                allClients.add(client);
+            }
+            final C leased = client;
+            // either the watchdog times the call out, or the caller returns the client to the pool, never both
+            final AtomicReference<Lease> lease = new AtomicReference<>(Lease.ACTIVE);
+            final ScheduledFuture<?> watchdog = timeout.isZero() ? null : WATCHDOG.schedule(() -> {
+                if (lease.compareAndSet(Lease.ACTIVE, Lease.TIMED_OUT)) {
+                    closeClient(leased);
+                }
+            }, timeout.toMillis(), TimeUnit.MILLISECONDS);
+            try {
+                return call.call(client);
+            } catch (RemoteResourceException | RuntimeException e) {
+                if (lease.get() == Lease.TIMED_OUT) {
+                    final TimeoutException timeoutException = new TimeoutException("PNC call didn't complete in " + timeout.toMillis() + " ms");
+                    timeoutException.initCause(e);
+                    throw new PncException(timeoutException.getMessage(), PncException.UNKNOWN_STATUS, timeoutException);
+                }
+                throw e;
+            } finally {
+                if (watchdog != null) {
+                    watchdog.cancel(false);
+                }
+                if (lease.compareAndSet(Lease.ACTIVE, Lease.RETURNED)) {
+                    idleClients.add(client);
+                } else {
+                    // closed by the watchdog
+                    allClients.remove(client);
+                }
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        C client;
+        while ((client = allClients.poll()) != null) {
+            closeClient(client);
+        }
+        idleClients.clear();
+    }
+
+    private static void closeClient(AutoCloseable client) {
+        try {
+            client.close();
+        } catch (Exception e) {
+            System.err.println("[WARN] Unable to close PNC client: " + e.getMessage());
+        }
+    }
+}
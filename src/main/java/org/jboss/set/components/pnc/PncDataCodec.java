@@ -0,0 +1,127 @@
+package org.jboss.set.components.pnc;
+
+import org.wildfly.channel.ArtifactCoordinate;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compact binary encoding of the PNC data model used by the on-disk files.
+ */
+public final class PncDataCodec {
+
+    private static final int MAX_PRESIZED_ENTRIES = 1024;
+
+    private PncDataCodec() {
+    }
+
+    /**
+     * @throws IOException if the number of entries is negative, as in a corrupted file
+     */
+    public static int readCount(DataInput in) throws IOException {
+        final int count = in.readInt();
+        if (count < 0) {
+            throw new IOException("Invalid number of entries " + count);
+        }
+        return count;
+    }
+
+    /**
+     * @return a list for the {@code count} entries read from a file, a corrupted count doesn't allocate a huge list
+     * up front
+     */
+    public static <T> List<T> newList(int count) {
+        return new ArrayList<>(Math.min(count, MAX_PRESIZED_ENTRIES));
+    }
+
+    public static void writeArtifact(DataOutput out, PncArtifact artifact) throws IOException {
+        out.writeUTF(artifact.getId().getId());
+        writeCoordinate(out, artifact.getCoordinate());
+        out.writeBoolean(artifact.isImported());
+    }
+
+    public static PncArtifact readArtifact(DataInput in) throws IOException {
+        final PncArtifact.Id id = new PncArtifact.Id(in.readUTF());
+        final ArtifactCoordinate coordinate = readCoordinate(in);
+        final boolean imported = in.readBoolean();
+        return new PncArtifact(id, coordinate, imported);
+    }
+
+    public static void writeCoordinate(DataOutput out, ArtifactCoordinate coordinate) throws IOException {
+        out.writeUTF(coordinate.getGroupId());
+        out.writeUTF(coordinate.getArtifactId());
+        writeNullableString(out, coordinate.getExtension());
+        writeNullableString(out, coordinate.getClassifier());
+        out.writeUTF(coordinate.getVersion());
+    }
+
+    public static ArtifactCoordinate readCoordinate(DataInput in) throws IOException {
+        final String groupId = in.readUTF();
+        final String artifactId = in.readUTF();
+        final String extension = readNullableString(in);
+        final String classifier = readNullableString(in);
+        final String version = in.readUTF();
+        return new ArtifactCoordinate(groupId, artifactId, extension, classifier, version);
+    }
+
+    public static void writeResolution(DataOutput out, PncResolution resolution) throws IOException {
+        out.writeByte(resolution.getStatus().ordinal());
+        writeCoordinate(out, resolution.getCoordinate());
+        if (resolution.getArtifact() != null) {
+            writeArtifact(out, resolution.getArtifact());
+        }
+        if (resolution.getBuild() != null) {
+            writeBuild(out, resolution.getBuild());
+        }
+    }
+
+    public static PncResolution readResolution(DataInput in) throws IOException {
+        final int ordinal = in.readByte();
+        final PncResolution.Status[] statuses = PncResolution.Status.values();
+        if (ordinal < 0 || ordinal >= statuses.length) {
+            throw new IOException("Unknown resolution status " + ordinal);
+        }
+        final PncResolution.Status status = statuses[ordinal];
+        final ArtifactCoordinate coordinate = readCoordinate(in);
+        switch (status) {
+            case MISSING:
+                return PncResolution.missing(coordinate);
+            case IMPORTED:
+                return PncResolution.imported(coordinate, readArtifact(in));
+            case UNGROUPED:
+                return PncResolution.ungrouped(coordinate, readArtifact(in));
+            case BUILT:
+                final PncArtifact artifact = readArtifact(in);
+                return PncResolution.built(coordinate, artifact, readBuild(in));
+            default:
+                throw new IOException("Unknown resolution status " + status);
+        }
+    }
+
+    public static void writeBuild(DataOutput out, PncBuild build) throws IOException {
+        out.writeUTF(build.getId().getId());
+        writeNullableString(out, build.getBrewComponent().getName());
+        out.writeBoolean(build.isFinished());
+    }
+
+    public static PncBuild readBuild(DataInput in) throws IOException {
+        final PncBuild.Id id = new PncBuild.Id(in.readUTF());
+        final PncComponent brewComponent = new PncComponent(readNullableString(in));
+        final boolean finished = in.readBoolean();
+        return new PncBuild(id, brewComponent, finished);
+    }
+
+    public static void writeNullableString(DataOutput out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    public static String readNullableString(DataInput in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+}
@@ -0,0 +1,56 @@
+package org.jboss.set.components.pnc;
+
+import org.jboss.pnc.client.RemoteResourceException;
+
+import java.io.IOException;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Failure of a PNC lookup.
+ */
+public class PncException extends RuntimeException {
+
+    public static final int UNKNOWN_STATUS = -1;
+
+    private final int status;
+
+    public PncException(RemoteResourceException cause) {
+        super(cause.getMessage(), cause);
+        this.status = cause.getStatus() > 0 ? cause.getStatus() : UNKNOWN_STATUS;
+    }
+
+    public PncException(String message, int status, Throwable cause) {
+        super(message, cause);
+        this.status = status;
+    }
+
+    /**
+     * @return HTTP status returned by PNC or {@link #UNKNOWN_STATUS} if no response was received
+     */
+    public int getStatus() {
+        return status;
+    }
+
+    /**
+     * Checks if the failure is likely to be transient - PNC is overloaded (429/502/503/504), the connection failed
+     * or the call timed out.
+     */
+    public static boolean isRetryable(Throwable failure) {
+        if (failure instanceof PncException) {
+            final int status = ((PncException) failure).getStatus();
+            if (status == 429 || status == 502 || status == 503 || status == 504) {
+                return true;
+            }
+            if (status != UNKNOWN_STATUS) {
+                return false;
+            }
+        }
+
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof IOException || cause instanceof TimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -2,13 +2,57 @@ package org.jboss.set.components.pnc;
 
 import org.wildfly.channel.ArtifactCoordinate;
 
+import java.util.ArrayList;
 import java.util.List;
 
-public interface PncManager {
+public interface PncManager extends AutoCloseable {
 
     PncArtifact getArtifact(ArtifactCoordinate coordinate);
 
     PncBuild getBuildIdContainingArtifact(PncArtifact.Id artifactId);
 
     List<PncArtifact> getArtifactsInBuild(PncBuild.Id buildId);
+
+    /**
+     * Finds the artifact matching the {@code coordinate} together with the build and component it belongs to.
+     * <p>
+     * The default implementation combines the single lookups, implementations should override it to avoid fetching
+     * the same PNC entities repeatedly.
+     */
+    default PncResolution resolve(ArtifactCoordinate coordinate) {
+        final PncArtifact artifact = getArtifact(coordinate);
+        if (artifact == null) {
+            return PncResolution.missing(coordinate);
+        }
+        if (artifact.isImported()) {
+            return PncResolution.imported(coordinate, artifact);
+        }
+
+        final PncBuild build = getBuildIdContainingArtifact(artifact.getId());
+        if (build == null) {
+            return PncResolution.ungrouped(coordinate, artifact);
+        }
+        return PncResolution.built(coordinate, artifact, build);
+    }
+
+    /**
+     * Resolves all the {@code coordinates}, see {@link #resolve(ArtifactCoordinate)}. Implementations can use it to
+     * look up many artifacts with a single request.
+     *
+     * @return resolutions in the same order as the {@code coordinates}
+     */
+    default List<PncResolution> resolveAll(List<ArtifactCoordinate> coordinates) {
+        final List<PncResolution> resolutions = new ArrayList<>(coordinates.size());
+        for (ArtifactCoordinate coordinate : coordinates) {
+            resolutions.add(resolve(coordinate));
+        }
+        return resolutions;
+    }
+
+    /**
+     * Releases the resources (e.g. pooled connections) held by the manager.
+     */
+    @Override
+    default void close() {
+    }
 }
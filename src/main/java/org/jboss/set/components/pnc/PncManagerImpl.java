@@ -10,44 +10,101 @@ import org.jboss.pnc.dto.response.ArtifactInfo;
 import org.wildfly.channel.ArtifactCoordinate;
 
 import java.net.URL;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 public class PncManagerImpl implements PncManager {
 
+    public static final int DEFAULT_POOL_SIZE = 20;
+    /**
+     * The largest page PNC returns, fewest round-trips for large builds.
+     */
+    public static final int DEFAULT_PAGE_SIZE = 200;
+    public static final long DEFAULT_TIMEOUT_SECONDS = 300;
+    // keeps the RSQL query, and the request URL, reasonably short
+    static final int MAX_QUERY_BATCH = 40;
+
     private final URL pncUrl;
     private final Configuration configuration;
+    private final PncClientPool<ArtifactClient> artifactClients;
+    // the filtered lookups only take the first result, a page of one is enough
+    private final PncClientPool<ArtifactClient> singleResultArtifactClients;
+    private final PncClientPool<BuildClient> buildClients;
 
     public PncManagerImpl(URL pncUrl) {
+        this(pncUrl, DEFAULT_POOL_SIZE);
+    }
+
+    /**
+     * @param poolSize - maximum number of clients (and connections) of each kind kept open. Should match the number
+     *                 of concurrent callers.
+     */
+    public PncManagerImpl(URL pncUrl, int poolSize) {
+        this(pncUrl, poolSize, DEFAULT_PAGE_SIZE);
+    }
+
+    /**
+     * @param pageSize - number of entities fetched by one request when listing collections, e.g. the artifacts of a build
+     */
+    public PncManagerImpl(URL pncUrl, int poolSize, int pageSize) {
+        this(pncUrl, poolSize, pageSize, Duration.ofSeconds(DEFAULT_TIMEOUT_SECONDS));
+    }
+
+    /**
+     * @param timeout - time after which a call that didn't complete is aborted and fails with a retryable
+     *                {@link PncException}, {@link Duration#ZERO} for no limit. A call includes all the requests of
+     *                the method, e.g. all the pages of a listing.
+     */
+    public PncManagerImpl(URL pncUrl, int poolSize, int pageSize, Duration timeout) {
+        if (pageSize < 1) {
+            throw new IllegalArgumentException("Page size has to be a positive number, was " + pageSize);
+        }
         this.pncUrl = pncUrl;
-        this.configuration = Configuration.builder()
+        this.configuration = configuration(pncUrl, pageSize);
+        final Configuration singleResultConfiguration = configuration(pncUrl, 1);
+        this.artifactClients = new PncClientPool<>(() -> new ArtifactClient(configuration), poolSize, timeout);
+        this.singleResultArtifactClients = new PncClientPool<>(() -> new ArtifactClient(singleResultConfiguration), poolSize, timeout);
+        this.buildClients = new PncClientPool<>(() -> new BuildClient(configuration), poolSize, timeout);
+    }
+
+    private static Configuration configuration(URL pncUrl, int pageSize) {
+        return Configuration.builder()
                 .host(pncUrl.getHost())
                 .port(pncUrl.getPort())
                 .protocol(pncUrl.getProtocol())
+                .pageSize(pageSize)
                 .build();
     }
 
     @Override
     public PncArtifact getArtifact(ArtifactCoordinate coordinate) {
-        try (var artifactClient = new ArtifactClient(configuration)) {
-            final var allFiltered = artifactClient.getAllFiltered(coordinate.getGroupId() + ":" + coordinate.getArtifactId() + ":*:" + coordinate.getVersion(),
-                    null, null, null);
+        try {
+            return singleResultArtifactClients.execute(artifactClient -> {
+                final var allFiltered = artifactClient.getAllFiltered(coordinate.getGroupId() + ":" + coordinate.getArtifactId() + ":*:" + coordinate.getVersion(),
+                        null, null, null);
 
-            final Iterator<ArtifactInfo> iterator = allFiltered.iterator();
-            if (!iterator.hasNext()) {
-                return null;
-            }
+                final Iterator<ArtifactInfo> iterator = allFiltered.iterator();
+                if (!iterator.hasNext()) {
+                    return null;
+                }
 
-            final ArtifactInfo artifact = iterator.next();
-            final var artifactInfo = artifactClient.getSpecific(artifact.getId());
-            return new PncArtifact(new PncArtifact.Id(artifact.getId()), parseIdentifier(artifact.getIdentifier()), StringUtils.isNotEmpty(artifactInfo.getOriginUrl()));
+                final ArtifactInfo artifact = iterator.next();
+                final var artifactInfo = artifactClient.getSpecific(artifact.getId());
+                return new PncArtifact(new PncArtifact.Id(artifact.getId()), parseIdentifier(artifact.getIdentifier()), StringUtils.isNotEmpty(artifactInfo.getOriginUrl()));
+            });
         } catch (RemoteResourceException e) {
-            throw new RuntimeException(e);
+            throw new PncException(e);
         }
     }
 
-    private static ArtifactCoordinate parseIdentifier(String identifier) {
+    static ArtifactCoordinate parseIdentifier(String identifier) {
         final var parts = identifier.split(":");
         if (parts.length < 4 || parts.length > 5) {
             throw new RuntimeException("Unable to parse identifier " + identifier);
@@ -59,38 +116,149 @@ public class PncManagerImpl implements PncManager {
     @Override
     public PncBuild getBuildIdContainingArtifact(PncArtifact.Id artifact) {
         final String buildId;
-        try (var artifactClient = new ArtifactClient(configuration)) {
-            final var artifactInfo = artifactClient.getSpecific(artifact.getId());
+        try {
+            final var artifactInfo = artifactClients.execute(artifactClient -> artifactClient.getSpecific(artifact.getId()));
             if (artifactInfo.getBuild() == null) {
                 return null;
             }
 
             buildId = artifactInfo.getBuild().getId();
         } catch (RemoteResourceException e) {
-            throw new RuntimeException(e);
+            throw new PncException(e);
         }
 
-        try (var buildClient = new BuildClient(configuration)) {
-            var brewComponent = buildClient.getSpecific(buildId).getAttributes().get("BREW_BUILD_NAME");
+        return getBuild(buildId);
+    }
+
+    @Override
+    public PncResolution resolve(ArtifactCoordinate coordinate) {
+        try {
+            // the filtered artifact list doesn't include the origin and the build, so the artifact needs to be fetched,
+            // but only once for both
+            final Artifact artifact = singleResultArtifactClients.execute(artifactClient -> {
+                final var allFiltered = artifactClient.getAllFiltered(coordinate.getGroupId() + ":" + coordinate.getArtifactId() + ":*:" + coordinate.getVersion(),
+                        null, null, null);
 
-            return new PncBuild(new PncBuild.Id(buildId), new PncComponent(brewComponent));
+                final Iterator<ArtifactInfo> iterator = allFiltered.iterator();
+                if (!iterator.hasNext()) {
+                    return null;
+                }
+                return artifactClient.getSpecific(iterator.next().getId());
+            });
+
+            return toResolution(coordinate, artifact, this::getBuild);
         } catch (RemoteResourceException e) {
-            throw new RuntimeException(e);
+            throw new PncException(e);
         }
     }
 
+    /**
+     * Looks up the artifacts with RSQL queries matching up to {@link #MAX_QUERY_BATCH} identifiers each. Unlike the
+     * filtered list used by {@link #resolve(ArtifactCoordinate)}, the query results include the origin and the build,
+     * so the only other requests are made to find Brew names of the builds.
+     */
     @Override
-    public List<PncArtifact> getArtifactsInBuild(PncBuild.Id buildId) {
-        try (var buildClient = new BuildClient(configuration)) {
-            final var artifactList = buildClient.getBuiltArtifacts(buildId.getId());
+    public List<PncResolution> resolveAll(List<ArtifactCoordinate> coordinates) {
+        final List<PncResolution> resolutions = new ArrayList<>(coordinates.size());
+        for (int i = 0; i < coordinates.size(); i += MAX_QUERY_BATCH) {
+            resolutions.addAll(resolveBatch(coordinates.subList(i, Math.min(i + MAX_QUERY_BATCH, coordinates.size()))));
+        }
+        return resolutions;
+    }
+
+    List<PncResolution> resolveBatch(List<ArtifactCoordinate> coordinates) {
+        final String query = artifactQuery(coordinates);
+
+        try {
+            final Map<String, Artifact> artifactsByGav = artifactClients.execute(artifactClient -> {
+                final Map<String, Artifact> found = new HashMap<>();
+                for (Artifact artifact : artifactClient.getAll(null, null, null, Optional.empty(), Optional.of(query))) {
+                    // the first matching artifact wins, same as with a single lookup
+                    found.putIfAbsent(toGav(parseIdentifier(artifact.getIdentifier())), artifact);
+                }
+                return found;
+            });
 
-            final var results = new ArrayList<PncArtifact>();
-            for (Artifact artifact : artifactList) {
-                results.add(new PncArtifact(new PncArtifact.Id(artifact.getId()), parseIdentifier(artifact.getIdentifier()), false));
+            final Map<String, PncBuild> builds = new HashMap<>();
+            final List<PncResolution> resolutions = new ArrayList<>(coordinates.size());
+            for (ArtifactCoordinate coordinate : coordinates) {
+                resolutions.add(toResolution(coordinate, artifactsByGav.get(toGav(coordinate)),
+                        buildId -> builds.computeIfAbsent(buildId, this::getBuild)));
             }
-            return results;
+            return resolutions;
+        } catch (RemoteResourceException e) {
+            throw new PncException(e);
+        }
+    }
+
+    /**
+     * @return RSQL query matching the artifacts of the {@code coordinates} with any extension and classifier. Each GAV
+     * is matched once, the results are mapped back to all the coordinates sharing it.
+     */
+    static String artifactQuery(List<ArtifactCoordinate> coordinates) {
+        return coordinates.stream()
+                .map(c -> "identifier=like=\"" + c.getGroupId() + ":" + c.getArtifactId() + ":%:" + c.getVersion() + "\"")
+                .distinct()
+                .collect(Collectors.joining(","));
+    }
+
+    private static PncResolution toResolution(ArtifactCoordinate coordinate, Artifact artifact, Function<String, PncBuild> buildLookup) {
+        if (artifact == null) {
+            return PncResolution.missing(coordinate);
+        }
+
+        final boolean imported = StringUtils.isNotEmpty(artifact.getOriginUrl());
+        final PncArtifact pncArtifact = new PncArtifact(new PncArtifact.Id(artifact.getId()), parseIdentifier(artifact.getIdentifier()), imported);
+        if (imported) {
+            return PncResolution.imported(coordinate, pncArtifact);
+        }
+        if (artifact.getBuild() == null) {
+            return PncResolution.ungrouped(coordinate, pncArtifact);
+        }
+        return PncResolution.built(coordinate, pncArtifact, buildLookup.apply(artifact.getBuild().getId()));
+    }
+
+    private static String toGav(ArtifactCoordinate coordinate) {
+        return coordinate.getGroupId() + ":" + coordinate.getArtifactId() + ":" + coordinate.getVersion();
+    }
+
+    private PncBuild getBuild(String buildId) {
+        try {
+            final var build = buildClients.execute(buildClient -> buildClient.getSpecific(buildId));
+            var brewComponent = build.getAttributes().get("BREW_BUILD_NAME");
+
+            return new PncBuild(new PncBuild.Id(buildId), new PncComponent(brewComponent), build.getStatus() != null && build.getStatus().isFinal());
         } catch (RemoteResourceException e) {
-            throw new RuntimeException(e);
+            throw new PncException(e);
         }
     }
+
+    /**
+     * The {@code RemoteCollection} of the PNC REST client fetches the pages one after another, when the previous one
+     * is consumed. Unlike {@link HttpAsyncPncManager}, the next page is not requested in advance.
+     */
+    @Override
+    public List<PncArtifact> getArtifactsInBuild(PncBuild.Id buildId) {
+        try {
+            return buildClients.execute(buildClient -> {
+                final var artifactList = buildClient.getBuiltArtifacts(buildId.getId());
+
+                // the pages are fetched lazily while iterating, the size is known from the first one
+                final var results = new ArrayList<PncArtifact>(artifactList.size());
+                for (Artifact artifact : artifactList) {
+                    results.add(new PncArtifact(new PncArtifact.Id(artifact.getId()), parseIdentifier(artifact.getIdentifier()), false));
+                }
+                return results;
+            });
+        } catch (RemoteResourceException e) {
+            throw new PncException(e);
+        }
+    }
+
+    @Override
+    public void close() {
+        artifactClients.close();
+        singleResultArtifactClients.close();
+        buildClients.close();
+    }
 }
@@ -0,0 +1,100 @@
+package org.jboss.set.components.pnc;
+
+import org.wildfly.channel.ArtifactCoordinate;
+
+/**
+ * Everything the verifier needs to know about a manifest stream - the PNC artifact matching the stream,
+ * and the build (and Brew component) that produced it.
+ */
+public class PncResolution {
+
+    public enum Status {
+        /**
+         * No artifact matching the coordinate exists in PNC
+         */
+        MISSING,
+        /**
+         * The artifact was imported into PNC, not built by it
+         */
+        IMPORTED,
+        /**
+         * The artifact is not associated with any build
+         */
+        UNGROUPED,
+        BUILT
+    }
+
+    private final Status status;
+    private final ArtifactCoordinate coordinate;
+    private final PncArtifact artifact;
+    private final PncBuild build;
+
+    private PncResolution(Status status, ArtifactCoordinate coordinate, PncArtifact artifact, PncBuild build) {
+        this.status = status;
+        this.coordinate = coordinate;
+        this.artifact = artifact;
+        this.build = build;
+    }
+
+    public static PncResolution missing(ArtifactCoordinate coordinate) {
+        return new PncResolution(Status.MISSING, coordinate, null, null);
+    }
+
+    public static PncResolution imported(ArtifactCoordinate coordinate, PncArtifact artifact) {
+        return new PncResolution(Status.IMPORTED, coordinate, artifact, null);
+    }
+
+    public static PncResolution ungrouped(ArtifactCoordinate coordinate, PncArtifact artifact) {
+        return new PncResolution(Status.UNGROUPED, coordinate, artifact, null);
+    }
+
+    public static PncResolution built(ArtifactCoordinate coordinate, PncArtifact artifact, PncBuild build) {
+        return new PncResolution(Status.BUILT, coordinate, artifact, build);
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    /**
+     * @return the coordinate that was resolved
+     */
+    public ArtifactCoordinate getCoordinate() {
+        return coordinate;
+    }
+
+    /**
+     * @return the matching PNC artifact or {@code null} if the artifact is {@link Status#MISSING}
+     */
+    public PncArtifact getArtifact() {
+        return artifact;
+    }
+
+    public boolean isImported() {
+        return status == Status.IMPORTED;
+    }
+
+    /**
+     * @return the build that produced the artifact or {@code null} if the artifact was not {@link Status#BUILT}
+     */
+    public PncBuild getBuild() {
+        return build;
+    }
+
+    /**
+     * @return the Brew component of the build or {@code null} if the artifact was not {@link Status#BUILT}
+     */
+    public PncComponent getComponent() {
+        return build == null ? null : build.getBrewComponent();
+    }
+
+    @Override
+    public String toString() {
+        return "PncResolution{" +
+                "status=" + status +
+                ", coordinate=" + coordinate +
+                ", artifact=" + artifact +
+                ", build=" + build +
+                '}';
+    }
+}
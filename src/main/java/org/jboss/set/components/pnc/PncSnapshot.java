@@ -0,0 +1,118 @@
+package org.jboss.set.components.pnc;
+
+import org.wildfly.channel.ArtifactCoordinate;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Answers given by PNC during a verification, including the negative ones (missing artifacts, artifacts without builds).
+ * Recorded by {@link RecordingPncManager} and replayed by {@link SnapshotPncManager}.
+ */
+public class PncSnapshot {
+
+    // "PNCS"
+    private static final int MAGIC = 0x504E4353;
+    static final int VERSION = 2;
+
+    final Map<String, Optional<PncArtifact>> artifacts = new ConcurrentHashMap<>();
+    final Map<PncArtifact.Id, Optional<PncBuild>> builds = new ConcurrentHashMap<>();
+    final Map<PncBuild.Id, List<PncArtifact>> builtArtifacts = new ConcurrentHashMap<>();
+    final Map<String, PncResolution> resolutions = new ConcurrentHashMap<>();
+
+    public static PncSnapshot read(Path file) throws IOException {
+        final PncSnapshot snapshot = new PncSnapshot();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not a PNC snapshot: " + file);
+            }
+            final int version = in.readInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported version " + version + " of PNC snapshot " + file);
+            }
+
+            final int artifactCount = PncDataCodec.readCount(in);
+            for (int i = 0; i < artifactCount; i++) {
+                final String gav = in.readUTF();
+                snapshot.artifacts.put(gav, in.readBoolean() ? Optional.of(PncDataCodec.readArtifact(in)) : Optional.empty());
+            }
+
+            final int buildCount = PncDataCodec.readCount(in);
+            for (int i = 0; i < buildCount; i++) {
+                final PncArtifact.Id artifactId = new PncArtifact.Id(in.readUTF());
+                snapshot.builds.put(artifactId, in.readBoolean() ? Optional.of(PncDataCodec.readBuild(in)) : Optional.empty());
+            }
+
+            final int builtArtifactsCount = PncDataCodec.readCount(in);
+            for (int i = 0; i < builtArtifactsCount; i++) {
+                final PncBuild.Id buildId = new PncBuild.Id(in.readUTF());
+                final int size = PncDataCodec.readCount(in);
+                final List<PncArtifact> artifacts = PncDataCodec.newList(size);
+                for (int j = 0; j < size; j++) {
+                    artifacts.add(PncDataCodec.readArtifact(in));
+                }
+                snapshot.builtArtifacts.put(buildId, artifacts);
+            }
+
+            final int resolutionCount = PncDataCodec.readCount(in);
+            for (int i = 0; i < resolutionCount; i++) {
+                final String gav = in.readUTF();
+                snapshot.resolutions.put(gav, PncDataCodec.readResolution(in));
+            }
+        }
+        return snapshot;
+    }
+
+    public void write(Path file) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+
+            out.writeInt(artifacts.size());
+            for (Map.Entry<String, Optional<PncArtifact>> entry : artifacts.entrySet()) {
+                out.writeUTF(entry.getKey());
+                out.writeBoolean(entry.getValue().isPresent());
+                if (entry.getValue().isPresent()) {
+                    PncDataCodec.writeArtifact(out, entry.getValue().get());
+                }
+            }
+
+            out.writeInt(builds.size());
+            for (Map.Entry<PncArtifact.Id, Optional<PncBuild>> entry : builds.entrySet()) {
+                out.writeUTF(entry.getKey().getId());
+                out.writeBoolean(entry.getValue().isPresent());
+                if (entry.getValue().isPresent()) {
+                    PncDataCodec.writeBuild(out, entry.getValue().get());
+                }
+            }
+
+            out.writeInt(builtArtifacts.size());
+            for (Map.Entry<PncBuild.Id, List<PncArtifact>> entry : builtArtifacts.entrySet()) {
+                out.writeUTF(entry.getKey().getId());
+                out.writeInt(entry.getValue().size());
+                for (PncArtifact artifact : entry.getValue()) {
+                    PncDataCodec.writeArtifact(out, artifact);
+                }
+            }
+
+            out.writeInt(resolutions.size());
+            for (Map.Entry<String, PncResolution> entry : resolutions.entrySet()) {
+                out.writeUTF(entry.getKey());
+                PncDataCodec.writeResolution(out, entry.getValue());
+            }
+        }
+    }
+
+    static String toGav(ArtifactCoordinate coordinate) {
+        return coordinate.getGroupId() + ":" + coordinate.getArtifactId() + ":" + coordinate.getVersion();
+    }
+}
@@ -0,0 +1,47 @@
+package org.jboss.set.components.pnc;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rate limits of the PNC resources the clients send their requests to. Each resource has its own
+ * {@link TokenBucket}, and a call is charged to the bucket of each resource it requests.
+ */
+class RateLimits {
+
+    private final TokenBucket artifacts;
+    private final TokenBucket builds;
+
+    /**
+     * @param requestsPerSecond - maximum rate of requests to each resource, or 0 for no limit
+     */
+    RateLimits(double requestsPerSecond) {
+        this.artifacts = requestsPerSecond > 0 ? new TokenBucket(requestsPerSecond) : null;
+        this.builds = requestsPerSecond > 0 ? new TokenBucket(requestsPerSecond) : null;
+    }
+
+    /**
+     * @param artifactRequests - number of requests the caller is about to send to the {@code /artifacts} resource
+     * @param buildRequests - number of requests the caller is about to send to the {@code /builds} resource
+     */
+    void acquire(int artifactRequests, int buildRequests) throws InterruptedException {
+        final long waitNanos = reserve(artifactRequests, buildRequests);
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+    /**
+     * Reserves the tokens of both resources without waiting for them, for the callers that can't block.
+     *
+     * @return nanoseconds the caller has to wait before sending the requests
+     */
+    long reserve(int artifactRequests, int buildRequests) {
+        if (artifacts == null) {
+            return 0;
+        }
+        // the call waits until the requests to both resources fit in their limits
+        final long artifactWait = artifactRequests > 0 ? artifacts.reserve(artifactRequests) : 0;
+        final long buildWait = buildRequests > 0 ? builds.reserve(buildRequests) : 0;
+        return Math.max(artifactWait, buildWait);
+    }
+}
@@ -0,0 +1,73 @@
+package org.jboss.set.components.pnc;
+
+import org.wildfly.channel.ArtifactCoordinate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Records every answer of the delegate and writes them into a {@link PncSnapshot} file on {@link #close()}.
+ * The snapshot can be used to repeat the verification without access to PNC, see {@link SnapshotPncManager}.
+ */
+public class RecordingPncManager implements PncManager {
+
+    private final PncManager delegate;
+    private final Path snapshotFile;
+    private final PncSnapshot snapshot = new PncSnapshot();
+
+    public RecordingPncManager(PncManager delegate, Path snapshotFile) {
+        this.delegate = delegate;
+        this.snapshotFile = snapshotFile;
+    }
+
+    @Override
+    public PncArtifact getArtifact(ArtifactCoordinate coordinate) {
+        final PncArtifact artifact = delegate.getArtifact(coordinate);
+        snapshot.artifacts.put(PncSnapshot.toGav(coordinate), Optional.ofNullable(artifact));
+        return artifact;
+    }
+
+    @Override
+    public PncBuild getBuildIdContainingArtifact(PncArtifact.Id artifactId) {
+        final PncBuild build = delegate.getBuildIdContainingArtifact(artifactId);
+        snapshot.builds.put(artifactId, Optional.ofNullable(build));
+        return build;
+    }
+
+    @Override
+    public List<PncArtifact> getArtifactsInBuild(PncBuild.Id buildId) {
+        final List<PncArtifact> artifacts = delegate.getArtifactsInBuild(buildId);
+        snapshot.builtArtifacts.put(buildId, artifacts);
+        return artifacts;
+    }
+
+    @Override
+    public PncResolution resolve(ArtifactCoordinate coordinate) {
+        final PncResolution resolution = delegate.resolve(coordinate);
+        snapshot.resolutions.put(PncSnapshot.toGav(coordinate), resolution);
+        return resolution;
+    }
+
+    @Override
+    public List<PncResolution> resolveAll(List<ArtifactCoordinate> coordinates) {
+        final List<PncResolution> resolutions = delegate.resolveAll(coordinates);
+        for (PncResolution resolution : resolutions) {
+            snapshot.resolutions.put(PncSnapshot.toGav(resolution.getCoordinate()), resolution);
+        }
+        return resolutions;
+    }
+
+    @Override
+    public void close() {
+        try {
+            snapshot.write(snapshotFile);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to write PNC snapshot to " + snapshotFile, e);
+        } finally {
+            delegate.close();
+        }
+    }
+}
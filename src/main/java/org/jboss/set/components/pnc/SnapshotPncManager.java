@@ -0,0 +1,93 @@
+package org.jboss.set.components.pnc;
+
+import org.wildfly.channel.ArtifactCoordinate;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Answers the lookups from a {@link PncSnapshot} recorded by {@link RecordingPncManager}, without any network access.
+ * <p>
+ * Lookups that were not recorded fail with a {@link PncException}.
+ */
+public class SnapshotPncManager implements PncManager {
+
+    private final PncSnapshot snapshot;
+    // artifacts of the recorded builds - the streams resolved as part of a build during recording,
+    // might need to be resolved one by one during the replay
+    private final Map<String, PncResolution> builtArtifacts = new HashMap<>();
+
+    public SnapshotPncManager(PncSnapshot snapshot) {
+        this.snapshot = snapshot;
+
+        final Map<PncBuild.Id, PncBuild> builds = new HashMap<>();
+        snapshot.builds.values().forEach(b -> b.ifPresent(build -> builds.put(build.getId(), build)));
+        snapshot.resolutions.values().stream()
+                .filter(r -> r.getBuild() != null)
+                .forEach(r -> builds.put(r.getBuild().getId(), r.getBuild()));
+
+        for (Map.Entry<PncBuild.Id, List<PncArtifact>> entry : snapshot.builtArtifacts.entrySet()) {
+            final PncBuild build = builds.get(entry.getKey());
+            if (build != null) {
+                for (PncArtifact artifact : entry.getValue()) {
+                    builtArtifacts.putIfAbsent(PncSnapshot.toGav(artifact.getCoordinate()),
+                            PncResolution.built(artifact.getCoordinate(), artifact, build));
+                }
+            }
+        }
+    }
+
+    public static SnapshotPncManager load(Path snapshotFile) throws IOException {
+        return new SnapshotPncManager(PncSnapshot.read(snapshotFile));
+    }
+
+    @Override
+    public PncArtifact getArtifact(ArtifactCoordinate coordinate) {
+        return recorded(snapshot.artifacts.get(PncSnapshot.toGav(coordinate)), coordinate).orElse(null);
+    }
+
+    @Override
+    public PncBuild getBuildIdContainingArtifact(PncArtifact.Id artifactId) {
+        return recorded(snapshot.builds.get(artifactId), artifactId).orElse(null);
+    }
+
+    @Override
+    public List<PncArtifact> getArtifactsInBuild(PncBuild.Id buildId) {
+        return recorded(snapshot.builtArtifacts.get(buildId), buildId);
+    }
+
+    @Override
+    public PncResolution resolve(ArtifactCoordinate coordinate) {
+        final String gav = PncSnapshot.toGav(coordinate);
+        PncResolution resolution = snapshot.resolutions.get(gav);
+        if (resolution == null) {
+            resolution = builtArtifacts.get(gav);
+        }
+        if (resolution != null) {
+            // the recorded resolution might have been requested with a different coordinate
+            switch (resolution.getStatus()) {
+                case MISSING:
+                    return PncResolution.missing(coordinate);
+                case IMPORTED:
+                    return PncResolution.imported(coordinate, resolution.getArtifact());
+                case UNGROUPED:
+                    return PncResolution.ungrouped(coordinate, resolution.getArtifact());
+                default:
+                    return PncResolution.built(coordinate, resolution.getArtifact(), resolution.getBuild());
+            }
+        }
+        // the snapshot might have been recorded with the single lookups
+        return PncManager.super.resolve(coordinate);
+    }
+
+    private static <T> T recorded(T value, Object key) {
+        if (value == null) {
+            throw new PncException("The PNC snapshot doesn't contain " + key, PncException.UNKNOWN_STATUS, null);
+        }
+        return value;
+    }
+}
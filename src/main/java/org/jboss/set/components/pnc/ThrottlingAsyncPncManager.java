@@ -0,0 +1,140 @@
+package org.jboss.set.components.pnc;
+
+import org.jboss.set.components.metrics.MetricsRegistry;
+import org.wildfly.channel.ArtifactCoordinate;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Non-blocking counterpart of {@link ThrottlingPncManager}, applying the same concurrency limit, rate limits, charges
+ * and retries. Instead of blocking a thread, the calls waiting for a permit, a token or a retry are scheduled on
+ * futures.
+ */
+public class ThrottlingAsyncPncManager implements AsyncPncManager {
+
+    private final AsyncPncManager delegate;
+    private final AdaptiveLimiter limiter;
+    private final int maxRetries;
+    private final RateLimits rateLimits;
+    private final MetricsRegistry metrics;
+
+    /**
+     * @param maxConcurrency - upper bound of the concurrent requests
+     * @param requestsPerSecond - maximum rate of requests to each PNC resource, or 0 for no limit
+     * @param maxRetries - number of times a failed request is retried
+     */
+    public ThrottlingAsyncPncManager(AsyncPncManager delegate, int maxConcurrency, double requestsPerSecond, int maxRetries) {
+        this(delegate, maxConcurrency, requestsPerSecond, maxRetries, new MetricsRegistry());
+    }
+
+    /**
+     * @param metrics - registry counting the retried requests of each method
+     */
+    public ThrottlingAsyncPncManager(AsyncPncManager delegate, int maxConcurrency, double requestsPerSecond, int maxRetries, MetricsRegistry metrics) {
+        this.delegate = delegate;
+        this.metrics = metrics;
+        this.limiter = new AdaptiveLimiter(1, maxConcurrency);
+        this.rateLimits = new RateLimits(requestsPerSecond);
+        this.maxRetries = maxRetries;
+    }
+
+    @Override
+    public CompletableFuture<PncArtifact> getArtifact(ArtifactCoordinate coordinate) {
+        // the filtered lookup and the artifact details
+        return call("artifact", 2, 0, () -> delegate.getArtifact(coordinate));
+    }
+
+    @Override
+    public CompletableFuture<PncBuild> getBuildIdContainingArtifact(PncArtifact.Id artifactId) {
+        // the artifact details and the build
+        return call("artifact-build", 1, 1, () -> delegate.getBuildIdContainingArtifact(artifactId));
+    }
+
+    @Override
+    public CompletableFuture<List<PncArtifact>> getArtifactsInBuild(PncBuild.Id buildId) {
+        return call("built-artifacts", 0, 1, () -> delegate.getArtifactsInBuild(buildId));
+    }
+
+    @Override
+    public CompletableFuture<PncResolution> resolve(ArtifactCoordinate coordinate) {
+        // the filtered lookup, the artifact details and the build
+        return call("resolve", 2, 1, () -> delegate.resolve(coordinate));
+    }
+
+    @Override
+    public CompletableFuture<List<PncResolution>> resolveAll(List<ArtifactCoordinate> coordinates) {
+        // a query per batch of coordinates
+        final int queries = (coordinates.size() + PncManagerImpl.MAX_QUERY_BATCH - 1) / PncManagerImpl.MAX_QUERY_BATCH;
+        return call("resolve-all", Math.max(1, queries), 0, () -> delegate.resolveAll(coordinates));
+    }
+
+    /**
+     * @return current limit of the concurrent requests
+     */
+    public int getConcurrencyLimit() {
+        return limiter.getLimit();
+    }
+
+    @Override
+    public void close() {
+        delegate.close();
+    }
+
+    private <T> CompletableFuture<T> call(String endpoint, int artifactRequests, int buildRequests, Supplier<CompletableFuture<T>> request) {
+        final CompletableFuture<T> result = new CompletableFuture<>();
+        attempt(endpoint, artifactRequests, buildRequests, request, 0, result);
+        return result;
+    }
+
+    private <T> void attempt(String endpoint, int artifactRequests, int buildRequests, Supplier<CompletableFuture<T>> request,
+                             int attempt, CompletableFuture<T> result) {
+        final long waitNanos = rateLimits.reserve(artifactRequests, buildRequests);
+        final CompletableFuture<Void> token = waitNanos > 0 ?
+                CompletableFuture.runAsync(() -> { }, CompletableFuture.delayedExecutor(waitNanos, TimeUnit.NANOSECONDS)) :
+                CompletableFuture.completedFuture(null);
+
+        token.thenCompose(ignored -> limiter.acquireAsync()).thenRun(() -> {
+            if (result.isDone()) {
+                // cancelled by the caller while waiting
+                limiter.onIgnore();
+                return;
+            }
+
+            final long start = System.nanoTime();
+            CompletableFuture<T> response;
+            try {
+                response = request.get();
+            } catch (RuntimeException e) {
+                response = CompletableFuture.failedFuture(e);
+            }
+            response.whenComplete((value, failure) -> {
+                if (failure == null) {
+                    limiter.onSuccess(endpoint, System.nanoTime() - start);
+                    result.complete(value);
+                    return;
+                }
+
+                final Throwable cause = failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure;
+                if (!PncException.isRetryable(cause)) {
+                    limiter.onIgnore();
+                    result.completeExceptionally(cause);
+                    return;
+                }
+
+                limiter.onOverload(endpoint);
+                if (attempt >= maxRetries) {
+                    result.completeExceptionally(cause);
+                    return;
+                }
+                metrics.counter(ThrottlingPncManager.RETRIES, "method", endpoint).increment();
+                final long delay = ThrottlingPncManager.backoffMillis(attempt);
+                CompletableFuture.delayedExecutor(delay, TimeUnit.MILLISECONDS)
+                        .execute(() -> attempt(endpoint, artifactRequests, buildRequests, request, attempt + 1, result));
+            });
+        });
+    }
+}
@@ -0,0 +1,153 @@
+package org.jboss.set.components.pnc;
+
+import org.jboss.set.components.metrics.MetricsRegistry;
+import org.wildfly.channel.ArtifactCoordinate;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Protects PNC from being overloaded by the verifier.
+ * <ul>
+ *     <li>the number of concurrent requests is adjusted based on the observed latency and errors,</li>
+ *     <li>each PNC resource, the artifacts and the builds, can be limited to a number of requests per second,</li>
+ *     <li>the calls are charged by the HTTP requests {@link PncManagerImpl} sends for them to each resource, e.g.
+ *     a {@link #resolve(ArtifactCoordinate)} by two artifact requests and one build request. The extra pages of
+ *     a build listing and the builds looked up by a {@link #resolveAll(List)} are not known in advance and are not
+ *     charged.</li>
+ *     <li>transient failures (see {@link PncException#isRetryable(Throwable)}) are retried with an exponential,
+ *     jittered backoff. The retries are counted by the {@link #RETRIES} metric.</li>
+ * </ul>
+ */
+public class ThrottlingPncManager implements PncManager {
+
+    public static final int DEFAULT_MAX_RETRIES = 3;
+    public static final String RETRIES = "pnc.retries";
+    private static final long INITIAL_BACKOFF_MILLIS = 500;
+    private static final long MAX_BACKOFF_MILLIS = 30_000;
+
+    private final PncManager delegate;
+    private final AdaptiveLimiter limiter;
+    private final int maxRetries;
+    private final RateLimits rateLimits;
+    private final MetricsRegistry metrics;
+
+    /**
+     * @param maxConcurrency - upper bound of the concurrent requests
+     * @param requestsPerSecond - maximum rate of requests to each PNC resource, or 0 for no limit
+     * @param maxRetries - number of times a failed request is retried
+     */
+    public ThrottlingPncManager(PncManager delegate, int maxConcurrency, double requestsPerSecond, int maxRetries) {
+        this(delegate, maxConcurrency, requestsPerSecond, maxRetries, new MetricsRegistry());
+    }
+
+    /**
+     * @param metrics - registry counting the retried requests of each method
+     */
+    public ThrottlingPncManager(PncManager delegate, int maxConcurrency, double requestsPerSecond, int maxRetries, MetricsRegistry metrics) {
+        this.delegate = delegate;
+        this.metrics = metrics;
+        this.limiter = new AdaptiveLimiter(1, maxConcurrency);
+        this.rateLimits = new RateLimits(requestsPerSecond);
+        this.maxRetries = maxRetries;
+    }
+
+    @Override
+    public PncArtifact getArtifact(ArtifactCoordinate coordinate) {
+        // the filtered lookup and the artifact details
+        return call("artifact", 2, 0, () -> delegate.getArtifact(coordinate));
+    }
+
+    @Override
+    public PncBuild getBuildIdContainingArtifact(PncArtifact.Id artifactId) {
+        // the artifact details and the build
+        return call("artifact-build", 1, 1, () -> delegate.getBuildIdContainingArtifact(artifactId));
+    }
+
+    @Override
+    public List<PncArtifact> getArtifactsInBuild(PncBuild.Id buildId) {
+        return call("built-artifacts", 0, 1, () -> delegate.getArtifactsInBuild(buildId));
+    }
+
+    @Override
+    public PncResolution resolve(ArtifactCoordinate coordinate) {
+        // the filtered lookup, the artifact details and the build
+        return call("resolve", 2, 1, () -> delegate.resolve(coordinate));
+    }
+
+    @Override
+    public List<PncResolution> resolveAll(List<ArtifactCoordinate> coordinates) {
+        // a query per batch of coordinates
+        final int queries = (coordinates.size() + PncManagerImpl.MAX_QUERY_BATCH - 1) / PncManagerImpl.MAX_QUERY_BATCH;
+        return call("resolve-all", Math.max(1, queries), 0, () -> delegate.resolveAll(coordinates));
+    }
+
+    /**
+     * @return current limit of the concurrent requests
+     */
+    public int getConcurrencyLimit() {
+        return limiter.getLimit();
+    }
+
+    @Override
+    public void close() {
+        delegate.close();
+    }
+
+    /**
+     * @param endpoint - the method called, the latency of each is tracked separately by the limiter
+     * @param artifactRequests - number of requests the call sends to the {@code /artifacts} resource
+     * @param buildRequests - number of requests the call sends to the {@code /builds} resource
+     */
+    private <T> T call(String endpoint, int artifactRequests, int buildRequests, Supplier<T> request) {
+        for (int attempt = 0; ; attempt++) {
+            try {
+                rateLimits.acquire(artifactRequests, buildRequests);
+                limiter.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new PncException("Interrupted while waiting to call PNC", PncException.UNKNOWN_STATUS, e);
+            }
+
+            final long start = System.nanoTime();
+            try {
+                final T result = request.get();
+                limiter.onSuccess(endpoint, System.nanoTime() - start);
+                return result;
+            } catch (RuntimeException e) {
+                if (!PncException.isRetryable(e)) {
+                    limiter.onIgnore();
+                    throw e;
+                }
+
+                limiter.onOverload(endpoint);
+                if (attempt >= maxRetries) {
+                    throw e;
+                }
+                metrics.counter(RETRIES, "method", endpoint).increment();
+                backoff(attempt, e);
+            }
+        }
+    }
+
+    private static void backoff(int attempt, RuntimeException failure) {
+        final long delay = backoffMillis(attempt);
+        try {
+            TimeUnit.MILLISECONDS.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw failure;
+        }
+    }
+
+    /**
+     * @return milliseconds to wait before the retry of the failed {@code attempt}
+     */
+    static long backoffMillis(int attempt) {
+        final long delay = Math.min(MAX_BACKOFF_MILLIS, INITIAL_BACKOFF_MILLIS << attempt);
+        // pick a random delay between half and the whole backoff, so that the retries of concurrent requests don't arrive together
+        return delay / 2 + ThreadLocalRandom.current().nextLong(delay / 2 + 1);
+    }
+}
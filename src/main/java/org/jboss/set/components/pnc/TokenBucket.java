@@ -0,0 +1,44 @@
+package org.jboss.set.components.pnc;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rate limiter allowing {@code ratePerSecond} requests per second on average, with bursts of up to the same number.
+ * <p>
+ * The lock is only held to reserve the tokens, the callers wait for them outside of it.
+ */
+class TokenBucket {
+
+    private final double ratePerSecond;
+    private final double capacity;
+
+    // guarded by this
+    private double tokens;
+    private long lastRefill;
+
+    TokenBucket(double ratePerSecond) {
+        if (ratePerSecond <= 0) {
+            throw new IllegalArgumentException("Rate has to be a positive number, was " + ratePerSecond);
+        }
+        this.ratePerSecond = ratePerSecond;
+        this.capacity = Math.max(1, ratePerSecond);
+        this.tokens = capacity;
+        this.lastRefill = System.nanoTime();
+    }
+
+    /**
+     * Reserves the tokens without waiting for them.
+     *
+     * @param requests - number of requests the caller is about to send
+     * @return nanoseconds the caller has to wait before sending the requests
+     */
+    synchronized long reserve(int requests) {
+        final long now = System.nanoTime();
+        tokens = Math.min(capacity, tokens + (now - lastRefill) * ratePerSecond / TimeUnit.SECONDS.toNanos(1));
+        lastRefill = now;
+
+        // reserve the token even if it's not available yet, the following callers will queue behind us
+        tokens -= requests;
+        return tokens >= 0 ? 0 : (long) (-tokens * TimeUnit.SECONDS.toNanos(1) / ratePerSecond);
+    }
+}
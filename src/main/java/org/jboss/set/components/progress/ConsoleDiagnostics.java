@@ -0,0 +1,44 @@
+package org.jboss.set.components.progress;
+
+import org.jboss.set.components.VerificationListener;
+import org.jboss.set.components.pnc.PncBuild;
+import org.jboss.set.components.pnc.PncException;
+import org.wildfly.channel.ArtifactCoordinate;
+
+import java.io.PrintStream;
+
+/**
+ * Prints the problems of a running verification, e.g. the streams that could not be resolved, as soon as they
+ * happen. The findings themselves are left to the report.
+ */
+public class ConsoleDiagnostics implements VerificationListener {
+
+    private final PrintStream out;
+    private final boolean verbose;
+
+    /**
+     * @param verbose - also prints how the verification proceeds, not only the problems
+     */
+    public ConsoleDiagnostics(PrintStream out, boolean verbose) {
+        this.out = out;
+        this.verbose = verbose;
+    }
+
+    @Override
+    public void baselineReused(int reusedStreams, int changedStreams) {
+        if (verbose) {
+            out.printf("Re-using %d streams resolved in the baseline, resolving %d changed streams%n", reusedStreams, changedStreams);
+        }
+    }
+
+    @Override
+    public void streamFailed(ArtifactCoordinate coordinate, PncException error) {
+        out.printf("[ERROR] Unable to resolve %s:%s:%s: %s%n", coordinate.getGroupId(), coordinate.getArtifactId(),
+                coordinate.getVersion(), error.getMessage());
+    }
+
+    @Override
+    public void buildListingFailed(PncBuild build, PncException error) {
+        out.printf("[WARN] Unable to list artifacts of build %s: %s%n", build.getId().getId(), error.getMessage());
+    }
+}
@@ -0,0 +1,132 @@
+package org.jboss.set.components.progress;
+
+import org.jboss.set.components.ManifestVerifier;
+import org.jboss.set.components.metrics.MetricsRegistry;
+import org.jboss.set.components.pnc.MeteredPncManager;
+
+import java.io.PrintStream;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically prints a one-line summary of a running verification, e.g.
+ * <pre>
+ * Streams: 1200/5000 (24%), 830 cached, 2 failed | 12 PNC requests in flight | 85.3 streams/s, ETA 0:45
+ * </pre>
+ * The numbers are sampled from the {@link MetricsRegistry} counters, so the threads resolving the streams don't
+ * report anything themselves and don't contend on the output.
+ * <p>
+ * On a terminal the line is redrawn in place, otherwise (e.g. in CI logs) a new line is printed only if the progress
+ * changed since the last one.
+ */
+public class ProgressReporter implements AutoCloseable {
+
+    public static final Duration TERMINAL_INTERVAL = Duration.ofSeconds(1);
+    public static final Duration LOG_INTERVAL = Duration.ofSeconds(10);
+
+    private final MetricsRegistry metrics;
+    private final long totalStreams;
+    private final PrintStream out;
+    private final boolean terminal;
+    private final Duration interval;
+    private final long startNanos = System.nanoTime();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        final Thread thread = new Thread(r, "progress-reporter");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // accessed only by the scheduler thread, and by close() after the scheduler is stopped
+    private String lastLine = "";
+    private long lastDone = -1;
+
+    /**
+     * @param totalStreams - number of streams of all the verified manifests
+     * @param terminal - redraws a single line, otherwise prints a new line each time
+     */
+    public ProgressReporter(MetricsRegistry metrics, long totalStreams, PrintStream out, boolean terminal) {
+        this(metrics, totalStreams, out, terminal, terminal ? TERMINAL_INTERVAL : LOG_INTERVAL);
+    }
+
+    public ProgressReporter(MetricsRegistry metrics, long totalStreams, PrintStream out, boolean terminal, Duration interval) {
+        this.metrics = metrics;
+        this.totalStreams = totalStreams;
+        this.out = out;
+        this.terminal = terminal;
+        this.interval = interval;
+    }
+
+    /**
+     * Reports the progress to the console, redrawn in place if the output is a terminal.
+     */
+    public static ProgressReporter toConsole(MetricsRegistry metrics, long totalStreams) {
+        return new ProgressReporter(metrics, totalStreams, System.err, System.console() != null);
+    }
+
+    public ProgressReporter start() {
+        scheduler.scheduleAtFixedRate(this::report, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+        return this;
+    }
+
+    private void report() {
+        final long done = metrics.sum(ManifestVerifier.STREAMS);
+        // the log gets a new line only if some streams were resolved since the last one
+        if (!terminal && done == lastDone) {
+            return;
+        }
+        final String line = render(done);
+        if (line.equals(lastLine)) {
+            return;
+        }
+        if (terminal) {
+            // pad with spaces to clear the rest of a longer previous line
+            out.print("\r" + line + " ".repeat(Math.max(0, lastLine.length() - line.length())));
+            out.flush();
+        } else {
+            out.println(line);
+        }
+        lastLine = line;
+        lastDone = done;
+    }
+
+    String render(long done) {
+        final long failed = metrics.counter(ManifestVerifier.STREAMS, "status", "failed").count();
+        // counted directly, the lookups in flight are not done yet
+        final long cached = metrics.sum(ManifestVerifier.CACHED_STREAMS);
+        final long inFlight = metrics.sum(MeteredPncManager.IN_FLIGHT);
+
+        final double elapsedSeconds = (double) (System.nanoTime() - startNanos) / TimeUnit.SECONDS.toNanos(1);
+        final double rate = elapsedSeconds > 0 ? done / elapsedSeconds : 0;
+
+        final StringBuilder sb = new StringBuilder();
+        sb.append(String.format("Streams: %d/%d", done, totalStreams));
+        if (totalStreams > 0) {
+            sb.append(String.format(" (%d%%)", done * 100 / totalStreams));
+        }
+        sb.append(String.format(", %d cached, %d failed | %d PNC requests in flight | %.1f streams/s", cached, failed, inFlight, rate));
+        if (rate > 0 && done < totalStreams) {
+            final long etaSeconds = (long) Math.ceil((totalStreams - done) / rate);
+            sb.append(String.format(", ETA %d:%02d", etaSeconds / 60, etaSeconds % 60));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Stops the reporting and prints the final progress.
+     */
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+        try {
+            scheduler.awaitTermination(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        report();
+        if (terminal) {
+            out.println();
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package org.jboss.set.components.progress;
+
+import org.jboss.set.components.VerificationListener;
+import org.jboss.set.components.Violation;
+import org.jboss.set.components.pnc.PncException;
+import org.jboss.set.components.pnc.PncResolution;
+import org.wildfly.channel.ArtifactCoordinate;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+
+/**
+ * Writes a line per resolved or failed stream into a file, for debugging a verification:
+ * <pre>
+ * 2024-05-01T10:15:30.123Z BUILT org.foo:bar:1.0.0 build=12345 component=foo-bar
+ * </pre>
+ * The lines are formatted by the resolving threads, only the write into the buffer is serialized.
+ */
+public class StreamTraceWriter implements VerificationListener, Closeable {
+
+    private final Writer writer;
+
+    public StreamTraceWriter(Path file) throws IOException {
+        this.writer = Files.newBufferedWriter(file);
+    }
+
+    @Override
+    public void streamResolved(PncResolution resolution, int resolvedStreams, int totalStreams) {
+        final StringBuilder line = new StringBuilder()
+                .append(Instant.now()).append(' ')
+                .append(resolution.getStatus()).append(' ')
+                .append(toGav(resolution.getCoordinate()));
+        if (resolution.getBuild() != null) {
+            line.append(" build=").append(resolution.getBuild().getId().getId())
+                    .append(" component=").append(resolution.getBuild().getBrewComponent().getName());
+        }
+        write(line.append(System.lineSeparator()).toString());
+    }
+
+    @Override
+    public void streamFailed(ArtifactCoordinate coordinate, PncException error) {
+        write(Instant.now() + " FAILED " + toGav(coordinate) + " error=" + error.getMessage() + System.lineSeparator());
+    }
+
+    @Override
+    public void violationFound(Violation violation) {
+        write(Instant.now() + " VIOLATION component=" + violation.getComponentName() + " versions=" + violation.getArtifactsByVersion().keySet()
+                + System.lineSeparator());
+    }
+
+    private void write(String line) {
+        try {
+            synchronized (writer) {
+                writer.write(line);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to write the stream trace", e);
+        }
+    }
+
+    private static String toGav(ArtifactCoordinate coordinate) {
+        return coordinate.getGroupId() + ":" + coordinate.getArtifactId() + ":" + coordinate.getVersion();
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (writer) {
+            writer.close();
+        }
+    }
+}
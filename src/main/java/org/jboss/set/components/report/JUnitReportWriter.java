@@ -0,0 +1,144 @@
+package org.jboss.set.components.report;
+
+import org.jboss.set.components.VerificationResult;
+import org.jboss.set.components.Violation;
+import org.jboss.set.components.Warning;
+import org.jboss.set.components.pnc.PncResolution;
+import org.wildfly.channel.ArtifactCoordinate;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Streams the results as JUnit XML, so that CI servers can show them as test results. Each manifest is a test suite
+ * with a test case per component built in PNC; the components with more than one version fail. An incomplete
+ * verification is reported as an error of its suite.
+ */
+public class JUnitReportWriter implements ReportWriter {
+
+    private static final XMLOutputFactory XML_OUTPUT_FACTORY = XMLOutputFactory.newFactory();
+
+    private final OutputStream out;
+    private final XMLStreamWriter writer;
+
+    public JUnitReportWriter(OutputStream out) throws IOException {
+        this.out = out;
+        try {
+            this.writer = XML_OUTPUT_FACTORY.createXMLStreamWriter(out, StandardCharsets.UTF_8.name());
+            writer.writeStartDocument(StandardCharsets.UTF_8.name(), "1.0");
+            writer.writeCharacters(System.lineSeparator());
+            writer.writeStartElement("testsuites");
+        } catch (XMLStreamException e) {
+            throw new IOException("Unable to write the JUnit report", e);
+        }
+    }
+
+    @Override
+    public void write(String manifest, VerificationResult result) throws IOException {
+        final Map<String, Violation> violations = new HashMap<>();
+        for (Violation violation : result.getViolations()) {
+            violations.put(violation.getComponentName(), violation);
+        }
+        // the builds without a Brew name are grouped under a null component
+        final TreeSet<String> components = new TreeSet<>(Comparator.nullsFirst(Comparator.naturalOrder()));
+        components.addAll(violations.keySet());
+        for (PncResolution resolution : result.getResolutions()) {
+            if (resolution.getStatus() == PncResolution.Status.BUILT && resolution.getBuild().getBrewComponent().getName() != null) {
+                components.add(resolution.getBuild().getBrewComponent().getName());
+            }
+        }
+
+        try {
+            writer.writeStartElement("testsuite");
+            writer.writeAttribute("name", manifest);
+            writer.writeAttribute("tests", Integer.toString(components.size() + (result.isComplete() ? 0 : 1)));
+            writer.writeAttribute("failures", Integer.toString(violations.size()));
+            writer.writeAttribute("errors", result.isComplete() ? "0" : "1");
+
+            for (String component : components) {
+                writer.writeStartElement("testcase");
+                writer.writeAttribute("classname", manifest);
+                writer.writeAttribute("name", String.valueOf(component));
+                final Violation violation = violations.get(component);
+                if (violation != null) {
+                    writer.writeStartElement("failure");
+                    writer.writeAttribute("message", "Component " + component + " is present in more than one version");
+                    writeViolation(violation);
+                    writer.writeEndElement();
+                }
+                writer.writeEndElement();
+            }
+
+            if (!result.isComplete()) {
+                writer.writeStartElement("testcase");
+                writer.writeAttribute("classname", manifest);
+                writer.writeAttribute("name", "verification");
+                writer.writeStartElement("error");
+                writer.writeAttribute("message", "The verification was stopped before all the streams were checked");
+                writer.writeEndElement();
+                writer.writeEndElement();
+            }
+
+            if (!result.getWarnings().isEmpty()) {
+                writer.writeStartElement("system-err");
+                for (Warning warning : result.getWarnings()) {
+                    writeWarning(warning);
+                }
+                writer.writeEndElement();
+            }
+
+            writer.writeEndElement();
+            writer.flush();
+        } catch (XMLStreamException e) {
+            throw new IOException("Unable to write the JUnit report", e);
+        }
+    }
+
+    /**
+     * Writes the same text as {@link Violation#print()}, an artifact at a time instead of building the whole text first.
+     */
+    private void writeViolation(Violation violation) throws XMLStreamException {
+        writer.writeCharacters("[ERROR] Component " + violation.getComponentName() + " has multiple versions" + System.lineSeparator());
+        for (Map.Entry<String, List<ArtifactCoordinate>> version : violation.getArtifactsByVersion().entrySet()) {
+            writer.writeCharacters("        " + version.getKey() + System.lineSeparator());
+            for (ArtifactCoordinate coordinate : version.getValue()) {
+                writer.writeCharacters("          * " + coordinate.getGroupId() + ":" + coordinate.getArtifactId() + System.lineSeparator());
+            }
+        }
+    }
+
+    /**
+     * Writes the same text as {@link Warning#print()}, an artifact at a time.
+     */
+    private void writeWarning(Warning warning) throws XMLStreamException {
+        writer.writeCharacters(warning.getMessage() + System.lineSeparator());
+        for (ArtifactCoordinate coordinate : warning.getArtifactCoordinates()) {
+            writer.writeCharacters("          * " + coordinate.getGroupId() + ":" + coordinate.getArtifactId() + ":" + coordinate.getVersion()
+                    + System.lineSeparator());
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            writer.writeEndElement();
+            writer.writeEndDocument();
+            writer.writeCharacters(System.lineSeparator());
+            writer.close();
+        } catch (XMLStreamException e) {
+            throw new IOException("Unable to write the JUnit report", e);
+        } finally {
+            // XMLStreamWriter doesn't close the underlying stream
+            out.close();
+        }
+    }
+}
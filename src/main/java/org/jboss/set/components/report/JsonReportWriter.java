@@ -0,0 +1,105 @@
+package org.jboss.set.components.report;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.jboss.set.components.VerificationResult;
+import org.jboss.set.components.Violation;
+import org.jboss.set.components.Warning;
+import org.wildfly.channel.ArtifactCoordinate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Streams the results as a JSON document:
+ * <pre>
+ * {"manifests": [
+ *   {"manifest": "...", "complete": true,
+ *    "violations": [{"component": "...", "artifactsByVersion": {"1.0.0": ["groupId:artifactId:1.0.0", ...]}}],
+ *    "warnings": [{"message": "...", "artifacts": ["groupId:artifactId:version", ...]}]}
+ * ]}
+ * </pre>
+ */
+public class JsonReportWriter implements ReportWriter {
+
+    static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private final JsonGenerator generator;
+
+    public JsonReportWriter(OutputStream out) throws IOException {
+        this.generator = JSON_FACTORY.createGenerator(out, JsonEncoding.UTF8);
+        generator.writeStartObject();
+        generator.writeArrayFieldStart("manifests");
+    }
+
+    @Override
+    public void write(String manifest, VerificationResult result) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("manifest", manifest);
+        writeResultFields(generator, result);
+        generator.writeEndObject();
+        generator.flush();
+    }
+
+    /**
+     * Writes the result as a JSON object.
+     */
+    public static void writeResult(JsonGenerator generator, VerificationResult result) throws IOException {
+        generator.writeStartObject();
+        writeResultFields(generator, result);
+        generator.writeEndObject();
+    }
+
+    private static void writeResultFields(JsonGenerator generator, VerificationResult result) throws IOException {
+        generator.writeBooleanField("complete", result.isComplete());
+
+        generator.writeArrayFieldStart("violations");
+        for (Violation violation : result.getViolations()) {
+            generator.writeStartObject();
+            generator.writeStringField("component", violation.getComponentName());
+            generator.writeObjectFieldStart("artifactsByVersion");
+            for (Map.Entry<String, List<ArtifactCoordinate>> entry : violation.getArtifactsByVersion().entrySet()) {
+                generator.writeFieldName(entry.getKey());
+                writeCoordinates(generator, entry.getValue());
+            }
+            generator.writeEndObject();
+            generator.writeEndObject();
+        }
+        generator.writeEndArray();
+
+        generator.writeArrayFieldStart("warnings");
+        for (Warning warning : result.getWarnings()) {
+            generator.writeStartObject();
+            generator.writeStringField("message", warning.getMessage());
+            generator.writeFieldName("artifacts");
+            writeCoordinates(generator, warning.getArtifactCoordinates());
+            generator.writeEndObject();
+        }
+        generator.writeEndArray();
+    }
+
+    private static void writeCoordinates(JsonGenerator generator, List<ArtifactCoordinate> coordinates) throws IOException {
+        generator.writeStartArray();
+        for (ArtifactCoordinate coordinate : coordinates) {
+            generator.writeString(toGav(coordinate));
+        }
+        generator.writeEndArray();
+    }
+
+    static String toGav(ArtifactCoordinate coordinate) {
+        return coordinate.getGroupId() + ":" + coordinate.getArtifactId() + ":" + coordinate.getVersion();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            generator.writeEndArray();
+            generator.writeEndObject();
+        } finally {
+            generator.close();
+        }
+    }
+}
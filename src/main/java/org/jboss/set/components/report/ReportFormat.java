@@ -0,0 +1,36 @@
+package org.jboss.set.components.report;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public enum ReportFormat {
+    /**
+     * Human-readable console output.
+     */
+    TEXT,
+    /**
+     * A JSON document listing the violations and warnings of each manifest.
+     */
+    JSON,
+    /**
+     * JUnit XML, one test suite per manifest and one test case per component.
+     */
+    JUNIT,
+    /**
+     * SARIF 2.1.0 log, for tools aggregating static analysis results.
+     */
+    SARIF;
+
+    public ReportWriter createWriter(OutputStream out) throws IOException {
+        switch (this) {
+            case JSON:
+                return new JsonReportWriter(out);
+            case JUNIT:
+                return new JUnitReportWriter(out);
+            case SARIF:
+                return new SarifReportWriter(out);
+            default:
+                return new TextReportWriter(out);
+        }
+    }
+}
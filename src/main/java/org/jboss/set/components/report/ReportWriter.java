@@ -0,0 +1,18 @@
+package org.jboss.set.components.report;
+
+import org.jboss.set.components.VerificationResult;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Writes the results of verifications into a report. The report is streamed to the output as the results are written,
+ * and finished by {@link #close()}, which also closes the output.
+ */
+public interface ReportWriter extends Closeable {
+
+    /**
+     * @param manifest - identifies the verified manifest in the report, usually its URL
+     */
+    void write(String manifest, VerificationResult result) throws IOException;
+}
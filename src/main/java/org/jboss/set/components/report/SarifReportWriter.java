@@ -0,0 +1,115 @@
+package org.jboss.set.components.report;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.jboss.set.components.VerificationResult;
+import org.jboss.set.components.Violation;
+import org.jboss.set.components.Warning;
+import org.wildfly.channel.ArtifactCoordinate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Streams the results as a SARIF 2.1.0 log with a single run. The violations are reported as errors and the warnings
+ * as warnings, both located in the manifest they were found in.
+ */
+public class SarifReportWriter implements ReportWriter {
+
+    static final String SCHEMA = "https://json.schemastore.org/sarif-2.1.0.json";
+    static final String VIOLATION_RULE = "multiple-component-versions";
+    static final String WARNING_RULE = "verification-warning";
+
+    private final JsonGenerator generator;
+
+    public SarifReportWriter(OutputStream out) throws IOException {
+        this.generator = JsonReportWriter.JSON_FACTORY.createGenerator(out, JsonEncoding.UTF8);
+        generator.writeStartObject();
+        generator.writeStringField("version", "2.1.0");
+        generator.writeStringField("$schema", SCHEMA);
+        generator.writeArrayFieldStart("runs");
+        generator.writeStartObject();
+
+        generator.writeObjectFieldStart("tool");
+        generator.writeObjectFieldStart("driver");
+        generator.writeStringField("name", "component-mapper");
+        generator.writeArrayFieldStart("rules");
+        writeRule(VIOLATION_RULE, "Artifacts built from the same component have to be in the same version");
+        writeRule(WARNING_RULE, "Artifacts that could not be fully verified");
+        generator.writeEndArray();
+        generator.writeEndObject();
+        generator.writeEndObject();
+
+        generator.writeArrayFieldStart("results");
+    }
+
+    private void writeRule(String id, String description) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("id", id);
+        generator.writeObjectFieldStart("shortDescription");
+        generator.writeStringField("text", description);
+        generator.writeEndObject();
+        generator.writeEndObject();
+    }
+
+    @Override
+    public void write(String manifest, VerificationResult result) throws IOException {
+        for (Violation violation : result.getViolations()) {
+            final String versions = violation.getArtifactsByVersion().entrySet().stream()
+                    .map(e -> e.getKey() + " (" + toGavs(e.getValue()) + ")")
+                    .collect(Collectors.joining(", "));
+            writeResult(manifest, VIOLATION_RULE, "error",
+                    "Component " + violation.getComponentName() + " is present in more than one version: " + versions);
+        }
+        for (Warning warning : result.getWarnings()) {
+            writeResult(manifest, WARNING_RULE, "warning", toText(warning.getMessage()) + " " + toGavs(warning.getArtifactCoordinates()));
+        }
+        if (!result.isComplete()) {
+            writeResult(manifest, WARNING_RULE, "warning", "The verification was stopped before all the streams were checked");
+        }
+        generator.flush();
+    }
+
+    private void writeResult(String manifest, String ruleId, String level, String message) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("ruleId", ruleId);
+        generator.writeStringField("level", level);
+        generator.writeObjectFieldStart("message");
+        generator.writeStringField("text", message);
+        generator.writeEndObject();
+        generator.writeArrayFieldStart("locations");
+        generator.writeStartObject();
+        generator.writeObjectFieldStart("physicalLocation");
+        generator.writeObjectFieldStart("artifactLocation");
+        generator.writeStringField("uri", manifest);
+        generator.writeEndObject();
+        generator.writeEndObject();
+        generator.writeEndObject();
+        generator.writeEndArray();
+        generator.writeEndObject();
+    }
+
+    private static String toText(String message) {
+        // the console prefix is redundant with the result level
+        return message.startsWith("[WARN] ") ? message.substring("[WARN] ".length()) : message;
+    }
+
+    private static String toGavs(List<ArtifactCoordinate> coordinates) {
+        return coordinates.stream().map(JsonReportWriter::toGav).collect(Collectors.joining(", "));
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            // results, run, runs, log
+            generator.writeEndArray();
+            generator.writeEndObject();
+            generator.writeEndArray();
+            generator.writeEndObject();
+        } finally {
+            generator.close();
+        }
+    }
+}
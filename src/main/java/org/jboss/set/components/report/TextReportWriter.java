@@ -0,0 +1,70 @@
+package org.jboss.set.components.report;
+
+import org.jboss.set.components.VerificationResult;
+import org.jboss.set.components.Violation;
+import org.jboss.set.components.Warning;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Prints the violations and warnings the same way as they are printed on the console. If more than one manifest
+ * is reported, the results of each manifest are preceded by its name.
+ */
+public class TextReportWriter implements ReportWriter {
+
+    private final Writer writer;
+    // the first result is held back until it's known whether the manifest names are needed
+    private String firstManifest;
+    private VerificationResult firstResult;
+    private boolean multipleManifests;
+
+    public TextReportWriter(OutputStream out) {
+        this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public void write(String manifest, VerificationResult result) throws IOException {
+        if (!multipleManifests && firstResult == null) {
+            firstManifest = manifest;
+            firstResult = result;
+            return;
+        }
+        if (!multipleManifests) {
+            multipleManifests = true;
+            writeManifest(firstManifest, firstResult);
+            firstResult = null;
+        }
+        writeManifest(manifest, result);
+    }
+
+    private void writeManifest(String manifest, VerificationResult result) throws IOException {
+        if (multipleManifests) {
+            writer.write("Manifest " + manifest + ":" + System.lineSeparator());
+        }
+        for (Violation violation : result.getViolations()) {
+            writer.write(violation.print());
+            writer.write(System.lineSeparator());
+        }
+        for (Warning warning : result.getWarnings()) {
+            writer.write(warning.print());
+            writer.write(System.lineSeparator());
+        }
+        writer.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            if (firstResult != null) {
+                writeManifest(firstManifest, firstResult);
+            }
+        } finally {
+            writer.close();
+        }
+    }
+}
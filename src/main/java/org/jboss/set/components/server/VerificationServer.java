@@ -0,0 +1,287 @@
+package org.jboss.set.components.server;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.jboss.set.components.ManifestVerifier;
+import org.jboss.set.components.VerificationBaseline;
+import org.jboss.set.components.VerificationListener;
+import org.jboss.set.components.VerificationResult;
+import org.jboss.set.components.metrics.Counter;
+import org.jboss.set.components.metrics.MetricsRegistry;
+import org.jboss.set.components.metrics.PrometheusFormat;
+import org.jboss.set.components.metrics.Timer;
+import org.jboss.set.components.report.JsonReportWriter;
+import org.wildfly.channel.ChannelManifest;
+import org.wildfly.channel.ChannelManifestMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HTTP front-end of a long-living {@link ManifestVerifier}. The PNC clients and the resolved builds are kept between
+ * the requests, so repeated verifications of similar manifests need only a few PNC lookups.
+ * <p>
+ * Endpoints:
+ * <ul>
+ *     <li>{@code POST /verify?manifest-url=<URL>} - verifies the manifest at the http or https URL</li>
+ *     <li>{@code POST /verify} - verifies the manifest YAML sent as the request body</li>
+ *     <li>{@code POST /verify?fail-fast=true} - stops the verification on the first violation, can be combined with the above</li>
+ *     <li>{@code GET /health} - reports the number of running and queued verifications</li>
+ *     <li>{@code GET /metrics} - exports the meters of the verifier in the Prometheus text format</li>
+ * </ul>
+ * At most {@code maxParallel} verifications run at the same time and at most {@code maxQueued} wait for them. Requests
+ * beyond that are rejected with {@code 503 Service Unavailable}. The manifests are fetched and parsed by the queued
+ * verifications, so the number of manifest downloads is bound by the same limits.
+ */
+public class VerificationServer implements AutoCloseable {
+
+    private static final int RETRY_AFTER_SECONDS = 30;
+    // threads answering the health checks, the metrics scrapes and the rejected requests while the others wait
+    private static final int SPARE_REQUEST_THREADS = 4;
+    private static final Set<String> MANIFEST_URL_SCHEMES = Set.of("http", "https");
+
+    private final ManifestVerifier manifestVerifier;
+    private final HttpServer server;
+    // threads waiting for the verifications, one per running or queued verification
+    private final ExecutorService requestExecutor;
+    private final ThreadPoolExecutor verificationExecutor;
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private final Counter verified;
+    private final Counter rejected;
+    private final Timer verificationTime;
+
+    public VerificationServer(ManifestVerifier manifestVerifier, InetSocketAddress address, int maxParallel, int maxQueued) throws IOException {
+        if (maxParallel < 1 || maxQueued < 0) {
+            throw new IllegalArgumentException("Invalid verification limits: " + maxParallel + " parallel, " + maxQueued + " queued");
+        }
+        this.manifestVerifier = manifestVerifier;
+        this.requestExecutor = Executors.newFixedThreadPool(maxParallel + maxQueued + SPARE_REQUEST_THREADS);
+        this.verificationExecutor = new ThreadPoolExecutor(maxParallel, maxParallel, 0L, TimeUnit.MILLISECONDS,
+                maxQueued == 0 ? new SynchronousQueue<>() : new ArrayBlockingQueue<>(maxQueued));
+
+        final MetricsRegistry metrics = manifestVerifier.getMetrics();
+        this.verified = metrics.counter("server.verifications", "result", "verified");
+        this.rejected = metrics.counter("server.verifications", "result", "rejected");
+        this.verificationTime = metrics.timer("server.verification.time");
+        metrics.gauge("server.verifications.running", verificationExecutor::getActiveCount);
+        metrics.gauge("server.verifications.queued", () -> verificationExecutor.getQueue().size());
+
+        this.server = HttpServer.create(address, 0);
+        this.server.createContext("/verify", this::verify);
+        this.server.createContext("/health", this::health);
+        this.server.createContext("/metrics", this::metrics);
+        this.server.setExecutor(requestExecutor);
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public InetSocketAddress getAddress() {
+        return server.getAddress();
+    }
+
+    private void verify(HttpExchange exchange) throws IOException {
+        try {
+            if (!"POST".equals(exchange.getRequestMethod())) {
+                sendError(exchange, 405, "Use POST to verify a manifest");
+                return;
+            }
+
+            final ManifestSource manifestSource;
+            try {
+                manifestSource = readManifestSource(exchange);
+            } catch (IllegalArgumentException e) {
+                sendError(exchange, 400, e.getMessage());
+                return;
+            }
+
+            final boolean failFast = Boolean.parseBoolean(queryParameters(exchange.getRequestURI()).get("fail-fast"));
+            final Future<VerificationResult> verification;
+            try {
+                verification = verificationExecutor.submit(() -> {
+                    final long start = System.nanoTime();
+                    try {
+                        // fetched by the queued task, so that the downloads are bound by the verification limits
+                        final ChannelManifest manifest = manifestSource.read();
+                        return manifestVerifier.verifyComponents(manifest, VerificationBaseline.EMPTY, VerificationListener.NONE, failFast);
+                    } finally {
+                        verificationTime.record(System.nanoTime() - start);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                rejected.increment();
+                exchange.getResponseHeaders().add("Retry-After", Integer.toString(RETRY_AFTER_SECONDS));
+                sendError(exchange, 503, "Too many verifications in progress");
+                return;
+            }
+
+            final VerificationResult result;
+            try {
+                result = verification.get();
+            } catch (InterruptedException e) {
+                verification.cancel(true);
+                Thread.currentThread().interrupt();
+                sendError(exchange, 503, "The server is shutting down");
+                return;
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof InvalidManifestException) {
+                    // the details may disclose the content of the fetched resource, keep them in the server log
+                    System.err.println("[WARN] Unable to read the manifest: " + e.getCause().getCause());
+                    sendError(exchange, 400, "Unable to read the manifest");
+                } else {
+                    System.err.println("[ERROR] Verification failed: " + e.getCause());
+                    sendError(exchange, 500, "Verification failed");
+                }
+                return;
+            }
+            verified.increment();
+            sendResult(exchange, result);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void health(HttpExchange exchange) throws IOException {
+        try {
+            final ObjectNode json = mapper.createObjectNode();
+            json.put("status", "UP");
+            json.put("running", verificationExecutor.getActiveCount());
+            json.put("queued", verificationExecutor.getQueue().size());
+            json.put("verified", verified.count());
+            json.put("rejected", rejected.count());
+            send(exchange, 200, json);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void metrics(HttpExchange exchange) throws IOException {
+        try {
+            exchange.getResponseHeaders().add("Content-Type", PrometheusFormat.CONTENT_TYPE);
+            exchange.sendResponseHeaders(200, 0);
+            try (Writer writer = new OutputStreamWriter(exchange.getResponseBody(), StandardCharsets.UTF_8)) {
+                PrometheusFormat.write(manifestVerifier.getMetrics(), writer);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * Validates the request without fetching the manifest.
+     *
+     * @throws IllegalArgumentException if the request doesn't point to a manifest the server can read
+     */
+    private static ManifestSource readManifestSource(HttpExchange exchange) throws IOException {
+        final String manifestUrl = queryParameters(exchange.getRequestURI()).get("manifest-url");
+        if (manifestUrl != null) {
+            final URL url;
+            try {
+                url = new URL(manifestUrl);
+            } catch (MalformedURLException e) {
+                throw new IllegalArgumentException("Invalid manifest-url parameter");
+            }
+            // other schemes, e.g. file, would read the resources of the server
+            if (!MANIFEST_URL_SCHEMES.contains(url.getProtocol().toLowerCase(Locale.ROOT))) {
+                throw new IllegalArgumentException("Only http and https manifest URLs are accepted");
+            }
+            return () -> ChannelManifestMapper.from(url);
+        }
+        final String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+        if (body.isBlank()) {
+            throw new IllegalArgumentException("Either the manifest-url parameter or the manifest in the request body is required");
+        }
+        return () -> ChannelManifestMapper.fromString(body);
+    }
+
+    private static Map<String, String> queryParameters(URI uri) {
+        if (uri.getRawQuery() == null) {
+            return Map.of();
+        }
+        final Map<String, String> parameters = new HashMap<>();
+        for (String parameter : uri.getRawQuery().split("&")) {
+            final int separator = parameter.indexOf('=');
+            if (separator > 0) {
+                parameters.put(URLDecoder.decode(parameter.substring(0, separator), StandardCharsets.UTF_8),
+                        URLDecoder.decode(parameter.substring(separator + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return parameters;
+    }
+
+    private void sendResult(HttpExchange exchange, VerificationResult result) throws IOException {
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        // the length is not known up front, the result is streamed with chunked encoding
+        exchange.sendResponseHeaders(200, 0);
+        try (JsonGenerator generator = mapper.getFactory().createGenerator(exchange.getResponseBody(), JsonEncoding.UTF8)) {
+            JsonReportWriter.writeResult(generator, result);
+        }
+    }
+
+    private void sendError(HttpExchange exchange, int status, String message) throws IOException {
+        final ObjectNode json = mapper.createObjectNode();
+        json.put("error", message);
+        send(exchange, status, json);
+    }
+
+    private void send(HttpExchange exchange, int status, ObjectNode json) throws IOException {
+        final byte[] bytes = mapper.writeValueAsBytes(json);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private interface ManifestSource {
+        ChannelManifest load() throws Exception;
+
+        default ChannelManifest read() throws InvalidManifestException {
+            try {
+                return load();
+            } catch (Exception e) {
+                throw new InvalidManifestException(e);
+            }
+        }
+    }
+
+    private static class InvalidManifestException extends Exception {
+        InvalidManifestException(Throwable cause) {
+            super(cause);
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        verificationExecutor.shutdownNow();
+        requestExecutor.shutdownNow();
+    }
+}
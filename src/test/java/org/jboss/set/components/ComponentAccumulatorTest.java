@@ -0,0 +1,51 @@
+package org.jboss.set.components;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Map;
+
+import org.jboss.set.components.pnc.PncBuild;
+import org.jboss.set.components.pnc.PncComponent;
+import org.junit.jupiter.api.Test;
+import org.wildfly.channel.ArtifactCoordinate;
+
+class ComponentAccumulatorTest {
+
+    private static final PncComponent COMPONENT = new PncComponent("test-component");
+    private static final ArtifactCoordinate ONE_1_0 = new ArtifactCoordinate("org.test", "one", null, null, "1.0.0");
+    private static final ArtifactCoordinate TWO_1_0 = new ArtifactCoordinate("org.test", "two", null, null, "1.0.0");
+    private static final ArtifactCoordinate TWO_1_1 = new ArtifactCoordinate("org.test", "two", null, null, "1.1.0");
+
+    private final ComponentAccumulator accumulator = new ComponentAccumulator();
+
+    @Test
+    public void componentBecomesViolationOnSecondBuild() {
+        assertThat(accumulator.record(new PncBuild.Id("build-1"), COMPONENT, ONE_1_0)).isFalse();
+        assertThat(accumulator.record(new PncBuild.Id("build-1"), COMPONENT, TWO_1_0)).isFalse();
+        assertThat(accumulator.record(new PncBuild.Id("build-2"), COMPONENT, TWO_1_1)).isTrue();
+        // reported only once
+        assertThat(accumulator.record(new PncBuild.Id("build-3"), COMPONENT, TWO_1_1)).isFalse();
+
+        final VerificationResult result = new VerificationResult();
+        accumulator.check(result);
+
+        assertThat(result.getWarnings()).isEmpty();
+        assertThat(result.getViolations()).containsExactly(new Violation("test-component", Map.of(
+                "1.0.0", List.of(ONE_1_0, TWO_1_0),
+                "1.1.0", List.of(TWO_1_1, TWO_1_1))));
+    }
+
+    @Test
+    public void differentVersionsFromOneBuildAreWarning() {
+        accumulator.record(new PncBuild.Id("build-1"), COMPONENT, ONE_1_0);
+        accumulator.record(new PncBuild.Id("build-1"), COMPONENT, TWO_1_1);
+
+        final VerificationResult result = new VerificationResult();
+        accumulator.check(result);
+
+        assertThat(result.getViolations()).isEmpty();
+        assertThat(result.getWarnings()).hasSize(1);
+        assertThat(result.getWarnings().get(0).getArtifactCoordinates()).containsExactlyInAnyOrder(ONE_1_0, TWO_1_1);
+    }
+}
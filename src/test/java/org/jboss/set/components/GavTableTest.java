@@ -0,0 +1,57 @@
+package org.jboss.set.components;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+
+class GavTableTest {
+
+    private final GavTable<String> table = new GavTable<>();
+
+    @Test
+    public void assignsDenseIds() {
+        assertThat(table.putIfAbsent("org.test", "one", "1.0.0", "first")).isEqualTo(0);
+        assertThat(table.putIfAbsent("org.test", "two", "1.0.0", "second")).isEqualTo(1);
+        assertThat(table.putIfAbsent("org.test", "one", "1.0.0", "ignored")).isEqualTo(0);
+
+        assertThat(table.find("org.test", "two", "1.0.0")).isEqualTo(1);
+        assertThat(table.get("org.test", "one", "1.0.0")).isEqualTo("first");
+        assertThat(table.find("org.test", "one", "1.0.1")).isEqualTo(-1);
+        assertThat(table.get("org.test:one", "", "1.0.0")).isNull();
+        assertThat(table.size()).isEqualTo(2);
+    }
+
+    @Test
+    public void findsEntriesAddedConcurrently() throws Exception {
+        final int threads = 4;
+        final int perThread = 10_000;
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            final List<Future<?>> tasks = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                final String groupId = "org.test" + t;
+                tasks.add(executor.submit(() -> {
+                    for (int i = 0; i < perThread; i++) {
+                        final String artifactId = "artifact" + i;
+                        table.putIfAbsent(groupId, artifactId, "1.0.0", artifactId);
+                        assertThat(table.get(groupId, artifactId, "1.0.0")).isEqualTo(artifactId);
+                    }
+                }));
+            }
+            for (Future<?> task : tasks) {
+                task.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(table.size()).isEqualTo(threads * perThread);
+        assertThat(table.get("org.test3", "artifact9999", "1.0.0")).isEqualTo("artifact9999");
+    }
+}
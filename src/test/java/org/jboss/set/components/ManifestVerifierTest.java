@@ -3,6 +3,9 @@ package org.jboss.set.components;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.io.File;
@@ -10,14 +13,24 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import org.jboss.set.components.metrics.MetricsRegistry;
+import org.jboss.set.components.pnc.AsyncPncManager;
 import org.jboss.set.components.pnc.PncArtifact;
 import org.jboss.set.components.pnc.PncBuild;
 import org.jboss.set.components.pnc.PncComponent;
+import org.jboss.set.components.pnc.PncException;
 import org.jboss.set.components.pnc.PncManager;
+import org.jboss.set.components.pnc.PncResolution;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Answers;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.wildfly.channel.ArtifactCoordinate;
@@ -31,7 +44,8 @@ class ManifestVerifierTest {
     @TempDir
     Path tempDir;
 
-    @Mock
+    // the verifier uses the composite PncManager#resolve, call through to the stubbed lookups
+    @Mock(answer = Answers.CALLS_REAL_METHODS)
     private PncManager pncManager;
 
     @Test
@@ -45,7 +59,7 @@ class ManifestVerifierTest {
                 new PncArtifact.Id("efgh"),
                 new ArtifactCoordinate("io.opentelemetry", "opentelemetry-semconv", "jar", null, "1.29.0.alpha"),
                 false);
-        final PncBuild pncBuild = new PncBuild(new PncBuild.Id("build_1"), new PncComponent("opentelementry"));
+        final PncBuild pncBuild = new PncBuild(new PncBuild.Id("build_1"), new PncComponent("opentelementry"), true);
         when(pncManager.getArtifact(any())).thenReturn(pncArtifactOne);
         when(pncManager.getBuildIdContainingArtifact(new PncArtifact.Id("abcd"))).thenReturn(pncBuild);
         when(pncManager.getArtifactsInBuild(new PncBuild.Id("build_1"))).thenReturn(List.of(pncArtifactOne, pncArtifactTwo));
@@ -85,8 +99,8 @@ class ManifestVerifierTest {
                 new PncArtifact.Id("efgh2"),
                 new ArtifactCoordinate("io.opentelemetry", "opentelemetry-semconv", null, null, "1.29.0.alpha"),
                 false);
-        final PncBuild pncBuildOne = new PncBuild(new PncBuild.Id("build_1"), new PncComponent("opentelemetry"));
-        final PncBuild pncBuildTwo = new PncBuild(new PncBuild.Id("build_2"), new PncComponent("opentelemetry"));
+        final PncBuild pncBuildOne = new PncBuild(new PncBuild.Id("build_1"), new PncComponent("opentelemetry"), true);
+        final PncBuild pncBuildTwo = new PncBuild(new PncBuild.Id("build_2"), new PncComponent("opentelemetry"), true);
         when(pncManager.getArtifact(pncArtifactOneBuild1.getCoordinate())).thenReturn(pncArtifactOneBuild1);
         when(pncManager.getArtifact(pncArtifactTwoBuild2.getCoordinate())).thenReturn(pncArtifactTwoBuild2);
         when(pncManager.getBuildIdContainingArtifact(new PncArtifact.Id("abcd1"))).thenReturn(pncBuildOne);
@@ -135,4 +149,354 @@ class ManifestVerifierTest {
                 .map(Warning::getMessage)
                 .containsOnly("[WARN] Artifacts not build in PNC:");
     }
-}
\ No newline at end of file
+
+    @Test
+    public void artifactsWithoutBuild_Warning() throws Exception {
+        final ManifestVerifier manifestVerifier = new ManifestVerifier(pncManager);
+        final PncArtifact importedArtifact = new PncArtifact(
+                new PncArtifact.Id("abcd1"),
+                new ArtifactCoordinate("io.opentelemetry", "opentelemetry-context", null, null, "1.29.0"),
+                true);
+        final PncArtifact ungroupedArtifact = new PncArtifact(
+                new PncArtifact.Id("efgh1"),
+                new ArtifactCoordinate("io.opentelemetry", "opentelemetry-semconv", null, null, "1.29.0.alpha"),
+                false);
+        when(pncManager.getArtifact(importedArtifact.getCoordinate())).thenReturn(importedArtifact);
+        when(pncManager.getArtifact(ungroupedArtifact.getCoordinate())).thenReturn(ungroupedArtifact);
+        when(pncManager.getBuildIdContainingArtifact(ungroupedArtifact.getId())).thenReturn(null);
+
+        final ChannelManifest manifest = new ChannelManifest.Builder()
+                .setSchemaVersion(ChannelManifestMapper.SCHEMA_VERSION_1_1_0)
+                .addStreams(new Stream("io.opentelemetry", "opentelemetry-context", "1.29.0"))
+                .addStreams(new Stream("io.opentelemetry", "opentelemetry-semconv", "1.29.0.alpha"))
+                .build();
+
+        final VerificationResult verificationResult = manifestVerifier.verifyComponents(manifest);
+
+        assertThat(verificationResult.getViolations()).isEmpty();
+        assertThat(verificationResult.getWarnings())
+                .filteredOn(w -> w.getMessage().equals("[WARN] Ignored imported artifacts:"))
+                .flatMap(Warning::getArtifactCoordinates)
+                .containsExactly(importedArtifact.getCoordinate());
+        assertThat(verificationResult.getWarnings())
+                .filteredOn(w -> w.getMessage().equals("[WARN] Unable to determine components of:"))
+                .flatMap(Warning::getArtifactCoordinates)
+                .containsExactly(ungroupedArtifact.getCoordinate());
+    }
+
+    @Test
+    public void lookupsAreBoundedByConcurrency() throws Exception {
+        final int concurrency = 3;
+        final ManifestVerifier manifestVerifier = new ManifestVerifier(pncManager, concurrency);
+        final AtomicInteger inFlight = new AtomicInteger();
+        final AtomicInteger maxInFlight = new AtomicInteger();
+        when(pncManager.getArtifact(any())).thenAnswer(i -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            Thread.sleep(10);
+            inFlight.decrementAndGet();
+            return null;
+        });
+
+        final ChannelManifest.Builder builder = new ChannelManifest.Builder()
+                .setSchemaVersion(ChannelManifestMapper.SCHEMA_VERSION_1_1_0);
+        for (int i = 0; i < 20; i++) {
+            builder.addStreams(new Stream("org.test", "artifact-" + i, "1.0.0"));
+        }
+        final Path manifestFile = tempDir.resolve("test-manifest.yaml");
+        Files.writeString(manifestFile, ChannelManifestMapper.toYaml(builder.build()));
+
+        final VerificationResult verificationResult = manifestVerifier.verifyComponents(manifestFile.toUri().toURL());
+
+        assertThat(maxInFlight.get()).isLessThanOrEqualTo(concurrency);
+        assertThat(verificationResult.getWarnings())
+                .flatMap(Warning::getArtifactCoordinates)
+                .hasSize(20);
+    }
+
+    @Test
+    public void unchangedStreamsAreReusedFromBaseline() throws Exception {
+        // a single lookup at a time, so that the baseline's semconv is always resolved from the build
+        final ManifestVerifier manifestVerifier = new ManifestVerifier(pncManager, 1);
+        final PncArtifact context = new PncArtifact(
+                new PncArtifact.Id("abcd1"),
+                new ArtifactCoordinate("io.opentelemetry", "opentelemetry-context", null, null, "1.29.0"),
+                false);
+        final PncArtifact semconv = new PncArtifact(
+                new PncArtifact.Id("efgh1"),
+                new ArtifactCoordinate("io.opentelemetry", "opentelemetry-semconv", null, null, "1.29.0"),
+                false);
+        final PncArtifact updatedSemconv = new PncArtifact(
+                new PncArtifact.Id("efgh2"),
+                new ArtifactCoordinate("io.opentelemetry", "opentelemetry-semconv", null, null, "1.30.0"),
+                false);
+        final PncBuild pncBuildOne = new PncBuild(new PncBuild.Id("build_1"), new PncComponent("opentelemetry"), true);
+        final PncBuild pncBuildTwo = new PncBuild(new PncBuild.Id("build_2"), new PncComponent("opentelemetry"), true);
+        when(pncManager.getArtifact(context.getCoordinate())).thenReturn(context);
+        when(pncManager.getArtifact(updatedSemconv.getCoordinate())).thenReturn(updatedSemconv);
+        when(pncManager.getBuildIdContainingArtifact(context.getId())).thenReturn(pncBuildOne);
+        when(pncManager.getBuildIdContainingArtifact(updatedSemconv.getId())).thenReturn(pncBuildTwo);
+        when(pncManager.getArtifactsInBuild(pncBuildOne.getId())).thenReturn(List.of(context, semconv));
+        when(pncManager.getArtifactsInBuild(pncBuildTwo.getId())).thenReturn(List.of(updatedSemconv));
+
+        final ChannelManifest baselineManifest = new ChannelManifest.Builder()
+                .setSchemaVersion(ChannelManifestMapper.SCHEMA_VERSION_1_1_0)
+                .addStreams(new Stream("io.opentelemetry", "opentelemetry-context", "1.29.0"))
+                .addStreams(new Stream("io.opentelemetry", "opentelemetry-semconv", "1.29.0"))
+                .build();
+        final VerificationResult baselineResult = manifestVerifier.verifyComponents(baselineManifest);
+        assertThat(baselineResult.getViolations()).isEmpty();
+        final Path resultFile = tempDir.resolve("baseline-result.bin");
+        VerificationBaseline.save(baselineResult, resultFile);
+        clearInvocations(pncManager);
+
+        final ChannelManifest manifest = new ChannelManifest.Builder()
+                .setSchemaVersion(ChannelManifestMapper.SCHEMA_VERSION_1_1_0)
+                .addStreams(new Stream("io.opentelemetry", "opentelemetry-context", "1.29.0"))
+                .addStreams(new Stream("io.opentelemetry", "opentelemetry-semconv", "1.30.0"))
+                .build();
+        final VerificationResult verificationResult = manifestVerifier.verifyComponents(manifest,
+                VerificationBaseline.load(baselineManifest, resultFile));
+
+        verify(pncManager, never()).getArtifact(context.getCoordinate());
+        verify(pncManager).getArtifact(updatedSemconv.getCoordinate());
+        assertThat(verificationResult.getViolations())
+                .containsOnly(new Violation("opentelemetry", Map.of(
+                        "1.29.0", List.of(context.getCoordinate()),
+                        "1.30.0", List.of(updatedSemconv.getCoordinate())
+                )));
+    }
+
+    @Test
+    public void onlyFinishedBuildsAreSharedBetweenVerifications() {
+        final ManifestVerifier manifestVerifier = new ManifestVerifier(pncManager, 1, 1, new MetricsRegistry(), 10);
+        final PncArtifact finished = new PncArtifact(
+                new PncArtifact.Id("abcd1"),
+                new ArtifactCoordinate("io.opentelemetry", "opentelemetry-context", null, null, "1.29.0"),
+                false);
+        final PncArtifact running = new PncArtifact(
+                new PncArtifact.Id("efgh1"),
+                new ArtifactCoordinate("io.opentelemetry", "opentelemetry-semconv", null, null, "1.29.0"),
+                false);
+        final PncBuild finishedBuild = new PncBuild(new PncBuild.Id("build_1"), new PncComponent("opentelemetry"), true);
+        final PncBuild runningBuild = new PncBuild(new PncBuild.Id("build_2"), new PncComponent("opentelemetry-semconv"), false);
+        when(pncManager.getArtifact(finished.getCoordinate())).thenReturn(finished);
+        when(pncManager.getArtifact(running.getCoordinate())).thenReturn(running);
+        when(pncManager.getBuildIdContainingArtifact(finished.getId())).thenReturn(finishedBuild);
+        when(pncManager.getBuildIdContainingArtifact(running.getId())).thenReturn(runningBuild);
+        when(pncManager.getArtifactsInBuild(finishedBuild.getId())).thenReturn(List.of(finished));
+        when(pncManager.getArtifactsInBuild(runningBuild.getId())).thenReturn(List.of(running));
+        final ChannelManifest manifest = new ChannelManifest.Builder()
+                .setSchemaVersion(ChannelManifestMapper.SCHEMA_VERSION_1_1_0)
+                .addStreams(new Stream("io.opentelemetry", "opentelemetry-context", "1.29.0"))
+                .addStreams(new Stream("io.opentelemetry", "opentelemetry-semconv", "1.29.0"))
+                .build();
+
+        manifestVerifier.verifyComponents(manifest);
+        clearInvocations(pncManager);
+        final VerificationResult verificationResult = manifestVerifier.verifyComponents(manifest);
+
+        assertThat(verificationResult.getResolutions()).hasSize(2);
+        verify(pncManager, never()).getArtifact(finished.getCoordinate());
+        verify(pncManager).getArtifact(running.getCoordinate());
+    }
+
+    @Test
+    public void failFastStopsOnFirstViolation() throws Exception {
+        // a single lookup at a time, so that the streams are resolved in the manifest order
+        final ManifestVerifier manifestVerifier = new ManifestVerifier(pncManager, 1);
+        final PncArtifact pncArtifactBuild1 = new PncArtifact(
+                new PncArtifact.Id("abcd1"),
+                new ArtifactCoordinate("io.opentelemetry", "opentelemetry-context", null, null, "1.29.0"),
+                false);
+        final PncArtifact pncArtifactBuild2 = new PncArtifact(
+                new PncArtifact.Id("efgh2"),
+                new ArtifactCoordinate("io.opentelemetry", "opentelemetry-semconv", null, null, "1.29.0.alpha"),
+                false);
+        final PncBuild pncBuildOne = new PncBuild(new PncBuild.Id("build_1"), new PncComponent("opentelemetry"), true);
+        final PncBuild pncBuildTwo = new PncBuild(new PncBuild.Id("build_2"), new PncComponent("opentelemetry"), true);
+        when(pncManager.getArtifact(pncArtifactBuild1.getCoordinate())).thenReturn(pncArtifactBuild1);
+        when(pncManager.getArtifact(pncArtifactBuild2.getCoordinate())).thenReturn(pncArtifactBuild2);
+        when(pncManager.getBuildIdContainingArtifact(pncArtifactBuild1.getId())).thenReturn(pncBuildOne);
+        when(pncManager.getBuildIdContainingArtifact(pncArtifactBuild2.getId())).thenReturn(pncBuildTwo);
+        when(pncManager.getArtifactsInBuild(pncBuildOne.getId())).thenReturn(List.of(pncArtifactBuild1));
+
+        final ChannelManifest manifest = new ChannelManifest.Builder()
+                .setSchemaVersion(ChannelManifestMapper.SCHEMA_VERSION_1_1_0)
+                .addStreams(new Stream("io.opentelemetry", "opentelemetry-context", "1.29.0"))
+                .addStreams(new Stream("io.opentelemetry", "opentelemetry-semconv", "1.29.0.alpha"))
+                .addStreams(new Stream("io.opentelemetry", "opentelemetry-api", "1.29.0"))
+                .build();
+        final List<Violation> foundViolations = new CopyOnWriteArrayList<>();
+        final VerificationListener listener = new VerificationListener() {
+            @Override
+            public void violationFound(Violation violation) {
+                foundViolations.add(violation);
+            }
+        };
+
+        final VerificationResult verificationResult = manifestVerifier.verifyComponents(manifest, VerificationBaseline.EMPTY, listener, true);
+
+        assertThat(foundViolations)
+                .map(Violation::getComponentName)
+                .containsExactly("opentelemetry");
+        assertThat(verificationResult.getViolations()).hasSize(1);
+        assertThat(verificationResult.isComplete()).isFalse();
+        verify(pncManager, never()).getArtifact(new ArtifactCoordinate("io.opentelemetry", "opentelemetry-api", null, null, "1.29.0"));
+    }
+
+    @Test
+    public void otherStreamsOfBuildAreNotLookedUp() {
+        // a single lookup at a time, so that the build is listed before the other streams are taken
+        final ManifestVerifier manifestVerifier = new ManifestVerifier(pncManager, 1);
+        final PncArtifact context = new PncArtifact(
+                new PncArtifact.Id("abcd1"),
+                new ArtifactCoordinate("io.opentelemetry", "opentelemetry-context", null, null, "1.29.0"),
+                false);
+        final PncArtifact semconv = new PncArtifact(
+                new PncArtifact.Id("efgh1"),
+                new ArtifactCoordinate("io.opentelemetry", "opentelemetry-semconv", null, null, "1.29.0"),
+                false);
+        final PncArtifact api = new PncArtifact(
+                new PncArtifact.Id("ijkl1"),
+                new ArtifactCoordinate("io.opentelemetry", "opentelemetry-api", null, null, "1.29.0"),
+                false);
+        final PncBuild pncBuild = new PncBuild(new PncBuild.Id("build_1"), new PncComponent("opentelemetry"), true);
+        when(pncManager.getArtifact(context.getCoordinate())).thenReturn(context);
+        when(pncManager.getBuildIdContainingArtifact(context.getId())).thenReturn(pncBuild);
+        when(pncManager.getArtifactsInBuild(pncBuild.getId())).thenReturn(List.of(context, semconv, api));
+
+        final ChannelManifest manifest = new ChannelManifest.Builder()
+                .setSchemaVersion(ChannelManifestMapper.SCHEMA_VERSION_1_1_0)
+                .addStreams(new Stream("io.opentelemetry", "opentelemetry-context", "1.29.0"))
+                .addStreams(new Stream("io.opentelemetry", "opentelemetry-semconv", "1.29.0"))
+                .addStreams(new Stream("io.opentelemetry", "opentelemetry-api", "1.29.0"))
+                .build();
+
+        final VerificationResult verificationResult = manifestVerifier.verifyComponents(manifest);
+
+        assertThat(verificationResult.getResolutions()).hasSize(3);
+        assertThat(verificationResult.getViolations()).isEmpty();
+        for (PncArtifact artifact : List.of(semconv, api)) {
+            verify(pncManager, never()).getArtifact(artifact.getCoordinate());
+            verify(pncManager, never()).resolve(artifact.getCoordinate());
+        }
+        verify(pncManager).getArtifactsInBuild(pncBuild.getId());
+    }
+
+    @Test
+    public void batchOfStreamsIsResolvedWithSingleCall() {
+        final ManifestVerifier manifestVerifier = new ManifestVerifier(pncManager, 1, 10);
+        final ArtifactCoordinate context = new ArtifactCoordinate("io.opentelemetry", "opentelemetry-context", null, null, "1.29.0");
+        final ArtifactCoordinate semconv = new ArtifactCoordinate("io.opentelemetry", "opentelemetry-semconv", null, null, "1.29.0");
+        final ArtifactCoordinate missing = new ArtifactCoordinate("io.opentelemetry", "opentelemetry-missing", null, null, "1.29.0");
+        final PncBuild pncBuild = new PncBuild(new PncBuild.Id("build_1"), new PncComponent("opentelemetry"), true);
+        final PncArtifact contextArtifact = new PncArtifact(new PncArtifact.Id("abcd1"), context, false);
+        final PncArtifact semconvArtifact = new PncArtifact(new PncArtifact.Id("efgh1"), semconv, false);
+        when(pncManager.resolveAll(List.of(context, semconv, missing))).thenReturn(List.of(
+                PncResolution.built(context, contextArtifact, pncBuild),
+                PncResolution.built(semconv, semconvArtifact, pncBuild),
+                PncResolution.missing(missing)));
+        when(pncManager.getArtifactsInBuild(pncBuild.getId())).thenReturn(List.of(contextArtifact, semconvArtifact));
+
+        final ChannelManifest manifest = new ChannelManifest.Builder()
+                .setSchemaVersion(ChannelManifestMapper.SCHEMA_VERSION_1_1_0)
+                .addStreams(new Stream("io.opentelemetry", "opentelemetry-context", "1.29.0"))
+                .addStreams(new Stream("io.opentelemetry", "opentelemetry-semconv", "1.29.0"))
+                .addStreams(new Stream("io.opentelemetry", "opentelemetry-missing", "1.29.0"))
+                .build();
+
+        final VerificationResult verificationResult = manifestVerifier.verifyComponents(manifest);
+
+        assertThat(verificationResult.getResolutions())
+                .extracting(PncResolution::getStatus)
+                .containsOnly(PncResolution.Status.BUILT, PncResolution.Status.MISSING)
+                .hasSize(3);
+        assertThat(verificationResult.getWarnings())
+                .flatMap(Warning::getArtifactCoordinates)
+                .containsExactly(missing);
+        verify(pncManager).resolveAll(List.of(context, semconv, missing));
+        verify(pncManager, never()).resolve(any());
+    }
+
+    @Test
+    public void failedBuildListingIsReported() {
+        // a single lookup at a time, so that the semconv is looked up after the listing failed
+        final ManifestVerifier manifestVerifier = new ManifestVerifier(pncManager, 1);
+        final PncArtifact context = new PncArtifact(
+                new PncArtifact.Id("abcd1"),
+                new ArtifactCoordinate("io.opentelemetry", "opentelemetry-context", null, null, "1.29.0"),
+                false);
+        final PncArtifact semconv = new PncArtifact(
+                new PncArtifact.Id("efgh1"),
+                new ArtifactCoordinate("io.opentelemetry", "opentelemetry-semconv", null, null, "1.29.0"),
+                false);
+        final PncBuild pncBuild = new PncBuild(new PncBuild.Id("build_1"), new PncComponent("opentelemetry"), true);
+        when(pncManager.getArtifact(context.getCoordinate())).thenReturn(context);
+        when(pncManager.getArtifact(semconv.getCoordinate())).thenReturn(semconv);
+        when(pncManager.getBuildIdContainingArtifact(any())).thenReturn(pncBuild);
+        when(pncManager.getArtifactsInBuild(pncBuild.getId())).thenThrow(new PncException("Bad request", 400, null));
+        final List<PncBuild> failedListings = new CopyOnWriteArrayList<>();
+        final VerificationListener listener = new VerificationListener() {
+            @Override
+            public void buildListingFailed(PncBuild build, PncException error) {
+                failedListings.add(build);
+            }
+        };
+
+        final ChannelManifest manifest = new ChannelManifest.Builder()
+                .setSchemaVersion(ChannelManifestMapper.SCHEMA_VERSION_1_1_0)
+                .addStreams(new Stream("io.opentelemetry", "opentelemetry-context", "1.29.0"))
+                .addStreams(new Stream("io.opentelemetry", "opentelemetry-semconv", "1.29.0"))
+                .build();
+        final VerificationResult verificationResult = manifestVerifier.verifyComponents(manifest, VerificationBaseline.EMPTY, listener, false);
+
+        assertThat(failedListings).extracting(PncBuild::getId).containsExactly(pncBuild.getId());
+        verify(pncManager).getArtifact(semconv.getCoordinate());
+        assertThat(verificationResult.getResolutions()).hasSize(2);
+        assertThat(verificationResult.isComplete()).isTrue();
+    }
+
+    @Test
+    public void asyncLookupsAreInFlightTogether() {
+        final int streams = 50;
+        final AtomicInteger inFlight = new AtomicInteger();
+        final AtomicInteger maxInFlight = new AtomicInteger();
+        final Executor later = CompletableFuture.delayedExecutor(50, TimeUnit.MILLISECONDS);
+        // the lookups complete after a delay without holding a thread, none of the artifacts is in PNC
+        final AsyncPncManager asyncPncManager = new AsyncPncManager() {
+            @Override
+            public CompletableFuture<PncArtifact> getArtifact(ArtifactCoordinate coordinate) {
+                maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                return CompletableFuture.supplyAsync(() -> {
+                    inFlight.decrementAndGet();
+                    return null;
+                }, later);
+            }
+
+            @Override
+            public CompletableFuture<PncBuild> getBuildIdContainingArtifact(PncArtifact.Id artifactId) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public CompletableFuture<List<PncArtifact>> getArtifactsInBuild(PncBuild.Id buildId) {
+                throw new UnsupportedOperationException();
+            }
+        };
+
+        final ChannelManifest.Builder builder = new ChannelManifest.Builder()
+                .setSchemaVersion(ChannelManifestMapper.SCHEMA_VERSION_1_1_0);
+        for (int i = 0; i < streams; i++) {
+            builder.addStreams(new Stream("org.test", "artifact-" + i, "1.0.0"));
+        }
+
+        final VerificationResult verificationResult = new ManifestVerifier(asyncPncManager, streams, 1, new MetricsRegistry())
+                .verifyComponents(builder.build());
+
+        assertThat(maxInFlight.get()).isEqualTo(streams);
+        assertThat(verificationResult.isComplete()).isTrue();
+        assertThat(verificationResult.getWarnings())
+                .flatMap(Warning::getArtifactCoordinates)
+                .hasSize(streams);
+    }
+}
@@ -0,0 +1,104 @@
+package org.jboss.set.components;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.wildfly.channel.Stream;
+
+class StreamQueueTest {
+
+    @Test
+    public void streamsAreHandedOutRoundRobinByGroupId() {
+        final StreamQueue queue = new StreamQueue(List.of(
+                new Stream("org.small", "one", "1.0.0"),
+                new Stream("org.large", "one", "1.0.0"),
+                new Stream("org.medium", "one", "1.0.0"),
+                new Stream("org.large", "two", "1.0.0"),
+                new Stream("org.medium", "two", "1.0.0"),
+                new Stream("org.large", "three", "1.0.0")));
+
+        // the groupIds with the most streams come first
+        assertThat(queue.poll(10))
+                .map(StreamQueue::toGav)
+                .containsExactly(
+                        "org.large:one:1.0.0",
+                        "org.medium:one:1.0.0",
+                        "org.small:one:1.0.0",
+                        "org.large:two:1.0.0",
+                        "org.medium:two:1.0.0",
+                        "org.large:three:1.0.0");
+        assertThat(queue.poll(10)).isEmpty();
+    }
+
+    @Test
+    public void streamsCoveredByBuildAreDropped() {
+        final Stream context = new Stream("io.opentelemetry", "opentelemetry-context", "1.29.0");
+        final Stream semconv = new Stream("io.opentelemetry", "opentelemetry-semconv", "1.29.0");
+        final Stream api = new Stream("io.opentelemetry", "opentelemetry-api", "1.29.0");
+        final StreamQueue queue = new StreamQueue(List.of(context, semconv, api));
+
+        assertThat(queue.poll(1)).containsExactly(context);
+        // the build of the context lists the semconv
+        assertThat(queue.remove(StreamQueue.toGav(semconv))).isEqualTo(semconv);
+        assertThat(queue.remove(StreamQueue.toGav(semconv))).isNull();
+        assertThat(queue.remove(StreamQueue.toGav(context))).isNull();
+
+        assertThat(queue.poll(10)).containsExactly(api);
+    }
+
+    @Test
+    public void eachStreamIsTakenOnce() throws Exception {
+        final int streamCount = 10_000;
+        final List<Stream> streams = new ArrayList<>();
+        for (int i = 0; i < streamCount; i++) {
+            streams.add(new Stream("org.test" + i % 10, "artifact-" + i, "1.0.0"));
+        }
+        final StreamQueue queue = new StreamQueue(streams);
+        final Set<String> taken = ConcurrentHashMap.newKeySet();
+        final AtomicInteger takenCount = new AtomicInteger();
+
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final List<Future<?>> tasks = new ArrayList<>();
+            for (int t = 0; t < 2; t++) {
+                // the workers polling the queue
+                tasks.add(executor.submit(() -> {
+                    List<Stream> batch;
+                    while (!(batch = queue.poll(5)).isEmpty()) {
+                        for (Stream stream : batch) {
+                            taken.add(StreamQueue.toGav(stream));
+                            takenCount.incrementAndGet();
+                        }
+                    }
+                }));
+                // the listed builds removing the streams in the reverse order
+                tasks.add(executor.submit(() -> {
+                    for (int i = streamCount - 1; i >= 0; i--) {
+                        final Stream stream = queue.remove(StreamQueue.toGav(streams.get(i)));
+                        if (stream != null) {
+                            taken.add(StreamQueue.toGav(stream));
+                            takenCount.incrementAndGet();
+                        }
+                    }
+                }));
+            }
+            for (Future<?> task : tasks) {
+                task.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(takenCount.get()).isEqualTo(streamCount);
+        assertThat(taken).hasSize(streamCount);
+    }
+}
@@ -0,0 +1,53 @@
+package org.jboss.set.components;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.wildfly.channel.ChannelManifest;
+import org.wildfly.channel.ChannelManifestMapper;
+
+class VerificationBaselineTest {
+
+    private static final ChannelManifest MANIFEST = new ChannelManifest.Builder()
+            .setSchemaVersion(ChannelManifestMapper.SCHEMA_VERSION_1_1_0)
+            .build();
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void negativeCountIsRejected() throws Exception {
+        final Path resultFile = writeResult(-1, -1);
+
+        assertThatThrownBy(() -> VerificationBaseline.load(MANIFEST, resultFile))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("Invalid number of entries");
+    }
+
+    @Test
+    public void unknownStatusIsRejected() throws Exception {
+        final Path resultFile = writeResult(1, 42);
+
+        assertThatThrownBy(() -> VerificationBaseline.load(MANIFEST, resultFile))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("Unknown resolution status");
+    }
+
+    private Path writeResult(int count, int status) throws IOException {
+        final Path resultFile = tempDir.resolve("result.bin");
+        try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(resultFile))) {
+            // "PNCR"
+            out.writeInt(0x504E4352);
+            out.writeInt(VerificationBaseline.VERSION);
+            out.writeInt(count);
+            out.writeByte(status);
+        }
+        return resultFile;
+    }
+}
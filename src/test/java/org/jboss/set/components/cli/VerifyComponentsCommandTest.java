@@ -0,0 +1,91 @@
+package org.jboss.set.components.cli;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.jboss.set.components.pnc.PncArtifact;
+import org.jboss.set.components.pnc.PncBuild;
+import org.jboss.set.components.pnc.PncComponent;
+import org.jboss.set.components.pnc.PncManager;
+import org.jboss.set.components.pnc.PncResolution;
+import org.jboss.set.components.pnc.RecordingPncManager;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.wildfly.channel.ArtifactCoordinate;
+import org.wildfly.channel.ChannelManifest;
+import org.wildfly.channel.ChannelManifestMapper;
+import org.wildfly.channel.Stream;
+import picocli.CommandLine;
+
+@ExtendWith(MockitoExtension.class)
+class VerifyComponentsCommandTest {
+
+    private static final ArtifactCoordinate COORDINATE = new ArtifactCoordinate("io.opentelemetry", "opentelemetry-context", null, null, "1.29.0");
+    private static final PncArtifact ARTIFACT = new PncArtifact(
+            new PncArtifact.Id("abcd"),
+            new ArtifactCoordinate("io.opentelemetry", "opentelemetry-context", "jar", null, "1.29.0"),
+            false);
+    private static final PncBuild BUILD = new PncBuild(new PncBuild.Id("build_1"), new PncComponent("opentelemetry"), true);
+
+    @TempDir
+    Path tempDir;
+
+    @Mock
+    private PncManager delegate;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    public void standardOutputContainsOnlyTheReport() throws Exception {
+        when(delegate.resolve(COORDINATE)).thenReturn(PncResolution.built(COORDINATE, ARTIFACT, BUILD));
+        when(delegate.getArtifactsInBuild(BUILD.getId())).thenReturn(List.of(ARTIFACT));
+        final Path snapshot = tempDir.resolve("snapshot.bin");
+        try (RecordingPncManager recordingPncManager = new RecordingPncManager(delegate, snapshot)) {
+            recordingPncManager.resolve(COORDINATE);
+            recordingPncManager.getArtifactsInBuild(BUILD.getId());
+        }
+        final Path manifest = tempDir.resolve("manifest.yaml");
+        Files.writeString(manifest, ChannelManifestMapper.toYaml(new ChannelManifest.Builder()
+                .setSchemaVersion(ChannelManifestMapper.SCHEMA_VERSION_1_1_0)
+                .addStreams(new Stream("io.opentelemetry", "opentelemetry-context", "1.29.0"))
+                .build()));
+        final Path result = tempDir.resolve("result.json");
+
+        final JsonNode report = mapper.readTree(execute("--manifest-url", manifest.toUri().toString(), "--snapshot", snapshot.toString(),
+                "--output-format", "json", "--metrics", "--save-result", result.toString()));
+        assertThat(report.get("manifests").get(0).get("complete").asBoolean()).isTrue();
+
+        // the streams re-used from the baseline are reported too
+        final JsonNode incrementalReport = mapper.readTree(execute("--manifest-url", manifest.toUri().toString(), "--snapshot", snapshot.toString(),
+                "--output-format", "json", "--metrics", "--baseline-manifest", manifest.toUri().toString(), "--baseline-result", result.toString()));
+        assertThat(incrementalReport.get("manifests").get(0).get("violations")).isEmpty();
+    }
+
+    private static byte[] execute(String... args) {
+        final ByteArrayOutputStream stdout = new ByteArrayOutputStream();
+        final PrintStream originalOut = System.out;
+        System.setOut(new PrintStream(stdout, true, StandardCharsets.UTF_8));
+        final int exitCode;
+        try {
+            exitCode = new CommandLine(new VerifyComponentsCommand())
+                    .setCaseInsensitiveEnumValuesAllowed(true)
+                    .execute(args);
+        } finally {
+            System.setOut(originalOut);
+        }
+        assertThat(exitCode).isEqualTo(CliConstants.ReturnCodes.SUCCESS);
+        return stdout.toByteArray();
+    }
+}
@@ -0,0 +1,57 @@
+package org.jboss.set.components.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.StringWriter;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+class MetricsRegistryTest {
+
+    private final MetricsRegistry registry = new MetricsRegistry();
+
+    @Test
+    public void metersAreIdentifiedByNameAndTags() {
+        final Counter counter = registry.counter("requests", "method", "get");
+
+        assertThat(registry.counter("requests", "method", "get")).isSameAs(counter);
+        assertThat(registry.counter("requests", "method", "put")).isNotSameAs(counter);
+        assertThatThrownBy(() -> registry.timer("requests", "method", "get"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void timerEstimatesPercentilesFromBuckets() {
+        final Timer timer = registry.timer("latency");
+        for (int i = 0; i < 90; i++) {
+            timer.record(TimeUnit.MICROSECONDS.toNanos(500));
+        }
+        for (int i = 0; i < 10; i++) {
+            timer.record(TimeUnit.MILLISECONDS.toNanos(40));
+        }
+
+        assertThat(timer.count()).isEqualTo(100);
+        assertThat(timer.percentileMillis(0.5)).isEqualTo(1.0);
+        assertThat(timer.percentileMillis(0.95)).isEqualTo(40.0);
+        assertThat(timer.maxMillis()).isEqualTo(40.0);
+    }
+
+    @Test
+    public void writesPrometheusTextFormat() throws Exception {
+        registry.counter("cache.lookups", "result", "hit").increment(3);
+        registry.gauge("in_flight", () -> 2);
+        registry.timer("pnc.requests", "method", "resolve").record(TimeUnit.MILLISECONDS.toNanos(3));
+
+        final StringWriter out = new StringWriter();
+        PrometheusFormat.write(registry, out);
+
+        assertThat(out.toString())
+                .contains("# TYPE cache_lookups_total counter\ncache_lookups_total{result=\"hit\"} 3\n")
+                .contains("in_flight 2\n")
+                .contains("pnc_requests_seconds_bucket{method=\"resolve\",le=\"0.002\"} 0\n")
+                .contains("pnc_requests_seconds_bucket{method=\"resolve\",le=\"0.005\"} 1\n")
+                .contains("pnc_requests_seconds_count{method=\"resolve\"} 1\n");
+    }
+}
@@ -0,0 +1,151 @@
+package org.jboss.set.components.pnc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.wildfly.channel.ArtifactCoordinate;
+
+@ExtendWith(MockitoExtension.class)
+class CoalescingPncManagerTest {
+
+    private static final PncBuild.Id BUILD_ID = new PncBuild.Id("build_1");
+    private static final List<PncArtifact> BUILT_ARTIFACTS = List.of(new PncArtifact(
+            new PncArtifact.Id("abcd"),
+            new ArtifactCoordinate("io.opentelemetry", "opentelemetry-context", "jar", null, "1.29.0"),
+            false));
+
+    @Mock
+    private PncManager delegate;
+
+    @Test
+    public void concurrentLookupsOfTheSameBuildAreCoalesced() throws Exception {
+        final CountDownLatch lookupStarted = new CountDownLatch(1);
+        final CountDownLatch releaseLookup = new CountDownLatch(1);
+        when(delegate.getArtifactsInBuild(BUILD_ID)).thenAnswer(i -> {
+            lookupStarted.countDown();
+            releaseLookup.await();
+            return BUILT_ARTIFACTS;
+        });
+        final CoalescingPncManager pncManager = new CoalescingPncManager(delegate);
+
+        final CompletableFuture<List<PncArtifact>> first = new CompletableFuture<>();
+        final Thread firstCaller = new Thread(() -> first.complete(pncManager.getArtifactsInBuild(new PncBuild.Id("build_1"))));
+        firstCaller.start();
+        assertThat(lookupStarted.await(10, TimeUnit.SECONDS)).isTrue();
+
+        final CompletableFuture<List<PncArtifact>> second = new CompletableFuture<>();
+        final Thread secondCaller = new Thread(() -> second.complete(pncManager.getArtifactsInBuild(new PncBuild.Id("build_1"))));
+        secondCaller.start();
+        waitUntilParked(secondCaller);
+
+        releaseLookup.countDown();
+
+        assertThat(first.get(10, TimeUnit.SECONDS)).isEqualTo(BUILT_ARTIFACTS);
+        assertThat(second.get(10, TimeUnit.SECONDS)).isEqualTo(BUILT_ARTIFACTS);
+        verify(delegate, times(1)).getArtifactsInBuild(BUILD_ID);
+    }
+
+    @Test
+    public void cancelledCallerDoesNotFailTheWaitingOnes() throws Exception {
+        final CountDownLatch lookupStarted = new CountDownLatch(1);
+        when(delegate.getArtifactsInBuild(BUILD_ID)).thenAnswer(i -> {
+            lookupStarted.countDown();
+            try {
+                new CountDownLatch(1).await();
+                return null;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new PncException("Interrupted", PncException.UNKNOWN_STATUS, e);
+            }
+        }).thenReturn(BUILT_ARTIFACTS);
+        final CoalescingPncManager pncManager = new CoalescingPncManager(delegate);
+
+        final CompletableFuture<List<PncArtifact>> first = new CompletableFuture<>();
+        final Thread firstCaller = new Thread(() -> {
+            try {
+                first.complete(pncManager.getArtifactsInBuild(BUILD_ID));
+            } catch (PncException e) {
+                first.completeExceptionally(e);
+            }
+        });
+        firstCaller.start();
+        assertThat(lookupStarted.await(10, TimeUnit.SECONDS)).isTrue();
+
+        final CompletableFuture<List<PncArtifact>> second = new CompletableFuture<>();
+        final Thread secondCaller = new Thread(() -> second.complete(pncManager.getArtifactsInBuild(BUILD_ID)));
+        secondCaller.start();
+        waitUntilParked(secondCaller);
+
+        firstCaller.interrupt();
+
+        assertThat(first).failsWithin(10, TimeUnit.SECONDS);
+        // the waiting caller sends the lookup again instead of failing with the cancelled one
+        assertThat(second.get(10, TimeUnit.SECONDS)).isEqualTo(BUILT_ARTIFACTS);
+        verify(delegate, times(2)).getArtifactsInBuild(BUILD_ID);
+    }
+
+    @Test
+    public void batchJoinsTheLookupsInProgress() throws Exception {
+        final ArtifactCoordinate context = new ArtifactCoordinate("io.opentelemetry", "opentelemetry-context", null, null, "1.29.0");
+        final ArtifactCoordinate semconv = new ArtifactCoordinate("io.opentelemetry", "opentelemetry-semconv", null, null, "1.29.0.alpha");
+        final PncResolution contextResolution = PncResolution.missing(context);
+        final PncResolution semconvResolution = PncResolution.missing(semconv);
+        final CountDownLatch lookupStarted = new CountDownLatch(1);
+        final CountDownLatch releaseLookup = new CountDownLatch(1);
+        when(delegate.resolve(context)).thenAnswer(i -> {
+            lookupStarted.countDown();
+            releaseLookup.await();
+            return contextResolution;
+        });
+        when(delegate.resolveAll(List.of(semconv))).thenReturn(List.of(semconvResolution));
+        final CoalescingPncManager pncManager = new CoalescingPncManager(delegate);
+
+        final CompletableFuture<PncResolution> single = new CompletableFuture<>();
+        final Thread singleCaller = new Thread(() -> single.complete(pncManager.resolve(context)));
+        singleCaller.start();
+        assertThat(lookupStarted.await(10, TimeUnit.SECONDS)).isTrue();
+
+        final CompletableFuture<List<PncResolution>> batch = new CompletableFuture<>();
+        final Thread batchCaller = new Thread(() -> batch.complete(pncManager.resolveAll(List.of(context, semconv))));
+        batchCaller.start();
+        waitUntilParked(batchCaller);
+
+        releaseLookup.countDown();
+
+        assertThat(single.get(10, TimeUnit.SECONDS)).isSameAs(contextResolution);
+        assertThat(batch.get(10, TimeUnit.SECONDS)).containsExactly(contextResolution, semconvResolution);
+        // only the coordinate nobody was resolving is sent in the batch
+        verify(delegate, times(1)).resolve(context);
+        verify(delegate, times(1)).resolveAll(List.of(semconv));
+    }
+
+    @Test
+    public void completedLookupsAreNotCached() {
+        when(delegate.getArtifactsInBuild(BUILD_ID)).thenReturn(BUILT_ARTIFACTS);
+        final CoalescingPncManager pncManager = new CoalescingPncManager(delegate);
+
+        pncManager.getArtifactsInBuild(BUILD_ID);
+        pncManager.getArtifactsInBuild(BUILD_ID);
+
+        verify(delegate, times(2)).getArtifactsInBuild(BUILD_ID);
+    }
+
+    private static void waitUntilParked(Thread thread) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + 10_000;
+        while (thread.getState() != Thread.State.WAITING && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(thread.getState()).isEqualTo(Thread.State.WAITING);
+    }
+}
@@ -0,0 +1,77 @@
+package org.jboss.set.components.pnc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jboss.set.components.metrics.MetricsRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class HedgingPncManagerTest {
+
+    private static final PncBuild.Id BUILD_ID = new PncBuild.Id("build_1");
+
+    @Mock
+    private PncManager delegate;
+
+    private final MetricsRegistry metrics = new MetricsRegistry();
+
+    @Test
+    public void slowCallIsHedged() {
+        final AtomicInteger calls = new AtomicInteger();
+        final int slowCall = HedgingPncManager.MIN_SAMPLES + 1;
+        when(delegate.getArtifactsInBuild(BUILD_ID)).thenAnswer(i -> {
+            // the first call after the warm-up hangs, its hedge answers right away
+            if (calls.incrementAndGet() == slowCall) {
+                Thread.sleep(10_000);
+            }
+            return List.of();
+        });
+
+        try (HedgingPncManager pncManager = new HedgingPncManager(delegate, 0.9, 0.5, metrics)) {
+            final long start = System.nanoTime();
+            for (int i = 0; i < slowCall; i++) {
+                assertThat(pncManager.getArtifactsInBuild(BUILD_ID)).isEmpty();
+            }
+
+            assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(5));
+        }
+        verify(delegate, times(slowCall + 1)).getArtifactsInBuild(BUILD_ID);
+        assertThat(metrics.counter(HedgingPncManager.HEDGES, "method", "getArtifactsInBuild", "result", "won").count()).isEqualTo(1);
+    }
+
+    @Test
+    public void callsAreNotHedgedWithoutBudget() {
+        when(delegate.getArtifactsInBuild(BUILD_ID)).thenReturn(List.of());
+
+        try (HedgingPncManager pncManager = new HedgingPncManager(delegate, 0.5, 0, metrics)) {
+            for (int i = 0; i < HedgingPncManager.MIN_SAMPLES * 2; i++) {
+                pncManager.getArtifactsInBuild(BUILD_ID);
+            }
+        }
+
+        verify(delegate, times(HedgingPncManager.MIN_SAMPLES * 2)).getArtifactsInBuild(BUILD_ID);
+        assertThat(metrics.counter(HedgingPncManager.HEDGES, "method", "getArtifactsInBuild", "result", "sent").count()).isZero();
+    }
+
+    @Test
+    public void failureIsPropagated() {
+        when(delegate.getArtifactsInBuild(BUILD_ID)).thenThrow(new PncException("Bad request", 400, null));
+
+        try (HedgingPncManager pncManager = new HedgingPncManager(delegate, 0.9, 0.5, metrics)) {
+            assertThatThrownBy(() -> pncManager.getArtifactsInBuild(BUILD_ID))
+                    .isInstanceOf(PncException.class)
+                    .satisfies(e -> assertThat(((PncException) e).getStatus()).isEqualTo(400));
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package org.jboss.set.components.pnc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.wildfly.channel.ArtifactCoordinate;
+
+class LightweightPncManagerTest {
+
+    private static final ArtifactCoordinate COORDINATE = new ArtifactCoordinate("org.foo", "bar", "jar", null, "1.0.0.redhat-00001");
+    // the requests to this build don't get a response until the test ends
+    private static final String HANGING_BUILD = "hanging";
+
+    // path and query to the response body
+    private final Map<String, String> responses = new ConcurrentHashMap<>();
+    private final CountDownLatch hangingRequests = new CountDownLatch(1);
+    private HttpServer server;
+    private LightweightPncManager pncManager;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext(HttpAsyncPncManager.BASE_PATH, this::respond);
+        server.start();
+        pncManager = new LightweightPncManager(pncUrl());
+    }
+
+    @AfterEach
+    public void tearDown() {
+        hangingRequests.countDown();
+        pncManager.close();
+        server.stop(0);
+    }
+
+    @Test
+    public void builtArtifactIsResolvedToBuild() {
+        responses.put("/artifacts/filter?identifier=org.foo:bar:*:1.0.0.redhat-00001&pageSize=1",
+                page(1, "{\"id\":\"100\",\"identifier\":\"org.foo:bar:jar:1.0.0.redhat-00001\",\"md5\":\"abc\"}"));
+        responses.put("/artifacts/100", "{\"id\":\"100\",\"identifier\":\"org.foo:bar:jar:1.0.0.redhat-00001\"," +
+                "\"targetRepository\":{\"id\":\"1\",\"repositoryPath\":\"/api\"},\"originUrl\":null,\"build\":{\"id\":\"B1\",\"status\":\"SUCCESS\"}}");
+        responses.put("/builds/B1", "{\"id\":\"B1\",\"environment\":{\"attributes\":{\"OS\":\"linux\"}}," +
+                "\"attributes\":{\"BUILD_TYPE\":\"MVN\",\"BREW_BUILD_NAME\":\"org.foo-bar\"}}");
+
+        final PncResolution resolution = pncManager.resolve(COORDINATE);
+
+        assertThat(resolution.getStatus()).isEqualTo(PncResolution.Status.BUILT);
+        assertThat(resolution.getArtifact().getId()).isEqualTo(new PncArtifact.Id("100"));
+        assertThat(resolution.getArtifact().getCoordinate().getExtension()).isEqualTo("jar");
+        assertThat(resolution.getBuild().getId()).isEqualTo(new PncBuild.Id("B1"));
+        assertThat(resolution.getBuild().getBrewComponent().getName()).isEqualTo("org.foo-bar");
+    }
+
+    @Test
+    public void artifactWithOriginIsImported() {
+        responses.put("/artifacts/filter?identifier=org.foo:bar:*:1.0.0.redhat-00001&pageSize=1",
+                page(1, "{\"id\":\"100\",\"identifier\":\"org.foo:bar:jar:1.0.0.redhat-00001\"}"));
+        responses.put("/artifacts/100", "{\"id\":\"100\",\"identifier\":\"org.foo:bar:jar:1.0.0.redhat-00001\"," +
+                "\"originUrl\":\"https://repo1.maven.org/maven2/org/foo/bar\",\"build\":null}");
+
+        assertThat(pncManager.getArtifact(COORDINATE).isImported()).isTrue();
+        assertThat(pncManager.resolve(COORDINATE).getStatus()).isEqualTo(PncResolution.Status.IMPORTED);
+    }
+
+    @Test
+    public void unknownArtifactIsMissing() {
+        responses.put("/artifacts/filter?identifier=org.foo:bar:*:1.0.0.redhat-00001&pageSize=1", page(0));
+
+        assertThat(pncManager.getArtifact(COORDINATE)).isNull();
+        assertThat(pncManager.resolve(COORDINATE).getStatus()).isEqualTo(PncResolution.Status.MISSING);
+    }
+
+    @Test
+    public void builtArtifactsAreReadFromAllPages() {
+        responses.put("/builds/B1/artifacts/built?pageSize=" + PncManagerImpl.DEFAULT_PAGE_SIZE + "&pageIndex=0",
+                page(2, "{\"id\":\"1\",\"identifier\":\"org.foo:bar:jar:1.0.0\"}", "{\"id\":\"2\",\"identifier\":\"org.foo:bar:pom:1.0.0\"}"));
+        responses.put("/builds/B1/artifacts/built?pageSize=" + PncManagerImpl.DEFAULT_PAGE_SIZE + "&pageIndex=1",
+                page(2, "{\"id\":\"3\",\"identifier\":\"org.foo:bar:jar:1.0.0:sources\"}"));
+
+        final List<PncArtifact> artifacts = pncManager.getArtifactsInBuild(new PncBuild.Id("B1"));
+
+        assertThat(artifacts).extracting(a -> a.getId().getId()).containsExactly("1", "2", "3");
+        assertThat(artifacts.get(2).getCoordinate().getClassifier()).isEqualTo("sources");
+    }
+
+    @Test
+    public void builtArtifactsAreReadWithConfiguredPageSize() throws Exception {
+        responses.put("/builds/B1/artifacts/built?pageSize=1&pageIndex=0",
+                page(2, "{\"id\":\"1\",\"identifier\":\"org.foo:bar:jar:1.0.0\"}"));
+        responses.put("/builds/B1/artifacts/built?pageSize=1&pageIndex=1",
+                page(2, "{\"id\":\"2\",\"identifier\":\"org.foo:bar:pom:1.0.0\"}"));
+
+        try (LightweightPncManager smallPages = new LightweightPncManager(pncUrl(), 1)) {
+            assertThat(smallPages.getArtifactsInBuild(new PncBuild.Id("B1")))
+                    .extracting(a -> a.getId().getId())
+                    .containsExactly("1", "2");
+        }
+    }
+
+    @Test
+    public void batchIsResolvedWithSingleQuery() {
+        final ArtifactCoordinate missing = new ArtifactCoordinate("org.foo", "missing", "jar", null, "1.0.0");
+        final ArtifactCoordinate ungrouped = new ArtifactCoordinate("org.foo", "ungrouped", "jar", null, "1.0.0");
+        final String query = "identifier=like=\"org.foo:bar:%:1.0.0.redhat-00001\",identifier=like=\"org.foo:missing:%:1.0.0\"," +
+                "identifier=like=\"org.foo:ungrouped:%:1.0.0\"";
+        responses.put("/artifacts?q=" + query + "&pageSize=" + PncManagerImpl.DEFAULT_PAGE_SIZE + "&pageIndex=0",
+                page(1, "{\"id\":\"100\",\"identifier\":\"org.foo:bar:jar:1.0.0.redhat-00001\",\"build\":{\"id\":\"B1\"}}",
+                        "{\"id\":\"101\",\"identifier\":\"org.foo:bar:pom:1.0.0.redhat-00001\",\"build\":{\"id\":\"B1\"}}",
+                        "{\"id\":\"200\",\"identifier\":\"org.foo:ungrouped:jar:1.0.0\",\"originUrl\":\"\"}"));
+        responses.put("/builds/B1", "{\"id\":\"B1\",\"attributes\":{\"BREW_BUILD_NAME\":\"org.foo-bar\"}}");
+
+        final List<PncResolution> resolutions = pncManager.resolveAll(List.of(COORDINATE, missing, ungrouped));
+
+        assertThat(resolutions).extracting(PncResolution::getStatus)
+                .containsExactly(PncResolution.Status.BUILT, PncResolution.Status.MISSING, PncResolution.Status.UNGROUPED);
+        assertThat(resolutions.get(0).getArtifact().getId()).isEqualTo(new PncArtifact.Id("100"));
+        assertThat(resolutions.get(0).getBuild().getBrewComponent().getName()).isEqualTo("org.foo-bar");
+    }
+
+    @Test
+    public void coordinatesSharingGavAreQueriedOnce() {
+        final ArtifactCoordinate pom = new ArtifactCoordinate("org.foo", "bar", "pom", null, "1.0.0.redhat-00001");
+        responses.put("/artifacts?q=identifier=like=\"org.foo:bar:%:1.0.0.redhat-00001\"&pageSize=" + PncManagerImpl.DEFAULT_PAGE_SIZE + "&pageIndex=0",
+                page(1, "{\"id\":\"100\",\"identifier\":\"org.foo:bar:jar:1.0.0.redhat-00001\",\"build\":{\"id\":\"B1\"}}"));
+        responses.put("/builds/B1", "{\"id\":\"B1\",\"attributes\":{\"BREW_BUILD_NAME\":\"org.foo-bar\"}}");
+
+        final List<PncResolution> resolutions = pncManager.resolveAll(List.of(COORDINATE, pom));
+
+        // both coordinates get the resolution of the single matched artifact
+        assertThat(resolutions).extracting(PncResolution::getCoordinate).containsExactly(COORDINATE, pom);
+        assertThat(resolutions).extracting(r -> r.getArtifact().getId()).containsOnly(new PncArtifact.Id("100"));
+    }
+
+    @Test
+    public void errorStatusIsReported() {
+        assertThatThrownBy(() -> pncManager.getArtifactsInBuild(new PncBuild.Id("unknown")))
+                .isInstanceOf(PncException.class)
+                .satisfies(e -> assertThat(((PncException) e).getStatus()).isEqualTo(404));
+    }
+
+    @Test
+    public void hangingRequestTimesOut() throws Exception {
+        try (LightweightPncManager impatient = new LightweightPncManager(pncUrl(), PncManagerImpl.DEFAULT_PAGE_SIZE, Duration.ofMillis(200))) {
+            assertThatThrownBy(() -> impatient.getArtifactsInBuild(new PncBuild.Id(HANGING_BUILD)))
+                    .isInstanceOf(PncException.class)
+                    .satisfies(e -> assertThat(PncException.isRetryable(e)).isTrue());
+        }
+    }
+
+    private URL pncUrl() throws MalformedURLException {
+        return new URL("http://localhost:" + server.getAddress().getPort());
+    }
+
+    private static String page(int totalPages, String... artifacts) {
+        return "{\"pageIndex\":0,\"pageSize\":" + artifacts.length + ",\"totalPages\":" + totalPages +
+                ",\"totalHits\":" + artifacts.length + ",\"content\":[" + String.join(",", artifacts) + "]}";
+    }
+
+    private void respond(HttpExchange exchange) throws IOException {
+        final String path = exchange.getRequestURI().getPath().substring(HttpAsyncPncManager.BASE_PATH.length());
+        final String query = exchange.getRequestURI().getQuery();
+        if (path.startsWith("/builds/" + HANGING_BUILD)) {
+            try {
+                hangingRequests.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        final String body = responses.get(query == null ? path : path + "?" + query);
+        if (body == null) {
+            exchange.sendResponseHeaders(404, -1);
+            exchange.close();
+            return;
+        }
+        // the client has to ask for the compressed responses
+        if (!"gzip".equals(exchange.getRequestHeaders().getFirst("Accept-Encoding"))) {
+            exchange.sendResponseHeaders(406, -1);
+            exchange.close();
+            return;
+        }
+
+        final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (OutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(body.getBytes(StandardCharsets.UTF_8));
+        }
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+        exchange.sendResponseHeaders(200, compressed.size());
+        try (OutputStream out = exchange.getResponseBody()) {
+            compressed.writeTo(out);
+        }
+    }
+}
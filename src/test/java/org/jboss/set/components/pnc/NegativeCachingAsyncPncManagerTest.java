@@ -0,0 +1,65 @@
+package org.jboss.set.components.pnc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.jboss.set.components.metrics.MetricsRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.wildfly.channel.ArtifactCoordinate;
+
+@ExtendWith(MockitoExtension.class)
+class NegativeCachingAsyncPncManagerTest {
+
+    private static final ArtifactCoordinate MISSING = new ArtifactCoordinate("org.community", "missing", null, null, "1.0.0");
+    private static final ArtifactCoordinate BUILT = new ArtifactCoordinate("org.test", "built", null, null, "1.0.0");
+    private static final PncArtifact BUILT_ARTIFACT = new PncArtifact(new PncArtifact.Id("abcd"), BUILT, false);
+    private static final PncBuild BUILD = new PncBuild(new PncBuild.Id("build_1"), new PncComponent("test"), true);
+
+    @Mock
+    private AsyncPncManager delegate;
+
+    private final AtomicLong clock = new AtomicLong();
+
+    @Test
+    public void missingArtifactsAreCachedUntilTtl() {
+        when(delegate.resolve(MISSING)).thenReturn(CompletableFuture.completedFuture(PncResolution.missing(MISSING)));
+        final NegativeCachingAsyncPncManager pncManager = newManager();
+
+        assertThat(pncManager.resolve(MISSING).join().getStatus()).isEqualTo(PncResolution.Status.MISSING);
+        assertThat(pncManager.resolve(MISSING).join().getStatus()).isEqualTo(PncResolution.Status.MISSING);
+        verify(delegate, times(1)).resolve(MISSING);
+
+        clock.addAndGet(Duration.ofMinutes(61).toNanos());
+        pncManager.resolve(MISSING).join();
+        verify(delegate, times(2)).resolve(MISSING);
+    }
+
+    @Test
+    public void batchesLookUpOnlyUncachedArtifacts() {
+        when(delegate.resolve(MISSING)).thenReturn(CompletableFuture.completedFuture(PncResolution.missing(MISSING)));
+        when(delegate.resolveAll(List.of(BUILT)))
+                .thenReturn(CompletableFuture.completedFuture(List.of(PncResolution.built(BUILT, BUILT_ARTIFACT, BUILD))));
+        final NegativeCachingAsyncPncManager pncManager = newManager();
+        pncManager.resolve(MISSING).join();
+
+        final List<PncResolution> resolutions = pncManager.resolveAll(List.of(MISSING, BUILT)).join();
+
+        assertThat(resolutions).extracting(PncResolution::getStatus)
+                .containsExactly(PncResolution.Status.MISSING, PncResolution.Status.BUILT);
+        assertThat(pncManager.size()).isEqualTo(1);
+    }
+
+    private NegativeCachingAsyncPncManager newManager() {
+        return new NegativeCachingAsyncPncManager(delegate, 10, Duration.ofHours(1), new MetricsRegistry(), clock::get);
+    }
+}
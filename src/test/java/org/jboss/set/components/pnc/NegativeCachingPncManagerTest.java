@@ -0,0 +1,89 @@
+package org.jboss.set.components.pnc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.jboss.set.components.metrics.MetricsRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.wildfly.channel.ArtifactCoordinate;
+
+@ExtendWith(MockitoExtension.class)
+class NegativeCachingPncManagerTest {
+
+    private static final ArtifactCoordinate MISSING = new ArtifactCoordinate("org.community", "missing", null, null, "1.0.0");
+    private static final ArtifactCoordinate BUILT = new ArtifactCoordinate("org.test", "built", null, null, "1.0.0");
+    private static final PncArtifact BUILT_ARTIFACT = new PncArtifact(new PncArtifact.Id("abcd"), BUILT, false);
+    private static final PncBuild BUILD = new PncBuild(new PncBuild.Id("build_1"), new PncComponent("test"), true);
+
+    @Mock
+    private PncManager delegate;
+
+    private final AtomicLong clock = new AtomicLong();
+
+    @Test
+    public void missingArtifactsAreCachedUntilTtl() {
+        when(delegate.resolve(MISSING)).thenReturn(PncResolution.missing(MISSING));
+        final NegativeCachingPncManager pncManager = newManager(10);
+
+        assertThat(pncManager.resolve(MISSING).getStatus()).isEqualTo(PncResolution.Status.MISSING);
+        clock.addAndGet(Duration.ofMinutes(59).toNanos());
+        assertThat(pncManager.resolve(MISSING).getStatus()).isEqualTo(PncResolution.Status.MISSING);
+        verify(delegate, times(1)).resolve(MISSING);
+
+        clock.addAndGet(Duration.ofMinutes(2).toNanos());
+        pncManager.resolve(MISSING);
+        verify(delegate, times(2)).resolve(MISSING);
+    }
+
+    @Test
+    public void builtArtifactsAreNotCached() {
+        when(delegate.resolve(BUILT)).thenReturn(PncResolution.built(BUILT, BUILT_ARTIFACT, BUILD));
+        final NegativeCachingPncManager pncManager = newManager(10);
+
+        pncManager.resolve(BUILT);
+        pncManager.resolve(BUILT);
+
+        verify(delegate, times(2)).resolve(BUILT);
+    }
+
+    @Test
+    public void batchesLookUpOnlyUncachedArtifacts() {
+        when(delegate.resolve(MISSING)).thenReturn(PncResolution.missing(MISSING));
+        when(delegate.resolveAll(List.of(BUILT))).thenReturn(List.of(PncResolution.built(BUILT, BUILT_ARTIFACT, BUILD)));
+        final NegativeCachingPncManager pncManager = newManager(10);
+        pncManager.resolve(MISSING);
+
+        final List<PncResolution> resolutions = pncManager.resolveAll(List.of(MISSING, BUILT));
+
+        assertThat(resolutions).extracting(PncResolution::getStatus)
+                .containsExactly(PncResolution.Status.MISSING, PncResolution.Status.BUILT);
+    }
+
+    @Test
+    public void leastRecentlyUsedEntriesAreEvicted() {
+        when(delegate.getArtifact(any())).thenReturn(null);
+        final NegativeCachingPncManager pncManager = newManager(2);
+
+        for (int i = 0; i < 3; i++) {
+            pncManager.getArtifact(new ArtifactCoordinate("org.community", "missing-" + i, null, null, "1.0.0"));
+        }
+        pncManager.getArtifact(new ArtifactCoordinate("org.community", "missing-0", null, null, "1.0.0"));
+
+        assertThat(pncManager.size()).isEqualTo(2);
+        verify(delegate, times(4)).getArtifact(any());
+    }
+
+    private NegativeCachingPncManager newManager(int maxEntries) {
+        return new NegativeCachingPncManager(delegate, maxEntries, Duration.ofHours(1), new MetricsRegistry(), clock::get);
+    }
+}
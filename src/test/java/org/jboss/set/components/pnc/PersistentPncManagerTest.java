@@ -0,0 +1,162 @@
+package org.jboss.set.components.pnc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.wildfly.channel.ArtifactCoordinate;
+
+@ExtendWith(MockitoExtension.class)
+class PersistentPncManagerTest {
+
+    @TempDir
+    Path cacheDir;
+
+    @Mock
+    private PncManager delegate;
+
+    @Mock
+    private PncManager offlineDelegate;
+
+    @Test
+    public void builtArtifactsAreReadFromTheCacheInFollowingRuns() {
+        final PncArtifact context = new PncArtifact(
+                new PncArtifact.Id("abcd"),
+                new ArtifactCoordinate("io.opentelemetry", "opentelemetry-context", "jar", null, "1.29.0"),
+                false);
+        final PncArtifact semconv = new PncArtifact(
+                new PncArtifact.Id("efgh"),
+                new ArtifactCoordinate("io.opentelemetry", "opentelemetry-semconv", "jar", null, "1.29.0.alpha"),
+                false);
+        final PncBuild build = new PncBuild(new PncBuild.Id("build_1"), new PncComponent("opentelemetry"), true);
+        final ArtifactCoordinate streamCoordinate = new ArtifactCoordinate("io.opentelemetry", "opentelemetry-context", null, null, "1.29.0");
+        when(delegate.getArtifact(streamCoordinate)).thenReturn(context);
+        when(delegate.getBuildIdContainingArtifact(context.getId())).thenReturn(build);
+        when(delegate.getArtifactsInBuild(build.getId())).thenReturn(List.of(context, semconv));
+
+        try (PersistentPncManager firstRun = new PersistentPncManager(delegate, cacheDir)) {
+            firstRun.getArtifact(streamCoordinate);
+            firstRun.getBuildIdContainingArtifact(context.getId());
+            firstRun.getArtifactsInBuild(build.getId());
+            assertThat(firstRun.getMisses()).isEqualTo(3);
+        }
+
+        try (PersistentPncManager secondRun = new PersistentPncManager(offlineDelegate, cacheDir)) {
+            final PncArtifact artifact = secondRun.getArtifact(
+                    new ArtifactCoordinate("io.opentelemetry", "opentelemetry-semconv", null, null, "1.29.0.alpha"));
+            assertThat(artifact.getId()).isEqualTo(semconv.getId());
+            assertThat(artifact.getCoordinate()).isEqualTo(semconv.getCoordinate());
+
+            final PncBuild cachedBuild = secondRun.getBuildIdContainingArtifact(semconv.getId());
+            assertThat(cachedBuild.getId()).isEqualTo(build.getId());
+            assertThat(cachedBuild.getBrewComponent()).isEqualTo(build.getBrewComponent());
+
+            assertThat(secondRun.getArtifactsInBuild(build.getId()))
+                    .map(PncArtifact::getId)
+                    .containsExactly(context.getId(), semconv.getId());
+            assertThat(secondRun.getHits()).isEqualTo(3);
+            assertThat(secondRun.getMisses()).isZero();
+        }
+        verifyNoInteractions(offlineDelegate);
+    }
+
+    @Test
+    public void importedArtifactsAreNotCached() {
+        final ArtifactCoordinate coordinate = new ArtifactCoordinate("org.test", "imported", null, null, "1.0.0");
+        when(delegate.getArtifact(coordinate)).thenReturn(new PncArtifact(new PncArtifact.Id("ijkl"), coordinate, true));
+
+        try (PersistentPncManager firstRun = new PersistentPncManager(delegate, cacheDir)) {
+            firstRun.getArtifact(coordinate);
+        }
+        try (PersistentPncManager secondRun = new PersistentPncManager(delegate, cacheDir)) {
+            secondRun.getArtifact(coordinate);
+            assertThat(secondRun.getHits()).isZero();
+        }
+    }
+
+    @Test
+    public void unfinishedAndUnnamedBuildsAreNotCached() {
+        final ArtifactCoordinate running = new ArtifactCoordinate("org.test", "running", null, null, "1.0.0");
+        final ArtifactCoordinate unnamed = new ArtifactCoordinate("org.test", "unnamed", null, null, "1.0.0");
+        when(delegate.resolve(running)).thenReturn(PncResolution.built(running,
+                new PncArtifact(new PncArtifact.Id("mnop"), running, false),
+                new PncBuild(new PncBuild.Id("build_2"), new PncComponent("running"), false)));
+        when(delegate.resolve(unnamed)).thenReturn(PncResolution.built(unnamed,
+                new PncArtifact(new PncArtifact.Id("qrst"), unnamed, false),
+                new PncBuild(new PncBuild.Id("build_3"), new PncComponent(null), true)));
+
+        try (PersistentPncManager firstRun = new PersistentPncManager(delegate, cacheDir)) {
+            firstRun.resolve(running);
+            firstRun.resolve(unnamed);
+        }
+        try (PersistentPncManager secondRun = new PersistentPncManager(delegate, cacheDir)) {
+            secondRun.resolve(running);
+            secondRun.resolve(unnamed);
+            assertThat(secondRun.getHits()).isZero();
+            assertThat(secondRun.getMisses()).isEqualTo(2);
+        }
+    }
+
+    @Test
+    public void batchMergesCachedAndFetchedResolutionsInOrder() {
+        final ArtifactCoordinate first = new ArtifactCoordinate("org.test", "first", null, null, "1.0.0");
+        final ArtifactCoordinate cached = new ArtifactCoordinate("org.test", "cached", null, null, "1.0.0");
+        final ArtifactCoordinate last = new ArtifactCoordinate("org.test", "last", null, null, "1.0.0");
+        final PncBuild build = new PncBuild(new PncBuild.Id("build_5"), new PncComponent("test"), true);
+        when(delegate.resolve(cached)).thenReturn(PncResolution.built(cached,
+                new PncArtifact(new PncArtifact.Id("yz"), cached, false), build));
+        when(delegate.resolveAll(List.of(first, last))).thenReturn(List.of(
+                PncResolution.missing(first), PncResolution.missing(last)));
+
+        try (PersistentPncManager pncManager = new PersistentPncManager(delegate, cacheDir)) {
+            pncManager.resolve(cached);
+
+            final List<PncResolution> resolutions = pncManager.resolveAll(List.of(first, cached, last));
+
+            assertThat(resolutions)
+                    .extracting(PncResolution::getCoordinate)
+                    .containsExactly(first, cached, last);
+            assertThat(resolutions)
+                    .extracting(PncResolution::getStatus)
+                    .containsExactly(PncResolution.Status.MISSING, PncResolution.Status.BUILT, PncResolution.Status.MISSING);
+            assertThat(pncManager.getHits()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    public void unreadableCacheIsIgnored() throws Exception {
+        final ArtifactCoordinate coordinate = new ArtifactCoordinate("org.test", "corrupted", null, null, "1.0.0");
+        final PncArtifact artifact = new PncArtifact(new PncArtifact.Id("uvwx"), coordinate, false);
+        final PncBuild build = new PncBuild(new PncBuild.Id("build_4"), new PncComponent("corrupted"), true);
+        when(delegate.resolve(coordinate)).thenReturn(PncResolution.built(coordinate, artifact, build));
+
+        try (PersistentPncManager firstRun = new PersistentPncManager(delegate, cacheDir)) {
+            firstRun.resolve(coordinate);
+        }
+        // cut the cache in the middle of a record
+        final Path cacheFile = cacheDir.resolve(PersistentPncManager.CACHE_FILE);
+        final byte[] content = Files.readAllBytes(cacheFile);
+        Files.write(cacheFile, Arrays.copyOf(content, content.length - 3));
+
+        try (PersistentPncManager secondRun = new PersistentPncManager(delegate, cacheDir)) {
+            assertThat(secondRun.resolve(coordinate).getBuild().getId()).isEqualTo(build.getId());
+            assertThat(secondRun.getHits()).isZero();
+            assertThat(secondRun.getMisses()).isEqualTo(1);
+        }
+        // the cache is written again
+        try (PersistentPncManager thirdRun = new PersistentPncManager(offlineDelegate, cacheDir)) {
+            assertThat(thirdRun.resolve(coordinate).getBuild().getId()).isEqualTo(build.getId());
+            assertThat(thirdRun.getHits()).isEqualTo(1);
+        }
+    }
+}
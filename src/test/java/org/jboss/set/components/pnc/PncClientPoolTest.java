@@ -0,0 +1,135 @@
+package org.jboss.set.components.pnc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+class PncClientPoolTest {
+
+    private final List<TestClient> createdClients = new CopyOnWriteArrayList<>();
+
+    @Test
+    public void clientIsReused() throws Exception {
+        try (PncClientPool<TestClient> pool = new PncClientPool<>(this::createClient, 2)) {
+            for (int i = 0; i < 5; i++) {
+                pool.execute(client -> client);
+            }
+        }
+
+        assertThat(createdClients).hasSize(1);
+    }
+
+    @Test
+    public void concurrentCallsAreBoundedBySize() throws Exception {
+        final AtomicInteger inFlight = new AtomicInteger();
+        final AtomicInteger maxInFlight = new AtomicInteger();
+        final ExecutorService executor = Executors.newFixedThreadPool(6);
+        try (PncClientPool<TestClient> pool = new PncClientPool<>(this::createClient, 2)) {
+            final List<Future<?>> calls = new ArrayList<>();
+            for (int i = 0; i < 6; i++) {
+                calls.add(executor.submit(() -> pool.execute(client -> {
+                    maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                    try {
+                        TimeUnit.MILLISECONDS.sleep(50);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    inFlight.decrementAndGet();
+                    return null;
+                })));
+            }
+            for (Future<?> call : calls) {
+                call.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(maxInFlight.get()).isEqualTo(2);
+        assertThat(createdClients).hasSize(2);
+    }
+
+    @Test
+    public void closeClosesAllClients() throws Exception {
+        final PncClientPool<TestClient> pool = new PncClientPool<>(this::createClient, 2);
+        pool.execute(client -> client);
+
+        pool.close();
+
+        assertThat(createdClients).allMatch(TestClient::isClosed);
+        assertThatThrownBy(() -> pool.execute(client -> client))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    public void timedOutClientIsReplaced() throws Exception {
+        try (PncClientPool<TestClient> pool = new PncClientPool<>(this::createClient, 1, Duration.ofMillis(100))) {
+            // the call fails only when the watchdog closes its client, like a request blocked on a connection
+            assertThatThrownBy(() -> pool.execute(client -> {
+                client.awaitClose();
+                throw new IllegalStateException("Connection closed");
+            }))
+                    .isInstanceOf(PncException.class)
+                    .satisfies(e -> assertThat(PncException.isRetryable(e)).isTrue());
+
+            final TestClient next = pool.execute(client -> client);
+
+            assertThat(createdClients).hasSize(2);
+            assertThat(next.isClosed()).isFalse();
+        }
+    }
+
+    @Test
+    public void clientReturnedInTimeIsNotClosed() throws Exception {
+        try (PncClientPool<TestClient> pool = new PncClientPool<>(this::createClient, 1, Duration.ofMillis(100))) {
+            pool.execute(client -> client);
+            // past the timeout of the first call
+            TimeUnit.MILLISECONDS.sleep(200);
+
+            final TestClient reused = pool.execute(client -> client);
+
+            assertThat(createdClients).hasSize(1);
+            assertThat(reused.isClosed()).isFalse();
+        }
+    }
+
+    private TestClient createClient() {
+        final TestClient client = new TestClient();
+        createdClients.add(client);
+        return client;
+    }
+
+    private static class TestClient implements AutoCloseable {
+
+        private final CountDownLatch closed = new CountDownLatch(1);
+
+        @Override
+        public void close() {
+            closed.countDown();
+        }
+
+        boolean isClosed() {
+            return closed.getCount() == 0;
+        }
+
+        void awaitClose() {
+            try {
+                closed.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package org.jboss.set.components.pnc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.spy;
+
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+import org.wildfly.channel.ArtifactCoordinate;
+
+class PncManagerImplTest {
+
+    @Test
+    public void queryMatchesEachGavOnce() {
+        final List<ArtifactCoordinate> coordinates = List.of(
+                new ArtifactCoordinate("org.foo", "bar", "jar", null, "1.0.0"),
+                new ArtifactCoordinate("org.foo", "bar", "pom", null, "1.0.0"),
+                new ArtifactCoordinate("org.foo", "baz", null, null, "2.0.0"));
+
+        assertThat(PncManagerImpl.artifactQuery(coordinates))
+                .isEqualTo("identifier=like=\"org.foo:bar:%:1.0.0\",identifier=like=\"org.foo:baz:%:2.0.0\"");
+    }
+
+    @Test
+    public void batchIsSplitIntoQueriesInOrder() throws Exception {
+        final PncManagerImpl pncManager = spy(new PncManagerImpl(new URL("http://localhost:8080")));
+        final List<List<ArtifactCoordinate>> queriedBatches = new ArrayList<>();
+        doAnswer(invocation -> {
+            final List<ArtifactCoordinate> batch = invocation.getArgument(0);
+            queriedBatches.add(List.copyOf(batch));
+            return batch.stream().map(PncResolution::missing).collect(Collectors.toList());
+        }).when(pncManager).resolveBatch(anyList());
+        final List<ArtifactCoordinate> coordinates = new ArrayList<>();
+        for (int i = 0; i < 2 * PncManagerImpl.MAX_QUERY_BATCH + 1; i++) {
+            coordinates.add(new ArtifactCoordinate("org.test", "artifact-" + i, null, null, "1.0.0"));
+        }
+
+        final List<PncResolution> resolutions = pncManager.resolveAll(coordinates);
+
+        assertThat(queriedBatches)
+                .extracting(List::size)
+                .containsExactly(PncManagerImpl.MAX_QUERY_BATCH, PncManagerImpl.MAX_QUERY_BATCH, 1);
+        assertThat(resolutions)
+                .extracting(PncResolution::getCoordinate)
+                .containsExactlyElementsOf(coordinates);
+        pncManager.close();
+    }
+}
@@ -0,0 +1,116 @@
+package org.jboss.set.components.pnc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.when;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.wildfly.channel.ArtifactCoordinate;
+
+@ExtendWith(MockitoExtension.class)
+class SnapshotPncManagerTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Mock
+    private PncManager delegate;
+
+    @Test
+    public void recordedAnswersAreReplayed() throws Exception {
+        final ArtifactCoordinate builtCoordinate = new ArtifactCoordinate("io.opentelemetry", "opentelemetry-context", null, null, "1.29.0");
+        final ArtifactCoordinate missingCoordinate = new ArtifactCoordinate("org.test", "missing", null, null, "1.0.0");
+        final PncArtifact context = new PncArtifact(
+                new PncArtifact.Id("abcd"),
+                new ArtifactCoordinate("io.opentelemetry", "opentelemetry-context", "jar", null, "1.29.0"),
+                false);
+        final PncArtifact semconv = new PncArtifact(
+                new PncArtifact.Id("efgh"),
+                new ArtifactCoordinate("io.opentelemetry", "opentelemetry-semconv", "jar", null, "1.29.0.alpha"),
+                false);
+        final PncBuild build = new PncBuild(new PncBuild.Id("build_1"), new PncComponent("opentelemetry"), true);
+        when(delegate.resolveAll(List.of(builtCoordinate, missingCoordinate))).thenReturn(List.of(
+                PncResolution.built(builtCoordinate, context, build),
+                PncResolution.missing(missingCoordinate)));
+        when(delegate.getArtifactsInBuild(build.getId())).thenReturn(List.of(context, semconv));
+
+        final Path snapshotFile = tempDir.resolve("snapshot.bin");
+        try (RecordingPncManager recordingPncManager = new RecordingPncManager(delegate, snapshotFile)) {
+            recordingPncManager.resolveAll(List.of(builtCoordinate, missingCoordinate));
+            recordingPncManager.getArtifactsInBuild(build.getId());
+        }
+
+        final SnapshotPncManager snapshotPncManager = SnapshotPncManager.load(snapshotFile);
+
+        final PncResolution builtResolution = snapshotPncManager.resolve(builtCoordinate);
+        assertThat(builtResolution.getStatus()).isEqualTo(PncResolution.Status.BUILT);
+        assertThat(builtResolution.getBuild().getId()).isEqualTo(build.getId());
+        assertThat(snapshotPncManager.resolve(missingCoordinate).getStatus()).isEqualTo(PncResolution.Status.MISSING);
+        assertThat(snapshotPncManager.getArtifactsInBuild(build.getId()))
+                .map(PncArtifact::getId)
+                .containsExactly(context.getId(), semconv.getId());
+        // resolved as part of the recorded build
+        final PncResolution semconvResolution = snapshotPncManager.resolve(
+                new ArtifactCoordinate("io.opentelemetry", "opentelemetry-semconv", null, null, "1.29.0.alpha"));
+        assertThat(semconvResolution.getStatus()).isEqualTo(PncResolution.Status.BUILT);
+        assertThat(semconvResolution.getComponent()).isEqualTo(build.getBrewComponent());
+    }
+
+    @Test
+    public void unfinishedBuildsAreReplayedAsUnfinished() throws Exception {
+        final ArtifactCoordinate coordinate = new ArtifactCoordinate("org.test", "running", null, null, "1.0.0");
+        final PncArtifact artifact = new PncArtifact(new PncArtifact.Id("ijkl"),
+                new ArtifactCoordinate("org.test", "running", "jar", null, "1.0.0"), false);
+        final PncBuild build = new PncBuild(new PncBuild.Id("build_2"), new PncComponent("running"), false);
+        when(delegate.resolveAll(List.of(coordinate))).thenReturn(List.of(PncResolution.built(coordinate, artifact, build)));
+
+        final Path snapshotFile = tempDir.resolve("snapshot.bin");
+        try (RecordingPncManager recordingPncManager = new RecordingPncManager(delegate, snapshotFile)) {
+            recordingPncManager.resolveAll(List.of(coordinate));
+        }
+
+        final PncResolution resolution = SnapshotPncManager.load(snapshotFile).resolve(coordinate);
+        assertThat(resolution.getBuild().isFinished()).isFalse();
+    }
+
+    @Test
+    public void unrecordedLookupsFail() throws Exception {
+        final Path snapshotFile = tempDir.resolve("snapshot.bin");
+        new RecordingPncManager(delegate, snapshotFile).close();
+
+        final SnapshotPncManager snapshotPncManager = SnapshotPncManager.load(snapshotFile);
+
+        assertThatThrownBy(() -> snapshotPncManager.getArtifactsInBuild(new PncBuild.Id("build_1")))
+                .isInstanceOf(PncException.class);
+    }
+
+    @Test
+    public void corruptedCountsAreRejected() throws Exception {
+        final Path snapshotFile = tempDir.resolve("snapshot.bin");
+        try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(snapshotFile))) {
+            // "PNCS"
+            out.writeInt(0x504E4353);
+            out.writeInt(PncSnapshot.VERSION);
+            // no artifacts and builds, one build listing with a negative number of artifacts
+            out.writeInt(0);
+            out.writeInt(0);
+            out.writeInt(1);
+            out.writeUTF("build_1");
+            out.writeInt(-5);
+        }
+
+        assertThatThrownBy(() -> SnapshotPncManager.load(snapshotFile))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("Invalid number of entries");
+    }
+}
@@ -0,0 +1,81 @@
+package org.jboss.set.components.pnc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class ThrottlingAsyncPncManagerTest {
+
+    private static final PncBuild.Id BUILD_ID = new PncBuild.Id("build_1");
+
+    @Mock
+    private AsyncPncManager delegate;
+
+    @Test
+    public void overloadedRequestsAreRetried() throws Exception {
+        when(delegate.getArtifactsInBuild(BUILD_ID))
+                .thenReturn(CompletableFuture.failedFuture(new PncException("Too many requests", 429, null)))
+                .thenReturn(CompletableFuture.completedFuture(List.of()));
+        final ThrottlingAsyncPncManager pncManager = new ThrottlingAsyncPncManager(delegate, 4, 0, 1);
+
+        assertThat(pncManager.getArtifactsInBuild(BUILD_ID).get(10, TimeUnit.SECONDS)).isEmpty();
+
+        verify(delegate, times(2)).getArtifactsInBuild(BUILD_ID);
+        assertThat(pncManager.getConcurrencyLimit()).isLessThan(4);
+    }
+
+    @Test
+    public void clientErrorsAreNotRetried() {
+        final PncException failure = new PncException("Bad request", 400, null);
+        when(delegate.getArtifactsInBuild(BUILD_ID)).thenReturn(CompletableFuture.failedFuture(failure));
+        final ThrottlingAsyncPncManager pncManager = new ThrottlingAsyncPncManager(delegate, 4, 0, 3);
+
+        assertThat(pncManager.getArtifactsInBuild(BUILD_ID))
+                .failsWithin(10, TimeUnit.SECONDS)
+                .withThrowableOfType(ExecutionException.class)
+                .withCause(failure);
+
+        verify(delegate, times(1)).getArtifactsInBuild(BUILD_ID);
+        assertThat(pncManager.getConcurrencyLimit()).isEqualTo(4);
+    }
+
+    @Test
+    public void requestsOverTheLimitWaitWithoutBlocking() throws Exception {
+        final List<CompletableFuture<List<PncArtifact>>> responses = new ArrayList<>();
+        when(delegate.getArtifactsInBuild(BUILD_ID)).thenAnswer(i -> {
+            final CompletableFuture<List<PncArtifact>> response = new CompletableFuture<>();
+            responses.add(response);
+            return response;
+        });
+        final ThrottlingAsyncPncManager pncManager = new ThrottlingAsyncPncManager(delegate, 2, 0, 0);
+
+        final List<CompletableFuture<List<PncArtifact>>> results = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            results.add(pncManager.getArtifactsInBuild(BUILD_ID));
+        }
+        // the third call is queued until one of the first two completes
+        assertThat(responses).hasSize(2);
+
+        responses.get(0).complete(List.of());
+        assertThat(responses).hasSize(3);
+        responses.get(1).complete(List.of());
+        responses.get(2).complete(List.of());
+
+        for (CompletableFuture<List<PncArtifact>> result : results) {
+            assertThat(result.get(10, TimeUnit.SECONDS)).isEmpty();
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package org.jboss.set.components.pnc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.jboss.set.components.metrics.MetricsRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.wildfly.channel.ArtifactCoordinate;
+
+@ExtendWith(MockitoExtension.class)
+class ThrottlingPncManagerTest {
+
+    private static final PncBuild.Id BUILD_ID = new PncBuild.Id("build_1");
+    private static final ArtifactCoordinate COORDINATE = new ArtifactCoordinate("org.test", "one", null, null, "1.0.0");
+
+    @Mock
+    private PncManager delegate;
+
+    @Test
+    public void overloadedRequestsAreRetried() {
+        when(delegate.getArtifactsInBuild(BUILD_ID))
+                .thenThrow(new PncException("Too many requests", 429, null))
+                .thenReturn(List.of());
+        final MetricsRegistry metrics = new MetricsRegistry();
+        final ThrottlingPncManager pncManager = new ThrottlingPncManager(delegate, 4, 0, 1, metrics);
+
+        assertThat(pncManager.getArtifactsInBuild(BUILD_ID)).isEmpty();
+
+        verify(delegate, times(2)).getArtifactsInBuild(BUILD_ID);
+        assertThat(pncManager.getConcurrencyLimit()).isLessThan(4);
+        assertThat(metrics.sum(ThrottlingPncManager.RETRIES)).isEqualTo(1);
+    }
+
+    @Test
+    public void failureIsThrownWhenRetriesAreExhausted() {
+        when(delegate.getArtifactsInBuild(BUILD_ID)).thenThrow(new PncException("Service unavailable", 503, null));
+        final ThrottlingPncManager pncManager = new ThrottlingPncManager(delegate, 4, 0, 1);
+
+        assertThatThrownBy(() -> pncManager.getArtifactsInBuild(BUILD_ID))
+                .isInstanceOf(PncException.class);
+
+        verify(delegate, times(2)).getArtifactsInBuild(BUILD_ID);
+    }
+
+    @Test
+    public void clientErrorsAreNotRetried() {
+        when(delegate.getArtifactsInBuild(BUILD_ID)).thenThrow(new PncException("Bad request", 400, null));
+        final ThrottlingPncManager pncManager = new ThrottlingPncManager(delegate, 4, 0, 3);
+
+        assertThatThrownBy(() -> pncManager.getArtifactsInBuild(BUILD_ID))
+                .isInstanceOf(PncException.class);
+
+        verify(delegate, times(1)).getArtifactsInBuild(BUILD_ID);
+        assertThat(pncManager.getConcurrencyLimit()).isEqualTo(4);
+    }
+
+    @Test
+    public void slowEndpointIsNotTakenForCongestionOfFastOne() {
+        when(delegate.getArtifact(COORDINATE)).thenReturn(null);
+        when(delegate.getArtifactsInBuild(BUILD_ID)).thenAnswer(i -> {
+            Thread.sleep(50);
+            return List.of();
+        });
+        final ThrottlingPncManager pncManager = new ThrottlingPncManager(delegate, 4, 0, 0);
+
+        for (int i = 0; i < 5; i++) {
+            pncManager.getArtifact(COORDINATE);
+        }
+        for (int i = 0; i < 3; i++) {
+            pncManager.getArtifactsInBuild(BUILD_ID);
+        }
+
+        assertThat(pncManager.getConcurrencyLimit()).isEqualTo(4);
+    }
+
+    @Test
+    public void rateLimitIsChargedPerHttpRequest() {
+        when(delegate.resolve(COORDINATE)).thenReturn(PncResolution.missing(COORDINATE));
+        final ThrottlingPncManager pncManager = new ThrottlingPncManager(delegate, 4, 10, 0);
+
+        final long start = System.nanoTime();
+        // two artifact requests each, the burst of 10 is exceeded by the sixth call
+        for (int i = 0; i < 6; i++) {
+            pncManager.resolve(COORDINATE);
+        }
+
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isGreaterThanOrEqualTo(Duration.ofMillis(150));
+    }
+
+    @Test
+    public void rateLimitsOfArtifactsAndBuildsAreSeparate() {
+        when(delegate.getArtifact(COORDINATE)).thenReturn(null);
+        when(delegate.getArtifactsInBuild(BUILD_ID)).thenReturn(List.of());
+        final ThrottlingPncManager pncManager = new ThrottlingPncManager(delegate, 4, 2, 0);
+
+        final long start = System.nanoTime();
+        // two artifact requests and one build request fit in the burst of 2 of their own resource,
+        // with a single bucket the build listing would wait for 500 ms
+        pncManager.getArtifact(COORDINATE);
+        pncManager.getArtifactsInBuild(BUILD_ID);
+
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofMillis(400));
+    }
+}
@@ -0,0 +1,37 @@
+package org.jboss.set.components.progress;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+
+import org.jboss.set.components.pnc.PncException;
+import org.junit.jupiter.api.Test;
+import org.wildfly.channel.ArtifactCoordinate;
+
+class ConsoleDiagnosticsTest {
+
+    private final ByteArrayOutputStream output = new ByteArrayOutputStream();
+    private final PrintStream out = new PrintStream(output, true, StandardCharsets.UTF_8);
+
+    @Test
+    public void failuresArePrintedWhenNotVerbose() {
+        final ConsoleDiagnostics diagnostics = new ConsoleDiagnostics(out, false);
+
+        diagnostics.baselineReused(10, 2);
+        diagnostics.streamFailed(new ArtifactCoordinate("org.test", "one", null, null, "1.0.0"),
+                new PncException("Service unavailable", 503, null));
+
+        assertThat(output.toString(StandardCharsets.UTF_8))
+                .isEqualTo("[ERROR] Unable to resolve org.test:one:1.0.0: Service unavailable" + System.lineSeparator());
+    }
+
+    @Test
+    public void baselineIsPrintedWhenVerbose() {
+        new ConsoleDiagnostics(out, true).baselineReused(10, 2);
+
+        assertThat(output.toString(StandardCharsets.UTF_8))
+                .startsWith("Re-using 10 streams resolved in the baseline, resolving 2 changed streams");
+    }
+}
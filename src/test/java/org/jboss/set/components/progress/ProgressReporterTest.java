@@ -0,0 +1,56 @@
+package org.jboss.set.components.progress;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import org.jboss.set.components.ManifestVerifier;
+import org.jboss.set.components.metrics.MetricsRegistry;
+import org.junit.jupiter.api.Test;
+
+class ProgressReporterTest {
+
+    private final MetricsRegistry metrics = new MetricsRegistry();
+
+    @Test
+    public void reportsResolvedAndCachedStreams() {
+        metrics.counter(ManifestVerifier.STREAMS, "status", "built").increment(40);
+        metrics.counter(ManifestVerifier.STREAMS, "status", "failed").increment(2);
+        metrics.counter(ManifestVerifier.LOOKED_UP_STREAMS).increment(12);
+        metrics.counter(ManifestVerifier.CACHED_STREAMS).increment(30);
+
+        final ProgressReporter reporter = new ProgressReporter(metrics, 100, System.out, false);
+
+        assertThat(reporter.render(metrics.sum(ManifestVerifier.STREAMS)))
+                .startsWith("Streams: 42/100 (42%), 30 cached, 2 failed | 0 PNC requests in flight")
+                .contains("ETA");
+    }
+
+    @Test
+    public void lookupsInFlightAreNotCountedAsCached() {
+        // 400 lookups started, only 40 of them completed so far
+        metrics.counter(ManifestVerifier.LOOKED_UP_STREAMS).increment(400);
+        metrics.counter(ManifestVerifier.STREAMS, "status", "built").increment(40);
+
+        final ProgressReporter reporter = new ProgressReporter(metrics, 1000, System.out, false);
+
+        assertThat(reporter.render(metrics.sum(ManifestVerifier.STREAMS)))
+                .startsWith("Streams: 40/1000 (4%), 0 cached, 0 failed");
+    }
+
+    @Test
+    public void printsFinalProgressOnClose() {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        metrics.counter(ManifestVerifier.STREAMS, "status", "built").increment(10);
+
+        try (ProgressReporter ignored = new ProgressReporter(metrics, 10, new PrintStream(out, true, StandardCharsets.UTF_8), false,
+                Duration.ofHours(1)).start()) {
+            // the interval is too long to report before closing
+        }
+
+        assertThat(out.toString(StandardCharsets.UTF_8)).containsOnlyOnce("Streams: 10/10 (100%)").doesNotContain("ETA");
+    }
+}
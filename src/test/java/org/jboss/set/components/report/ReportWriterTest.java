@@ -0,0 +1,128 @@
+package org.jboss.set.components.report;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.jboss.set.components.VerificationResult;
+import org.jboss.set.components.Violation;
+import org.jboss.set.components.Warning;
+import org.junit.jupiter.api.Test;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.wildfly.channel.ArtifactCoordinate;
+
+class ReportWriterTest {
+
+    private static final ArtifactCoordinate ARTIFACT_ONE = new ArtifactCoordinate("org.test", "one", "jar", null, "1.0.0");
+    private static final ArtifactCoordinate ARTIFACT_TWO = new ArtifactCoordinate("org.test", "two", "jar", null, "1.0.1");
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    public void jsonReportListsAllManifests() throws Exception {
+        final JsonNode json = mapper.readTree(write(ReportFormat.JSON));
+
+        assertThat(json.get("manifests")).hasSize(2);
+        final JsonNode first = json.get("manifests").get(0);
+        assertThat(first.get("manifest").asText()).isEqualTo("manifest-one.yaml");
+        assertThat(first.get("complete").asBoolean()).isFalse();
+        assertThat(first.get("violations").get(0).get("component").asText()).isEqualTo("test-component");
+        assertThat(first.get("violations").get(0).get("artifactsByVersion").get("1.0.1").get(0).asText())
+                .isEqualTo("org.test:two:1.0.1");
+        assertThat(first.get("warnings").get(0).get("artifacts").get(0).asText()).isEqualTo("org.test:one:1.0.0");
+
+        final JsonNode second = json.get("manifests").get(1);
+        assertThat(second.get("complete").asBoolean()).isTrue();
+        assertThat(second.get("violations")).isEmpty();
+    }
+
+    @Test
+    public void junitReportFailsViolatedComponents() throws Exception {
+        final Document document = DocumentBuilderFactory.newInstance().newDocumentBuilder()
+                .parse(new ByteArrayInputStream(write(ReportFormat.JUNIT)));
+
+        assertThat(document.getElementsByTagName("testsuite").getLength()).isEqualTo(2);
+        final Element suite = (Element) document.getElementsByTagName("testsuite").item(0);
+        assertThat(suite.getAttribute("name")).isEqualTo("manifest-one.yaml");
+        assertThat(suite.getAttribute("failures")).isEqualTo("1");
+        assertThat(suite.getAttribute("errors")).isEqualTo("1");
+        assertThat(suite.getElementsByTagName("failure").getLength()).isEqualTo(1);
+        assertThat(suite.getElementsByTagName("system-err").item(0).getTextContent()).contains("org.test:one:1.0.0");
+    }
+
+    @Test
+    public void junitReportAcceptsComponentsWithoutName() throws Exception {
+        final VerificationResult result = new VerificationResult();
+        result.addViolation(new Violation("test-component", Map.of("1.0.0", List.of(ARTIFACT_ONE), "1.0.1", List.of(ARTIFACT_TWO))));
+        // builds without a Brew name
+        result.addViolation(new Violation(null, Map.of("1.0.0", List.of(ARTIFACT_ONE), "1.0.1", List.of(ARTIFACT_TWO))));
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ReportWriter writer = ReportFormat.JUNIT.createWriter(out)) {
+            writer.write("manifest-one.yaml", result);
+        }
+
+        final Document document = DocumentBuilderFactory.newInstance().newDocumentBuilder()
+                .parse(new ByteArrayInputStream(out.toByteArray()));
+        assertThat(document.getElementsByTagName("testcase").getLength()).isEqualTo(2);
+        assertThat(((Element) document.getElementsByTagName("testcase").item(0)).getAttribute("name")).isEqualTo("null");
+        assertThat(document.getElementsByTagName("failure").getLength()).isEqualTo(2);
+        assertThat(document.getElementsByTagName("failure").item(1).getTextContent())
+                .contains("Component test-component has multiple versions")
+                .contains("* org.test:two");
+    }
+
+    @Test
+    public void sarifReportHasResultPerFinding() throws Exception {
+        final JsonNode json = mapper.readTree(write(ReportFormat.SARIF));
+
+        assertThat(json.get("version").asText()).isEqualTo("2.1.0");
+        final JsonNode results = json.get("runs").get(0).get("results");
+        // violation, warning and the incomplete verification
+        assertThat(results).hasSize(3);
+        assertThat(results.get(0).get("ruleId").asText()).isEqualTo(SarifReportWriter.VIOLATION_RULE);
+        assertThat(results.get(0).get("level").asText()).isEqualTo("error");
+        assertThat(results.get(0).get("locations").get(0).get("physicalLocation").get("artifactLocation").get("uri").asText())
+                .isEqualTo("manifest-one.yaml");
+    }
+
+    @Test
+    public void textReportNamesManifestsOnlyIfThereAreMore() throws Exception {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ReportWriter writer = ReportFormat.TEXT.createWriter(out)) {
+            writer.write("manifest-one.yaml", result());
+        }
+        assertThat(out.toString(StandardCharsets.UTF_8))
+                .doesNotContain("manifest-one.yaml")
+                .contains("test-component");
+
+        assertThat(new String(write(ReportFormat.TEXT), StandardCharsets.UTF_8))
+                .contains("Manifest manifest-one.yaml:")
+                .contains("Manifest manifest-two.yaml:");
+    }
+
+    private static byte[] write(ReportFormat format) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ReportWriter writer = format.createWriter(out)) {
+            writer.write("manifest-one.yaml", result());
+            writer.write("manifest-two.yaml", new VerificationResult());
+        }
+        return out.toByteArray();
+    }
+
+    private static VerificationResult result() {
+        final VerificationResult result = new VerificationResult();
+        result.addViolation(new Violation("test-component", Map.of("1.0.0", List.of(ARTIFACT_ONE), "1.0.1", List.of(ARTIFACT_TWO))));
+        result.addWarning(new Warning("[WARN] Artifacts not build in PNC:", List.of(ARTIFACT_ONE)));
+        result.markIncomplete();
+        return result;
+    }
+}
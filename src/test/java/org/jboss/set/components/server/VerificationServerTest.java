@@ -0,0 +1,158 @@
+package org.jboss.set.components.server;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.jboss.set.components.ManifestVerifier;
+import org.jboss.set.components.pnc.PncArtifact;
+import org.jboss.set.components.pnc.PncBuild;
+import org.jboss.set.components.pnc.PncComponent;
+import org.jboss.set.components.pnc.PncManager;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Answers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.wildfly.channel.ArtifactCoordinate;
+import org.wildfly.channel.ChannelManifest;
+import org.wildfly.channel.ChannelManifestMapper;
+import org.wildfly.channel.Stream;
+
+@ExtendWith(MockitoExtension.class)
+class VerificationServerTest {
+
+    @Mock(answer = Answers.CALLS_REAL_METHODS)
+    private PncManager pncManager;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    public void manifestInRequestBodyIsVerified() throws Exception {
+        final PncArtifact pncArtifact = new PncArtifact(
+                new PncArtifact.Id("abcd"),
+                new ArtifactCoordinate("io.opentelemetry", "opentelemetry-context", "jar", null, "1.29.0"),
+                false);
+        final PncBuild pncBuild = new PncBuild(new PncBuild.Id("build_1"), new PncComponent("opentelemetry"), true);
+        when(pncManager.getArtifact(any())).thenReturn(pncArtifact);
+        when(pncManager.getBuildIdContainingArtifact(pncArtifact.getId())).thenReturn(pncBuild);
+        when(pncManager.getArtifactsInBuild(pncBuild.getId())).thenReturn(List.of(pncArtifact));
+
+        try (VerificationServer server = startServer(1, 1)) {
+            final HttpURLConnection connection = post(server, manifestYaml());
+
+            assertThat(connection.getResponseCode()).isEqualTo(200);
+            final JsonNode result = readJson(connection.getInputStream());
+            assertThat(result.get("complete").asBoolean()).isTrue();
+            assertThat(result.get("violations")).isEmpty();
+        }
+    }
+
+    @Test
+    public void requestsBeyondQueueAreRejected() throws Exception {
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        when(pncManager.getArtifact(any())).thenAnswer(i -> {
+            started.countDown();
+            release.await(10, TimeUnit.SECONDS);
+            return null;
+        });
+
+        try (VerificationServer server = startServer(1, 0)) {
+            final CompletableFuture<Integer> running = CompletableFuture.supplyAsync(() -> {
+                try {
+                    return post(server, manifestYaml()).getResponseCode();
+                } catch (IOException e) {
+                    throw new RuntimeException(e);
+                }
+            });
+            assertThat(started.await(10, TimeUnit.SECONDS)).isTrue();
+
+            final HttpURLConnection rejected = post(server, manifestYaml());
+            assertThat(rejected.getResponseCode()).isEqualTo(503);
+            assertThat(rejected.getHeaderField("Retry-After")).isNotNull();
+
+            release.countDown();
+            assertThat(running.get(10, TimeUnit.SECONDS)).isEqualTo(200);
+        }
+    }
+
+    @Test
+    public void invalidRequestIsRejected() throws Exception {
+        try (VerificationServer server = startServer(1, 1)) {
+            assertThat(post(server, "").getResponseCode()).isEqualTo(400);
+        }
+    }
+
+    @Test
+    public void onlyRemoteManifestUrlsAreAccepted() throws Exception {
+        try (VerificationServer server = startServer(1, 1)) {
+            final HttpURLConnection connection = post(server, "/verify?manifest-url=file:///etc/passwd", "");
+
+            assertThat(connection.getResponseCode()).isEqualTo(400);
+            assertThat(readJson(connection.getErrorStream()).get("error").asText()).isEqualTo("Only http and https manifest URLs are accepted");
+        }
+    }
+
+    @Test
+    public void unreadableManifestIsRejected() throws Exception {
+        try (VerificationServer server = startServer(1, 1)) {
+            // nothing listens on the port
+            final HttpURLConnection connection = post(server, "/verify?manifest-url=http://localhost:1/manifest.yaml", "");
+
+            assertThat(connection.getResponseCode()).isEqualTo(400);
+            assertThat(readJson(connection.getErrorStream()).get("error").asText()).isEqualTo("Unable to read the manifest");
+        }
+    }
+
+    private VerificationServer startServer(int maxParallel, int maxQueued) throws IOException {
+        final VerificationServer server = new VerificationServer(new ManifestVerifier(pncManager),
+                new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), maxParallel, maxQueued);
+        server.start();
+        return server;
+    }
+
+    private static String manifestYaml() {
+        final ChannelManifest manifest = new ChannelManifest.Builder()
+                .setSchemaVersion(ChannelManifestMapper.SCHEMA_VERSION_1_1_0)
+                .addStreams(new Stream("io.opentelemetry", "opentelemetry-context", "1.29.0"))
+                .build();
+        return ChannelManifestMapper.toYaml(manifest);
+    }
+
+    private static HttpURLConnection post(VerificationServer server, String body) throws IOException {
+        return post(server, "/verify", body);
+    }
+
+    private static HttpURLConnection post(VerificationServer server, String path, String body) throws IOException {
+        final InetSocketAddress address = server.getAddress();
+        final HttpURLConnection connection = (HttpURLConnection) new URL("http", address.getHostString(), address.getPort(), path).openConnection();
+        connection.setRequestMethod("POST");
+        connection.setDoOutput(true);
+        try (OutputStream out = connection.getOutputStream()) {
+            out.write(body.getBytes(StandardCharsets.UTF_8));
+        }
+        return connection;
+    }
+
+    private JsonNode readJson(InputStream in) throws IOException {
+        try (in) {
+            return mapper.readTree(in);
+        }
+    }
+}